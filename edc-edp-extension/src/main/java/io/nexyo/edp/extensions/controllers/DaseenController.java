@@ -4,11 +4,17 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nexyo.edp.extensions.dtos.internal.*;
 import io.nexyo.edp.extensions.services.AssetHelperService;
+import io.nexyo.edp.extensions.services.DaseenBulkService;
+import io.nexyo.edp.extensions.services.DaseenReconciliationService;
 import io.nexyo.edp.extensions.services.DaseenService;
+import io.nexyo.edp.extensions.services.IdempotencyService;
+import io.nexyo.edp.extensions.services.RequestExecutor;
+import io.nexyo.edp.extensions.utils.ETagUtils;
 import io.nexyo.edp.extensions.utils.LoggingUtils;
 import jakarta.ws.rs.core.Response;
 
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.edc.connector.controlplane.services.spi.asset.AssetService;
 import org.eclipse.edc.spi.monitor.Monitor;
@@ -22,23 +28,45 @@ public class DaseenController implements DaseenInterface {
         private final DaseenService daseenService;
         private final ObjectMapper mapper = new ObjectMapper();
         private final AssetHelperService assetHelperService;
+        private final DaseenBulkService daseenBulkService;
+        private final DaseenReconciliationService daseenReconciliationService;
+        private final RequestExecutor requestExecutor;
+        private final IdempotencyService idempotencyService;
         private static final String CALLBACK_INFO = "Check specified dataplane-callback address for updates.";
 
         /**
          * Constructor for the DaseenController.
          *
-         * @param daseenService the daseen service
-         * @param assetService  the asset service
+         * @param daseenService               the daseen service
+         * @param assetService                the asset service
+         * @param daseenBulkService           the daseen bulk service
+         * @param daseenReconciliationService the daseen reconciliation service
+         * @param requestExecutor             the executor running the blocking request handling
+         * @param idempotencyService          the service deduplicating publication requests
          */
-        public DaseenController(DaseenService daseenService, AssetService assetService) {
+        public DaseenController(DaseenService daseenService, AssetService assetService,
+                        DaseenBulkService daseenBulkService, DaseenReconciliationService daseenReconciliationService,
+                        RequestExecutor requestExecutor, IdempotencyService idempotencyService) {
                 this.logger = LoggingUtils.getLogger();
                 this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
                 this.daseenService = daseenService;
                 this.assetHelperService = new AssetHelperService(assetService);
+                this.daseenBulkService = daseenBulkService;
+                this.daseenReconciliationService = daseenReconciliationService;
+                this.requestExecutor = requestExecutor;
+                this.idempotencyService = idempotencyService;
         }
 
         @Override
-        public Response create(String assetId, DaseenCreateEntryRequestDto daseenCreateEntryRequestDto) {
+        public CompletionStage<Response> create(String assetId,
+                        DaseenCreateEntryRequestDto daseenCreateEntryRequestDto, String idempotencyKey) {
+                var contractId = daseenCreateEntryRequestDto == null ? null : daseenCreateEntryRequestDto.contractId();
+                return this.idempotencyService.execute(idempotencyKey, "daseen.create", assetId + "|" + contractId,
+                                () -> this.requestExecutor.submit(
+                                                () -> createResource(assetId, daseenCreateEntryRequestDto)));
+        }
+
+        private Response createResource(String assetId, DaseenCreateEntryRequestDto daseenCreateEntryRequestDto) {
                 this.logger.info(String.format("Creating Daseen resource for EDP asset %s", assetId));
                 var daseenResponseDto = this.daseenService.createDaseenResource(assetId,
                                 daseenCreateEntryRequestDto.contractId());
@@ -46,9 +74,15 @@ public class DaseenController implements DaseenInterface {
                 var daseenResourceDto = new DaseenResourceDto(UUID.randomUUID().toString(), assetId, daseenResourceId,
                                 daseenCreateEntryRequestDto.contractId(), daseenResponseDto.uploadUrl());
 
-                this.assetHelperService.persist(assetId, AssetHelperService.DASEEN_RESOURCE_KEY, daseenResourceDto);
-
-                this.daseenService.publishToDaseen(daseenResourceDto);
+                this.assetHelperService.load(assetId, AssetHelperService.DASEEN_RESOURCE_KEY, DaseenResourceDto.class)
+                                .filter(existing -> !daseenResourceId.equals(existing.getResourceId()))
+                                .ifPresent(this.assetHelperService::tombstone);
+                try {
+                        this.daseenService.publishToDaseen(daseenResourceDto);
+                } finally {
+                        this.assetHelperService.persist(assetId, AssetHelperService.DASEEN_RESOURCE_KEY,
+                                        daseenResourceDto);
+                }
                 final var response = new GenericResponseDto(
                                 "Publishing job for EDP result asset to Daseen dispatched to dataplane. " +
                                                 CALLBACK_INFO,
@@ -60,7 +94,59 @@ public class DaseenController implements DaseenInterface {
         }
 
         @Override
-        public Response update(String assetId) {
+        public CompletionStage<Response> bulk(DaseenBulkRequestDto daseenBulkRequestDto) {
+                return this.requestExecutor.submit(() -> publishResources(daseenBulkRequestDto));
+        }
+
+        private Response publishResources(DaseenBulkRequestDto daseenBulkRequestDto) {
+                if (daseenBulkRequestDto == null || daseenBulkRequestDto.assetIds() == null
+                                || daseenBulkRequestDto.assetIds().isEmpty()) {
+                        var response = new GenericResponseDto("No asset ids given", Status.FAILED);
+                        return Response.status(Response.Status.BAD_REQUEST).entity(response).build();
+                }
+
+                var results = this.daseenBulkService.publishAll(daseenBulkRequestDto.contractId(),
+                                daseenBulkRequestDto.assetIds());
+
+                return Response.status(Response.Status.OK)
+                                .entity(results)
+                                .build();
+        }
+
+        @Override
+        public Response getReconciliation() {
+                return Response.status(Response.Status.OK)
+                                .entity(this.daseenReconciliationService.getReport())
+                                .build();
+        }
+
+        @Override
+        public Response reconcile(boolean repair) {
+                return Response.status(Response.Status.ACCEPTED)
+                                .entity(this.daseenReconciliationService.trigger(repair))
+                                .build();
+        }
+
+        @Override
+        public Response get(String assetId, String ifNoneMatch) {
+                var daseenResourceOptional = this.assetHelperService.load(assetId,
+                                AssetHelperService.DASEEN_RESOURCE_KEY, DaseenResourceDto.class);
+
+                if (daseenResourceOptional.isEmpty()) {
+                        var response = new GenericResponseDto("No resource found for asset: " + assetId,
+                                        Status.NOT_FOUND);
+                        return Response.status(Response.Status.NOT_FOUND).entity(response).build();
+                }
+
+                return ETagUtils.conditionalOk(daseenResourceOptional.get(), ifNoneMatch);
+        }
+
+        @Override
+        public CompletionStage<Response> update(String assetId, boolean force) {
+                return this.requestExecutor.submit(() -> updateResource(assetId, force));
+        }
+
+        private Response updateResource(String assetId, boolean force) {
                 this.logger.info(String.format("Updating Daseen resource for asset with id %s", assetId));
 
                 final var daseenResourceOptional = this.assetHelperService.load(assetId,
@@ -73,7 +159,14 @@ public class DaseenController implements DaseenInterface {
                 }
 
                 var daseenResourceDto = daseenResourceOptional.get();
-                this.daseenService.updateInDaseen(daseenResourceDto);
+                if (!this.daseenService.updateInDaseen(daseenResourceDto, force)) {
+                        return Response.status(Response.Status.OK)
+                                        .entity(new GenericResponseDto(
+                                                        "Daseen resource is unchanged, no update dispatched.",
+                                                        Status.OK))
+                                        .build();
+                }
+                this.assetHelperService.persist(assetId, AssetHelperService.DASEEN_RESOURCE_KEY, daseenResourceDto);
 
                 return Response.status(Response.Status.OK)
                                 .entity(new GenericResponseDto(
@@ -84,7 +177,11 @@ public class DaseenController implements DaseenInterface {
         }
 
         @Override
-        public Response delete(String assetId) {
+        public CompletionStage<Response> delete(String assetId) {
+                return this.requestExecutor.submit(() -> deleteResource(assetId));
+        }
+
+        private Response deleteResource(String assetId) {
                 final var daseenResourceOptional = this.assetHelperService.load(assetId,
                                 AssetHelperService.DASEEN_RESOURCE_KEY, DaseenResourceDto.class);
 
@@ -94,8 +191,17 @@ public class DaseenController implements DaseenInterface {
                         return Response.status(Response.Status.NOT_FOUND).entity(response).build();
                 }
 
+                // the tombstone lets the reconciliation retry the deletion if the call below fails
                 var daseenResourceDto = daseenResourceOptional.get();
+                this.assetHelperService.tombstone(daseenResourceDto);
+                this.assetHelperService.remove(assetId, AssetHelperService.DASEEN_RESOURCE_KEY);
                 this.daseenService.deleteInDaseen(daseenResourceDto);
+                this.assetHelperService.updateList(assetId, AssetHelperService.DASEEN_TOMBSTONES_KEY,
+                                DaseenTombstoneDto.class, tombstones -> {
+                                        tombstones.removeIf(tombstone -> tombstone.resourceId()
+                                                        .equals(daseenResourceDto.getResourceId()));
+                                        return tombstones;
+                                });
 
                 return Response.status(Response.Status.OK)
                                 .entity(new GenericResponseDto("Resource deleted successfully. " +
@@ -1,15 +1,26 @@
 package io.nexyo.edp.extensions.controllers;
 
+import io.nexyo.edp.extensions.dtos.internal.DaseenBulkRequestDto;
 import io.nexyo.edp.extensions.dtos.internal.DaseenCreateEntryRequestDto;
+import io.nexyo.edp.extensions.services.IdempotencyService;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 
+import java.util.concurrent.CompletionStage;
+
 /**
- * RESTful interface for managing Daseen resources.
+ * RESTful interface for managing Daseen resources. The endpoints calling
+ * Daseen complete asynchronously, so the remote calls do not block the
+ * server's worker threads.
  */
 @Path("/edp/daseen")
 public interface DaseenInterface {
@@ -17,24 +28,84 @@ public interface DaseenInterface {
     /**
      * Publishes an asset to the Daseen API.
      *
-     * @param assetId The unique identifier of the asset to be published.
+     * @param assetId        The unique identifier of the asset to be published.
+     * @param idempotencyKey The client's key for the request, if any; a repeated
+     *                       request with the same key is answered with the
+     *                       stored response.
      * @return A {@link Response} indicating the success or failure of the
      *         publication process.
      */
+    @RateLimited(value = "daseen.create", perMinute = 30, burst = 10)
+    @POST
+    @Path("/{assetId}")
+    CompletionStage<Response> create(@PathParam("assetId") String assetId,
+            DaseenCreateEntryRequestDto daseenCreateEntryRequestDto,
+            @HeaderParam(IdempotencyService.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
+
+    /**
+     * Publishes or updates many assets in the Daseen API at once. Assets that
+     * were not yet published are created, all others are updated.
+     *
+     * @param daseenBulkRequestDto The contract and the assets to publish.
+     * @return A {@link Response} containing the outcome for each asset.
+     */
+    @RateLimited(value = "daseen.bulk", perMinute = 6, burst = 2)
+    @POST
+    @Path("/bulk")
+    CompletionStage<Response> bulk(DaseenBulkRequestDto daseenBulkRequestDto);
+
+    /**
+     * Retrieves the diff between the local Daseen records and the Daseen
+     * registry found by the current or last reconciliation, and its repair
+     * progress.
+     *
+     * @return A {@link Response} containing the reconciliation report.
+     */
+    @RateLimited(value = "daseen.reconciliation.get", perMinute = 600, burst = 60)
+    @GET
+    @Path("/reconciliation")
+    Response getReconciliation();
+
+    /**
+     * Starts a reconciliation of the local Daseen records with the Daseen
+     * registry unless one is already running.
+     *
+     * @param repair Whether to repair the detected drift, off by default.
+     * @return A {@link Response} containing the reconciliation report.
+     */
+    @RateLimited(value = "daseen.reconciliation.start", perMinute = 6, burst = 2)
     @POST
+    @Path("/reconciliation")
+    Response reconcile(@QueryParam("repair") @DefaultValue("false") boolean repair);
+
+    /**
+     * Retrieves the Daseen resource recorded on an asset. The response carries
+     * an ETag; a request with a matching {@code If-None-Match} header is
+     * answered with 304.
+     *
+     * @param assetId     The unique identifier of the published asset.
+     * @param ifNoneMatch The ETag of the resource the client already has, if any.
+     * @return A {@link Response} containing the Daseen resource, or 304 if it
+     *         did not change.
+     */
+    @RateLimited(value = "daseen.get", perMinute = 600, burst = 60)
+    @GET
     @Path("/{assetId}")
-    Response create(@PathParam("assetId") String assetId, DaseenCreateEntryRequestDto daseenCreateEntryRequestDto);
+    Response get(@PathParam("assetId") String assetId, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
 
     /**
-     * Updates a Daseen resource.
+     * Updates a Daseen resource. The update is skipped if the asset's content
+     * did not change since it was last pushed, unless it is forced.
      *
      * @param assetId The unique identifier of the asset to be updated.
+     * @param force   Whether to push the content even if it is unchanged.
      * @return A {@link Response} indicating the success or failure of the update
      *         process.
      */
+    @RateLimited(value = "daseen.update", perMinute = 30, burst = 10)
     @PUT
     @Path("/{assetId}")
-    Response update(@PathParam("assetId") String assetId);
+    CompletionStage<Response> update(@PathParam("assetId") String assetId, @QueryParam("force") boolean force);
 
     /**
      * Deletes a Daseen resource.
@@ -43,8 +114,9 @@ public interface DaseenInterface {
      * @return A {@link Response} indicating the success or failure of the deletion
      *         process.
      */
+    @RateLimited(value = "daseen.delete", perMinute = 30, burst = 10)
     @DELETE
     @Path("/{assetId}")
-    Response delete(@PathParam("assetId") String assetId);
+    CompletionStage<Response> delete(@PathParam("assetId") String assetId);
 
 }
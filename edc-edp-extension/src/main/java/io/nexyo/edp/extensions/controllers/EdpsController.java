@@ -4,12 +4,17 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nexyo.edp.extensions.dtos.internal.*;
 import io.nexyo.edp.extensions.services.AssetHelperService;
+import io.nexyo.edp.extensions.services.EdpsResultProcessor;
 import io.nexyo.edp.extensions.services.EdpsService;
+import io.nexyo.edp.extensions.services.IdempotencyService;
+import io.nexyo.edp.extensions.services.RequestExecutor;
+import io.nexyo.edp.extensions.utils.ETagUtils;
 import io.nexyo.edp.extensions.utils.LoggingUtils;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.edc.connector.controlplane.services.spi.asset.AssetService;
 import org.eclipse.edc.spi.monitor.Monitor;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * Controller class for handling EDP-related operations.
  */
@@ -20,23 +25,42 @@ public class EdpsController implements EdpsInterface {
         private final ObjectMapper mapper = new ObjectMapper();
         private static final String CALLBACK_INFO = "Check specified dataplane-callback address for updates.";
         private final AssetHelperService assetHelperService;
+        private final EdpsResultProcessor edpsResultProcessor;
+        private final RequestExecutor requestExecutor;
+        private final IdempotencyService idempotencyService;
 
         /**
          * Constructs an instance of EdpsController.
          *
          *
-         * @param edpsService  the service responsible for handling EDPS operations
-         * @param assetService the service responsible for handling asset operations
+         * @param edpsService         the service responsible for handling EDPS operations
+         * @param assetHelperService  the helper responsible for storing information on assets
+         * @param edpsResultProcessor the processor unpacking and registering EDPS results
+         * @param requestExecutor     the executor running the blocking request handling
+         * @param idempotencyService  the service deduplicating job creation requests
          */
-        public EdpsController(EdpsService edpsService, AssetService assetService) {
+        public EdpsController(EdpsService edpsService, AssetHelperService assetHelperService,
+                        EdpsResultProcessor edpsResultProcessor, RequestExecutor requestExecutor,
+                        IdempotencyService idempotencyService) {
                 this.logger = LoggingUtils.getLogger();
                 this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
                 this.edpsService = edpsService;
-                this.assetHelperService = new AssetHelperService(assetService);
+                this.assetHelperService = assetHelperService;
+                this.edpsResultProcessor = edpsResultProcessor;
+                this.requestExecutor = requestExecutor;
+                this.idempotencyService = idempotencyService;
         }
 
         @Override
-        public Response getEdpsJob(String assetId) {
+        public CompletionStage<Response> getEdpsJob(String assetId, String ifNoneMatch) {
+                return this.requestExecutor.submit(() -> loadEdpsJob(assetId, ifNoneMatch));
+        }
+
+        /**
+         * Loads the job of the asset, refreshing its state from EDPS unless the job
+         * already reached a final state.
+         */
+        private Response loadEdpsJob(String assetId, String ifNoneMatch) {
                 logger.info("Getting latest EDP job for asset " + assetId);
 
                 var jobDtoOptional = this.assetHelperService.load(assetId, AssetHelperService.EDPS_JOB_KEY,
@@ -47,6 +71,9 @@ public class EdpsController implements EdpsInterface {
                 }
 
                 var edpsJobDto = jobDtoOptional.get();
+                if (edpsJobDto.isTerminal()) {
+                        return ETagUtils.conditionalOk(edpsJobDto, ifNoneMatch);
+                }
 
                 var edpsJobResponseDto = this.edpsService.getEdpsJobStatus(edpsJobDto.getJobId(),
                                 edpsJobDto.getContractId());
@@ -56,18 +83,23 @@ public class EdpsController implements EdpsInterface {
 
                 this.assetHelperService.persist(assetId, AssetHelperService.EDPS_JOB_KEY, edpsJobDto);
 
-                return Response.status(Response.Status.OK)
-                                .entity(edpsJobDto)
-                                .build();
+                return ETagUtils.conditionalOk(edpsJobDto, ifNoneMatch);
         }
 
         @Override
-        public Response getEdpsJobStatus(String assetId, String jobId) {
-                return this.getEdpsJob(assetId);
+        public CompletionStage<Response> getEdpsJobStatus(String assetId, String jobId, String ifNoneMatch) {
+                return this.getEdpsJob(assetId, ifNoneMatch);
         }
 
         @Override
-        public Response createEdpsJob(String assetId, EdpsCreateJobRequestDto edpsCreateJobRequestDto) {
+        public CompletionStage<Response> createEdpsJob(String assetId,
+                        EdpsCreateJobRequestDto edpsCreateJobRequestDto, String idempotencyKey) {
+                var contractId = edpsCreateJobRequestDto == null ? null : edpsCreateJobRequestDto.contractId();
+                return this.idempotencyService.execute(idempotencyKey, "edps.job.create", assetId + "|" + contractId,
+                                () -> this.requestExecutor.submit(() -> submitEdpsJob(assetId, edpsCreateJobRequestDto)));
+        }
+
+        private Response submitEdpsJob(String assetId, EdpsCreateJobRequestDto edpsCreateJobRequestDto) {
                 logger.info("Creating EDP job...");
                 var edpsJobResponseDto = this.edpsService.createEdpsJob(assetId, edpsCreateJobRequestDto.contractId());
                 var edpsJobDto = mapper.convertValue(edpsJobResponseDto, EdpsJobDto.class);
@@ -85,7 +117,12 @@ public class EdpsController implements EdpsInterface {
         }
 
         @Override
-        public Response fetchEdpsJobResult(String assetId, String jobId, EdpsResultRequestDto edpResultRequestDto) {
+        public CompletionStage<Response> fetchEdpsJobResult(String assetId, String jobId,
+                        EdpsResultRequestDto edpResultRequestDto) {
+                return this.requestExecutor.submit(() -> storeEdpsJobResult(assetId, jobId, edpResultRequestDto));
+        }
+
+        private Response storeEdpsJobResult(String assetId, String jobId, EdpsResultRequestDto edpResultRequestDto) {
                 logger.info("Storing EDP result ZIP to destination address..."
                                 + edpResultRequestDto.destinationAddress());
 
@@ -105,6 +142,17 @@ public class EdpsController implements EdpsInterface {
                 edpsJobDto.setDetails(edpsJobResponseDto.details());
                 this.assetHelperService.persist(assetId, AssetHelperService.EDPS_JOB_KEY, edpsJobDto);
 
+                if (Boolean.TRUE.equals(edpResultRequestDto.registerEntries())) {
+                        var registeredEntries = this.edpsResultProcessor.process(edpsJobDto,
+                                        edpResultRequestDto.destinationAddress());
+                        return Response.status(Response.Status.OK)
+                                        .entity(new GenericResponseDto(
+                                                        "EDPS result processed. Registered entries: "
+                                                                        + String.join(", ", registeredEntries),
+                                                        Status.OK))
+                                        .build();
+                }
+
                 this.edpsService.fetchEdpsJobResult(edpsJobDto, edpResultRequestDto);
 
                 final var response = new GenericResponseDto(
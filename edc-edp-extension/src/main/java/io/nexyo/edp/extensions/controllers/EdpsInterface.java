@@ -2,19 +2,26 @@ package io.nexyo.edp.extensions.controllers;
 
 import io.nexyo.edp.extensions.dtos.internal.EdpsCreateJobRequestDto;
 import io.nexyo.edp.extensions.dtos.internal.EdpsResultRequestDto;
+import io.nexyo.edp.extensions.services.IdempotencyService;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * RESTful interface for managing EDPS jobs and their results.
  * Provides endpoints for creating, monitoring, and retrieving results from EDPS
- * jobs.
+ * jobs. The endpoints complete asynchronously, so the remote calls to EDPS do
+ * not block the server's worker threads. Job responses carry an ETag; a
+ * request with a matching {@code If-None-Match} header is answered with 304.
  */
 @Path("/edp/edps")
 @Produces(MediaType.APPLICATION_JSON)
@@ -24,12 +31,16 @@ public interface EdpsInterface {
     /**
      * Retrieves all EDPS jobs associated with a specific asset.
      *
-     * @param assetId The unique identifier of the asset to retrieve jobs for
-     * @return Response containing the list of EDPS jobs for the specified asset
+     * @param assetId     The unique identifier of the asset to retrieve jobs for
+     * @param ifNoneMatch The ETag of the job the client already has, if any
+     * @return Response containing the list of EDPS jobs for the specified asset,
+     *         or 304 if the job did not change
      */
+    @RateLimited(value = "edps.job.get", perMinute = 600, burst = 60)
     @GET
     @Path("/{assetId}/jobs")
-    Response getEdpsJob(@PathParam("assetId") String assetId);
+    CompletionStage<Response> getEdpsJob(@PathParam("assetId") String assetId,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
 
     /**
      * Creates a new EDPS job for a specific asset and submits the associated file
@@ -39,23 +50,33 @@ public interface EdpsInterface {
      *                                job for
      * @param edpsCreateJobRequestDto The request payload containing create job
      *                                parameters
+     * @param idempotencyKey          The client's key for the request, if any; a
+     *                                repeated request with the same key is
+     *                                answered with the stored response
      * @return Response containing the details of the created job
      */
+    @RateLimited(value = "edps.job.create", perMinute = 30, burst = 10)
     @POST
     @Path("/{assetId}/jobs")
-    Response createEdpsJob(@PathParam("assetId") String assetId, EdpsCreateJobRequestDto edpsCreateJobRequestDto);
+    CompletionStage<Response> createEdpsJob(@PathParam("assetId") String assetId,
+            EdpsCreateJobRequestDto edpsCreateJobRequestDto,
+            @HeaderParam(IdempotencyService.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     /**
      * Retrieves the current status of a specific EDPS job.
      *
-     * @param assetId The unique identifier of the asset associated with the job
-     * @param jobId   The unique identifier of the job to check status for
-     * @return Response containing the current status of the specified job
+     * @param assetId     The unique identifier of the asset associated with the
+     *                    job
+     * @param jobId       The unique identifier of the job to check status for
+     * @param ifNoneMatch The ETag of the job the client already has, if any
+     * @return Response containing the current status of the specified job, or
+     *         304 if the job did not change
      */
+    @RateLimited(value = "edps.job.get", perMinute = 600, burst = 60)
     @GET
     @Path("/{assetId}/jobs/{jobId}/status")
-    Response getEdpsJobStatus(@PathParam("assetId") String assetId,
-            @PathParam("jobId") String jobId);
+    CompletionStage<Response> getEdpsJobStatus(@PathParam("assetId") String assetId,
+            @PathParam("jobId") String jobId, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
 
     /**
      * Retrieves the result from EDPS and stores the result file in the system.
@@ -66,9 +87,10 @@ public interface EdpsInterface {
      *                             parameters
      * @return Response containing the details of the newly created result asset
      */
+    @RateLimited(value = "edps.job.result", perMinute = 30, burst = 10)
     @POST
     @Path("/{assetId}/jobs/{jobId}/result")
-    Response fetchEdpsJobResult(@PathParam("assetId") String assetId,
+    CompletionStage<Response> fetchEdpsJobResult(@PathParam("assetId") String assetId,
             @PathParam("jobId") String jobId,
             EdpsResultRequestDto edpsResultRequestDto);
 
@@ -0,0 +1,60 @@
+package io.nexyo.edp.extensions.controllers;
+
+import io.nexyo.edp.extensions.services.RateLimiter;
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Registers a {@link RateLimitFilter} for every endpoint annotated with
+ * {@link RateLimited}, either on the controller method or on the method of the
+ * interface it implements.
+ */
+public class RateLimitFeature implements DynamicFeature {
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs an instance of RateLimitFeature.
+     *
+     * @param rateLimiter the rate limiter shared by all endpoints
+     */
+    public RateLimitFeature(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        findAnnotation(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod())
+                .ifPresent(rateLimited -> context.register(new RateLimitFilter(this.rateLimiter, rateLimited)));
+    }
+
+    private Optional<RateLimited> findAnnotation(Class<?> resourceClass, Method method) {
+        if (method == null) {
+            return Optional.empty();
+        }
+        var annotation = method.getAnnotation(RateLimited.class);
+        if (annotation != null || resourceClass == null) {
+            return Optional.ofNullable(annotation);
+        }
+        return Arrays.stream(resourceClass.getInterfaces())
+                .map(type -> interfaceMethod(type, method))
+                .filter(Objects::nonNull)
+                .map(interfaceMethod -> interfaceMethod.getAnnotation(RateLimited.class))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    private Method interfaceMethod(Class<?> type, Method method) {
+        try {
+            return type.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
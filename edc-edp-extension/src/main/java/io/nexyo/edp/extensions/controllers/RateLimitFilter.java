@@ -0,0 +1,152 @@
+package io.nexyo.edp.extensions.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nexyo.edp.extensions.dtos.internal.GenericResponseDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.services.RateLimiter;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Applies the rate limit of one endpoint. The caller is identified by the
+ * header configured in {@code edp.ratelimit.caller.header} (the management API
+ * key by default, checked by the authentication filter that runs first), else
+ * by the authenticated principal, else by the remote address. The
+ * {@code X-Forwarded-For} header is only followed for requests from the proxies
+ * listed in {@code edp.ratelimit.trusted.proxies}.
+ * The contract is read from the {@code contractId} field of a JSON request
+ * body, if present. Rejected requests are answered with 429 and
+ * {@code Retry-After}; all limited responses carry the {@code RateLimit-Limit},
+ * {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers.
+ */
+public class RateLimitFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String HEADER_LIMIT = "RateLimit-Limit";
+    public static final String HEADER_REMAINING = "RateLimit-Remaining";
+    public static final String HEADER_RESET = "RateLimit-Reset";
+    private static final String DECISION_PROPERTY = RateLimitFilter.class.getName() + ".decision";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RateLimiter rateLimiter;
+    private final RateLimited rateLimited;
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    /**
+     * Constructs an instance of RateLimitFilter.
+     *
+     * @param rateLimiter the rate limiter shared by all endpoints
+     * @param rateLimited the limits of the endpoint
+     */
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimited rateLimited) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimited = rateLimited;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        var decision = this.rateLimiter.acquire(this.rateLimited.value(), callerId(requestContext),
+                contractId(requestContext), this.rateLimited.perMinute(), this.rateLimited.burst());
+        if (!decision.limited()) {
+            return;
+        }
+        requestContext.setProperty(DECISION_PROPERTY, decision);
+
+        if (!decision.allowed()) {
+            var response = Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .entity(new GenericResponseDto("Rate limit exceeded, retry after "
+                            + decision.retryAfterSeconds() + " seconds", Status.FAILED))
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .header(HttpHeaders.RETRY_AFTER, decision.retryAfterSeconds());
+            addHeaders(response, decision);
+            requestContext.abortWith(response.build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(DECISION_PROPERTY) instanceof RateLimiter.Decision decision
+                && decision.allowed()) {
+            var headers = responseContext.getHeaders();
+            headers.putSingle(HEADER_LIMIT, decision.limit());
+            headers.putSingle(HEADER_REMAINING, decision.remaining());
+            headers.putSingle(HEADER_RESET, decision.resetSeconds());
+        }
+    }
+
+    private void addHeaders(Response.ResponseBuilder response, RateLimiter.Decision decision) {
+        response.header(HEADER_LIMIT, decision.limit())
+                .header(HEADER_REMAINING, decision.remaining())
+                .header(HEADER_RESET, decision.resetSeconds());
+    }
+
+    private String callerId(ContainerRequestContext requestContext) {
+        var caller = requestContext.getHeaderString(ConfigurationUtils.getSettings().rateLimitCallerHeader());
+        if (caller != null && !caller.isBlank()) {
+            return caller;
+        }
+        var principal = requestContext.getSecurityContext().getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        return "address:" + clientAddress(requestContext);
+    }
+
+    /**
+     * Determines the client address. Starting at the remote address, each hop
+     * that is a trusted proxy is replaced by the address it forwarded for, so
+     * a client cannot choose its identity by sending the header itself.
+     */
+    private String clientAddress(ContainerRequestContext requestContext) {
+        var trustedProxies = ConfigurationUtils.getSettings().rateLimitTrustedProxies();
+        var address = this.servletRequest.getRemoteAddr();
+        var forwardedFor = requestContext.getHeaderString(FORWARDED_FOR);
+        if (forwardedFor == null || !trustedProxies.contains(address)) {
+            return address;
+        }
+        var hops = forwardedFor.split(",");
+        for (var i = hops.length - 1; i >= 0 && trustedProxies.contains(address); i--) {
+            var hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            address = hop;
+        }
+        return address;
+    }
+
+    /**
+     * Reads the contract ID from a JSON body and restores the body for the
+     * endpoint.
+     */
+    private String contractId(ContainerRequestContext requestContext) throws IOException {
+        if (!requestContext.hasEntity()
+                || !MediaType.APPLICATION_JSON_TYPE.isCompatible(requestContext.getMediaType())) {
+            return null;
+        }
+        var body = requestContext.getEntityStream().readAllBytes();
+        requestContext.setEntityStream(new ByteArrayInputStream(body));
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            var contractId = this.mapper.readTree(body).get("contractId");
+            return contractId != null && contractId.isTextual() ? contractId.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
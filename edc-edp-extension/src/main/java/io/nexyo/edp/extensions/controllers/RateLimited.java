@@ -0,0 +1,38 @@
+package io.nexyo.edp.extensions.controllers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint as rate limited per API caller and per contract. The
+ * limits given here are defaults, overridable with
+ * {@code edp.ratelimit.<value>.caller.*} and
+ * {@code edp.ratelimit.<value>.contract.*}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * The name of the endpoint in the rate limit settings.
+     *
+     * @return the endpoint name
+     */
+    String value();
+
+    /**
+     * The sustained number of requests per minute.
+     *
+     * @return the requests per minute
+     */
+    long perMinute();
+
+    /**
+     * The number of requests that may be made at once.
+     *
+     * @return the burst size
+     */
+    long burst();
+}
@@ -0,0 +1,53 @@
+package io.nexyo.edp.extensions.controllers;
+
+import io.nexyo.edp.extensions.services.ContractAgreementCache;
+import io.nexyo.edp.extensions.services.EdrRefreshService;
+import io.nexyo.edp.extensions.services.ProviderWarmupService;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/**
+ * Controller class exposing runtime status information of the EDP extension.
+ */
+public class StatusController implements StatusInterface {
+
+        private final ContractAgreementCache contractAgreementCache;
+        private final EdrRefreshService edrRefreshService;
+        private final ProviderWarmupService providerWarmupService;
+
+        /**
+         * Constructs an instance of StatusController.
+         *
+         * @param contractAgreementCache the contract agreement cache
+         * @param edrRefreshService      the EDR refresh service
+         * @param providerWarmupService  the provider warm-up service
+         */
+        public StatusController(ContractAgreementCache contractAgreementCache, EdrRefreshService edrRefreshService,
+                        ProviderWarmupService providerWarmupService) {
+                this.contractAgreementCache = contractAgreementCache;
+                this.edrRefreshService = edrRefreshService;
+                this.providerWarmupService = providerWarmupService;
+        }
+
+        @Override
+        public Response getCacheStatistics() {
+                return Response.status(Response.Status.OK)
+                                .entity(List.of(this.contractAgreementCache.statistics()))
+                                .build();
+        }
+
+        @Override
+        public Response getEdrStatus() {
+                return Response.status(Response.Status.OK)
+                                .entity(this.edrRefreshService.getStatus())
+                                .build();
+        }
+
+        @Override
+        public Response getProviderStatus() {
+                return Response.status(Response.Status.OK)
+                                .entity(this.providerWarmupService.getStatus())
+                                .build();
+        }
+}
@@ -0,0 +1,44 @@
+package io.nexyo.edp.extensions.controllers;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * RESTful interface exposing runtime status information of the EDP extension.
+ */
+@Path("/edp/status")
+@Produces(MediaType.APPLICATION_JSON)
+public interface StatusInterface {
+
+    /**
+     * Retrieves the hit/miss statistics of the extension's caches.
+     *
+     * @return Response containing the statistics of each cache
+     */
+    @GET
+    @Path("/caches")
+    Response getCacheStatistics();
+
+    /**
+     * Retrieves the expiry status of the EDRs of all contracts with a started
+     * transfer process.
+     *
+     * @return Response containing the time to expiry per contract
+     */
+    @GET
+    @Path("/edrs")
+    Response getEdrStatus();
+
+    /**
+     * Retrieves the warm-up status of the configured EDPS and Daseen providers.
+     *
+     * @return Response containing the negotiated contract and state per provider
+     */
+    @GET
+    @Path("/providers")
+    Response getProviderStatus();
+
+}
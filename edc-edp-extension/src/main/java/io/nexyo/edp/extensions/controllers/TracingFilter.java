@@ -0,0 +1,71 @@
+package io.nexyo.edp.extensions.controllers;
+
+import io.nexyo.edp.extensions.utils.Span;
+import io.nexyo.edp.extensions.utils.TracingUtils;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+
+/**
+ * Starts a server span for every request to the EDP endpoints, continuing the
+ * trace of the caller's {@code traceparent} header, and makes it current, so
+ * the work handed to the request executor belongs to the same trace. The span
+ * ends when the response is sent. Asynchronous endpoints send their response
+ * from the executor thread; {@link io.nexyo.edp.extensions.services.RequestExecutor}
+ * detaches the span from the container thread once the work is handed off.
+ */
+public class TracingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String SPAN_PROPERTY = TracingFilter.class.getName() + ".span";
+    private static final String PREVIOUS_PROPERTY = TracingFilter.class.getName() + ".previous";
+    private static final String EDP_PATH = "edp/";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        var path = requestContext.getUriInfo().getPath();
+        if (!path.startsWith(EDP_PATH) && !path.startsWith("/" + EDP_PATH)) {
+            // do not leave the span of an earlier request current on this worker thread
+            TracingUtils.restore(null);
+            return;
+        }
+
+        var span = TracingUtils.startSpan(spanName(requestContext), Span.Kind.SERVER,
+                requestContext.getHeaderString(TracingUtils.TRACEPARENT));
+        span.setAttribute("http.method", requestContext.getMethod())
+                .setAttribute("http.target", "/" + path.replaceFirst("^/", ""));
+        requestContext.setProperty(SPAN_PROPERTY, span);
+        var previous = TracingUtils.makeCurrent(span);
+        if (previous != null) {
+            requestContext.setProperty(PREVIOUS_PROPERTY, previous);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(SPAN_PROPERTY) instanceof Span span) {
+            span.setAttribute("http.status_code", responseContext.getStatus());
+            if (responseContext.getStatus() >= 500) {
+                span.setError("HTTP " + responseContext.getStatus());
+            }
+            span.end();
+            if (TracingUtils.current() == span) {
+                TracingUtils.restore(requestContext.getProperty(PREVIOUS_PROPERTY) instanceof Span previous
+                        ? previous : null);
+            }
+        }
+    }
+
+    private String spanName(ContainerRequestContext requestContext) {
+        var method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        if (method == null) {
+            return requestContext.getMethod() + " " + requestContext.getUriInfo().getPath();
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,69 @@
+package io.nexyo.edp.extensions.controllers;
+
+import io.nexyo.edp.extensions.dtos.internal.GenericResponseDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.dtos.internal.WorkflowRequestDto;
+import io.nexyo.edp.extensions.services.WorkflowService;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+/**
+ * Controller class for running EDPS-to-Daseen workflows.
+ */
+public class WorkflowController implements WorkflowInterface {
+
+        private final Monitor logger;
+        private final WorkflowService workflowService;
+
+        /**
+         * Constructs an instance of WorkflowController.
+         *
+         * @param workflowService the service running the workflows
+         */
+        public WorkflowController(WorkflowService workflowService) {
+                this.logger = LoggingUtils.getLogger();
+                this.workflowService = workflowService;
+        }
+
+        @Override
+        public Response startWorkflow(String assetId, WorkflowRequestDto workflowRequestDto) {
+                logger.info("Starting EDP workflow for asset " + assetId);
+
+                if (workflowRequestDto == null || workflowRequestDto.edpsContractId() == null
+                                || workflowRequestDto.daseenContractId() == null
+                                || workflowRequestDto.resultAssetId() == null
+                                || workflowRequestDto.destinationAddress() == null) {
+                        var response = new GenericResponseDto(
+                                        "edpsContractId, daseenContractId, resultAssetId and destinationAddress "
+                                                        + "are required",
+                                        Status.FAILED);
+                        return Response.status(Response.Status.BAD_REQUEST).entity(response).build();
+                }
+
+                var workflow = this.workflowService.startWorkflow(assetId, workflowRequestDto);
+                if (workflow.isEmpty()) {
+                        var response = new GenericResponseDto("A workflow is already running for asset: " + assetId,
+                                        Status.FAILED);
+                        return Response.status(Response.Status.CONFLICT).entity(response).build();
+                }
+
+                return Response.status(Response.Status.ACCEPTED)
+                                .entity(workflow.get())
+                                .build();
+        }
+
+        @Override
+        public Response getWorkflow(String assetId) {
+                var workflow = this.workflowService.find(assetId);
+                if (workflow.isEmpty()) {
+                        var response = new GenericResponseDto("No workflow found for asset: " + assetId,
+                                        Status.NOT_FOUND);
+                        return Response.status(Response.Status.NOT_FOUND).entity(response).build();
+                }
+
+                return Response.status(Response.Status.OK)
+                                .entity(workflow.get())
+                                .build();
+        }
+}
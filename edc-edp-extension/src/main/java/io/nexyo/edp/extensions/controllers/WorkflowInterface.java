@@ -0,0 +1,45 @@
+package io.nexyo.edp.extensions.controllers;
+
+import io.nexyo.edp.extensions.dtos.internal.WorkflowRequestDto;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * RESTful interface for running EDPS-to-Daseen workflows.
+ * A workflow analyses an asset with EDPS, fetches the result once the job
+ * completed and publishes the result asset to Daseen.
+ */
+@Path("/edp/workflows")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface WorkflowInterface {
+
+    /**
+     * Starts a workflow for a specific asset.
+     *
+     * @param assetId            The unique identifier of the asset to analyse
+     * @param workflowRequestDto The request payload containing the contracts, the
+     *                           result asset and the result destination
+     * @return Response containing the started workflow
+     */
+    @POST
+    @Path("/{assetId}")
+    Response startWorkflow(@PathParam("assetId") String assetId, WorkflowRequestDto workflowRequestDto);
+
+    /**
+     * Retrieves the workflow of a specific asset.
+     *
+     * @param assetId The unique identifier of the analysed asset
+     * @return Response containing the workflow and its current step
+     */
+    @GET
+    @Path("/{assetId}")
+    Response getWorkflow(@PathParam("assetId") String assetId);
+
+}
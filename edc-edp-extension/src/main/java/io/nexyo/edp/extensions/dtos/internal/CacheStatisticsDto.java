@@ -0,0 +1,14 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the statistics of an in-memory cache.
+ */
+public record CacheStatisticsDto(
+        @JsonProperty("name") String name,
+        @JsonProperty("size") long size,
+        @JsonProperty("hits") long hits,
+        @JsonProperty("negative_hits") long negativeHits,
+        @JsonProperty("misses") long misses) {
+}
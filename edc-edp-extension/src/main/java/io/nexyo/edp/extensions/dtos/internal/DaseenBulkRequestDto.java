@@ -0,0 +1,9 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import java.util.List;
+
+/**
+ * DTO for the request of a bulk publish/update of daseen entries.
+ */
+public record DaseenBulkRequestDto(String contractId, List<String> assetIds) {
+}
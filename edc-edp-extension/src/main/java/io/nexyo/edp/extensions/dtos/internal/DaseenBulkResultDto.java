@@ -0,0 +1,14 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the outcome of a single asset in a bulk publish/update to Daseen.
+ */
+public record DaseenBulkResultDto(
+        @JsonProperty("asset_id") String assetId,
+        @JsonProperty("resource_id") String resourceId,
+        @JsonProperty("action") String action,
+        @JsonProperty("status") Status status,
+        @JsonProperty("message") String message) {
+}
@@ -0,0 +1,24 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for the diff between local Daseen records and the Daseen registry, and
+ * the progress of its repair.
+ */
+public record DaseenReconciliationReportDto(
+        @JsonProperty("state") String state,
+        @JsonProperty("started_at") String startedAt,
+        @JsonProperty("finished_at") String finishedAt,
+        @JsonProperty("local_count") int localCount,
+        @JsonProperty("remote_count") int remoteCount,
+        @JsonProperty("missing_remote") List<String> missingRemote,
+        @JsonProperty("orphaned_remote") List<String> orphanedRemote,
+        @JsonProperty("unknown_remote") List<String> unknownRemote,
+        @JsonProperty("repairs_total") int repairsTotal,
+        @JsonProperty("repairs_done") int repairsDone,
+        @JsonProperty("repairs_failed") int repairsFailed,
+        @JsonProperty("message") String message) {
+}
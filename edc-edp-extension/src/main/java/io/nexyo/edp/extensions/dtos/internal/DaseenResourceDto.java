@@ -9,7 +9,7 @@ import java.util.UUID;
  * Represents an Daseen resource.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class DaseenResourceDto {
+public class DaseenResourceDto implements Versioned {
 
     @JsonProperty("uuid")
     private String uuid;
@@ -26,6 +26,15 @@ public class DaseenResourceDto {
     @JsonProperty("upload_url")
     private String uploadUrl;
 
+    @JsonProperty("content_digest")
+    private String contentDigest;
+
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("created_at")
+    private long createdAt;
+
     /**
      * Default constructor.
      */
@@ -47,6 +56,7 @@ public class DaseenResourceDto {
         this.resourceId = resourceId;
         this.contractId = contractId;
         this.uploadUrl = uploadUrl;
+        this.createdAt = System.currentTimeMillis();
     }
 
     /**
@@ -138,4 +148,61 @@ public class DaseenResourceDto {
     public void setUploadUrl(String uploadUrl) {
         this.uploadUrl = uploadUrl;
     }
+
+    /**
+     * Retrieves the digest of the content last pushed to Daseen.
+     *
+     * @return the content digest, or null if unknown
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
+    /**
+     * Sets the digest of the content last pushed to Daseen.
+     *
+     * @param contentDigest the content digest to set
+     */
+    public void setContentDigest(String contentDigest) {
+        this.contentDigest = contentDigest;
+    }
+
+    /**
+     * Retrieves the creation time of the record, in milliseconds since the
+     * epoch. Records stored before it was recorded return 0.
+     *
+     * @return the creation time
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the creation time of the record.
+     *
+     * @param createdAt the creation time to set
+     */
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the version of the record.
+     *
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the record.
+     *
+     * @param version the version to set
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
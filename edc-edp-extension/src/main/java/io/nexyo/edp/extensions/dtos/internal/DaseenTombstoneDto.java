@@ -0,0 +1,14 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for a Daseen resource this connector created and no longer references,
+ * e.g. because it was deleted or replaced. Only resources with a tombstone are
+ * deleted by the reconciliation.
+ */
+public record DaseenTombstoneDto(
+        @JsonProperty("resource_id") String resourceId,
+        @JsonProperty("contract_id") String contractId,
+        @JsonProperty("created_at") long createdAt) {
+}
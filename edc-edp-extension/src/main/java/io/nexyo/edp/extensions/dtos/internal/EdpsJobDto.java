@@ -1,5 +1,6 @@
 package io.nexyo.edp.extensions.dtos.internal;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -9,7 +10,10 @@ import java.util.UUID;
  * Represents an EDPS job.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class EdpsJobDto {
+public class EdpsJobDto implements Versioned {
+
+    public static final String STATE_COMPLETED = "COMPLETED";
+    public static final String STATE_FAILED = "FAILED";
 
     @JsonProperty("uuid")
     private String uuid;
@@ -35,6 +39,9 @@ public class EdpsJobDto {
     @JsonProperty("result_url")
     private String resultUrl;
 
+    @JsonProperty("version")
+    private long version;
+
     /**
      * Default constructor.
      */
@@ -160,10 +167,41 @@ public class EdpsJobDto {
         this.uploadUrl = uploadUrl;
     }
 
+    /**
+     * Checks whether the job reached a final state in EDPS, after which its
+     * state no longer changes.
+     *
+     * @return true if the job completed or failed
+     */
+    @JsonIgnore
+    public boolean isTerminal() {
+        return STATE_COMPLETED.equals(state) || STATE_FAILED.equals(state);
+    }
+
     public String getResultUrl() {
         return resultUrl;
     }
     public void setResultUrl(String resultUrl) {
         this.resultUrl = resultUrl;
     }
+
+    /**
+     * Gets the version of the record.
+     *
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the record.
+     *
+     * @param version the version to set
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,12 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for an entry of an EDPS result that is registered on the asset, listed
+ * in the asset's {@code edps_result_index}.
+ */
+public record EdpsResultEntryDto(
+        @JsonProperty("name") String name,
+        @JsonProperty("property") String property) {
+}
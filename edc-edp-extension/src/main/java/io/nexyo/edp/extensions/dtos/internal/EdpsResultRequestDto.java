@@ -2,6 +2,10 @@ package io.nexyo.edp.extensions.dtos.internal;
 
 /**
  * DTO for the request of a result.
+ *
+ * @param destinationAddress the address the result ZIP is delivered to
+ * @param registerEntries    whether the result ZIP should be unpacked while
+ *                           streaming and its EDP entries registered on the asset
  */
-public record EdpsResultRequestDto(String destinationAddress) {
+public record EdpsResultRequestDto(String destinationAddress, Boolean registerEntries) {
 }
@@ -0,0 +1,14 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the expiry status of the EDR of a contract.
+ */
+public record EdrStatusDto(
+        @JsonProperty("contract_id") String contractId,
+        @JsonProperty("transfer_process_id") String transferProcessId,
+        @JsonProperty("expires_at") String expiresAt,
+        @JsonProperty("seconds_to_expiry") Long secondsToExpiry,
+        @JsonProperty("renewal_pending") boolean renewalPending) {
+}
@@ -0,0 +1,14 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the warm-up status of a configured provider.
+ */
+public record ProviderStatusDto(
+        @JsonProperty("name") String name,
+        @JsonProperty("asset_id") String assetId,
+        @JsonProperty("contract_id") String contractId,
+        @JsonProperty("state") String state,
+        @JsonProperty("message") String message) {
+}
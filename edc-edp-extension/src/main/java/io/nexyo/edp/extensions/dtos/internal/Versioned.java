@@ -0,0 +1,30 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+/**
+ * A record stored on an asset whose version is incremented by
+ * {@code AssetHelperService} every time its content changes. Together with the
+ * record's UUID the version forms the record's ETag.
+ */
+public interface Versioned {
+
+    /**
+     * Gets the unique identifier of the record.
+     *
+     * @return the uuid
+     */
+    String getUuid();
+
+    /**
+     * Gets the version of the record.
+     *
+     * @return the version
+     */
+    long getVersion();
+
+    /**
+     * Sets the version of the record.
+     *
+     * @param version the version to set
+     */
+    void setVersion(long version);
+}
@@ -0,0 +1,395 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Represents an EDPS-to-Daseen workflow of an asset.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WorkflowDto {
+
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_COMPLETED = "COMPLETED";
+    public static final String STATE_FAILED = "FAILED";
+
+    @JsonProperty("uuid")
+    private String uuid;
+
+    @JsonProperty("asset_id")
+    private String assetId;
+
+    @JsonProperty("edps_contract_id")
+    private String edpsContractId;
+
+    @JsonProperty("daseen_contract_id")
+    private String daseenContractId;
+
+    @JsonProperty("result_asset_id")
+    private String resultAssetId;
+
+    @JsonProperty("destination_address")
+    private String destinationAddress;
+
+    @JsonProperty("step")
+    private WorkflowStep step;
+
+    @JsonProperty("state")
+    private String state;
+
+    @JsonProperty("step_started_at")
+    private long stepStartedAt;
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("job_requested_at")
+    private long jobRequestedAt;
+
+    @JsonProperty("prior_job_id")
+    private String priorJobId;
+
+    @JsonProperty("result_baseline")
+    private String resultBaseline;
+
+    @JsonProperty("daseen_resource_id")
+    private String daseenResourceId;
+
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Default constructor.
+     */
+    public WorkflowDto() {
+        this.uuid = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Constructs a running WorkflowDto at its first step.
+     *
+     * @param assetId the asset to analyse
+     * @param request the workflow request
+     */
+    public WorkflowDto(String assetId, WorkflowRequestDto request) {
+        this();
+        this.assetId = assetId;
+        this.edpsContractId = request.edpsContractId();
+        this.daseenContractId = request.daseenContractId();
+        this.resultAssetId = request.resultAssetId();
+        this.destinationAddress = request.destinationAddress();
+        this.state = STATE_RUNNING;
+        moveTo(WorkflowStep.CREATE_JOB);
+    }
+
+    /**
+     * Moves the workflow to the given step.
+     *
+     * @param step the next step
+     */
+    public void moveTo(WorkflowStep step) {
+        this.step = step;
+        this.stepStartedAt = System.currentTimeMillis();
+        if (step == WorkflowStep.DONE) {
+            this.state = STATE_COMPLETED;
+        }
+    }
+
+    /**
+     * Marks the workflow as failed at its current step.
+     *
+     * @param message the failure reason
+     */
+    public void fail(String message) {
+        this.state = STATE_FAILED;
+        this.message = message;
+    }
+
+    /**
+     * Checks whether the workflow is still running.
+     *
+     * @return true if the workflow is running
+     */
+    @JsonIgnore
+    public boolean isRunning() {
+        return STATE_RUNNING.equals(this.state);
+    }
+
+    /**
+     * Gets the unique identifier of the workflow.
+     *
+     * @return the uuid
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Sets the unique identifier of the workflow.
+     *
+     * @param uuid the uuid to set
+     */
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    /**
+     * Retrieves the asset ID.
+     *
+     * @return the asset ID
+     */
+    public String getAssetId() {
+        return assetId;
+    }
+
+    /**
+     * Sets the asset ID.
+     *
+     * @param assetId the asset ID to set
+     */
+    public void setAssetId(String assetId) {
+        this.assetId = assetId;
+    }
+
+    /**
+     * Retrieves the EDPS contract ID.
+     *
+     * @return the EDPS contract ID
+     */
+    public String getEdpsContractId() {
+        return edpsContractId;
+    }
+
+    /**
+     * Sets the EDPS contract ID.
+     *
+     * @param edpsContractId the EDPS contract ID to set
+     */
+    public void setEdpsContractId(String edpsContractId) {
+        this.edpsContractId = edpsContractId;
+    }
+
+    /**
+     * Retrieves the Daseen contract ID.
+     *
+     * @return the Daseen contract ID
+     */
+    public String getDaseenContractId() {
+        return daseenContractId;
+    }
+
+    /**
+     * Sets the Daseen contract ID.
+     *
+     * @param daseenContractId the Daseen contract ID to set
+     */
+    public void setDaseenContractId(String daseenContractId) {
+        this.daseenContractId = daseenContractId;
+    }
+
+    /**
+     * Retrieves the ID of the asset publishing the EDPS result.
+     *
+     * @return the result asset ID
+     */
+    public String getResultAssetId() {
+        return resultAssetId;
+    }
+
+    /**
+     * Sets the ID of the asset publishing the EDPS result.
+     *
+     * @param resultAssetId the result asset ID to set
+     */
+    public void setResultAssetId(String resultAssetId) {
+        this.resultAssetId = resultAssetId;
+    }
+
+    /**
+     * Retrieves the address the EDPS result is stored at.
+     *
+     * @return the destination address
+     */
+    public String getDestinationAddress() {
+        return destinationAddress;
+    }
+
+    /**
+     * Sets the address the EDPS result is stored at.
+     *
+     * @param destinationAddress the destination address to set
+     */
+    public void setDestinationAddress(String destinationAddress) {
+        this.destinationAddress = destinationAddress;
+    }
+
+    /**
+     * Retrieves the current step.
+     *
+     * @return the step
+     */
+    public WorkflowStep getStep() {
+        return step;
+    }
+
+    /**
+     * Sets the current step.
+     *
+     * @param step the step to set
+     */
+    public void setStep(WorkflowStep step) {
+        this.step = step;
+    }
+
+    /**
+     * Retrieves the state of the workflow.
+     *
+     * @return the state
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Sets the state of the workflow.
+     *
+     * @param state the state to set
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * Retrieves the time the current step started, in epoch milliseconds.
+     *
+     * @return the step start time
+     */
+    public long getStepStartedAt() {
+        return stepStartedAt;
+    }
+
+    /**
+     * Sets the time the current step started, in epoch milliseconds.
+     *
+     * @param stepStartedAt the step start time to set
+     */
+    public void setStepStartedAt(long stepStartedAt) {
+        this.stepStartedAt = stepStartedAt;
+    }
+
+    /**
+     * Retrieves the EDPS job ID.
+     *
+     * @return the job ID
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Sets the EDPS job ID.
+     *
+     * @param jobId the job ID to set
+     */
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Retrieves the time the EDPS job was requested, in epoch milliseconds, or 0
+     * if no job was requested yet.
+     *
+     * @return the job request time
+     */
+    public long getJobRequestedAt() {
+        return jobRequestedAt;
+    }
+
+    /**
+     * Sets the time the EDPS job was requested, in epoch milliseconds.
+     *
+     * @param jobRequestedAt the job request time to set
+     */
+    public void setJobRequestedAt(long jobRequestedAt) {
+        this.jobRequestedAt = jobRequestedAt;
+    }
+
+    /**
+     * Retrieves the ID of the EDPS job stored on the asset before this
+     * workflow requested its job.
+     *
+     * @return the prior job ID
+     */
+    public String getPriorJobId() {
+        return priorJobId;
+    }
+
+    /**
+     * Sets the ID of the EDPS job stored on the asset before this workflow
+     * requested its job.
+     *
+     * @param priorJobId the prior job ID to set
+     */
+    public void setPriorJobId(String priorJobId) {
+        this.priorJobId = priorJobId;
+    }
+
+    /**
+     * Retrieves the content digest of the result asset before the result was
+     * fetched.
+     *
+     * @return the result baseline digest
+     */
+    public String getResultBaseline() {
+        return resultBaseline;
+    }
+
+    /**
+     * Sets the content digest of the result asset before the result was
+     * fetched.
+     *
+     * @param resultBaseline the result baseline digest to set
+     */
+    public void setResultBaseline(String resultBaseline) {
+        this.resultBaseline = resultBaseline;
+    }
+
+    /**
+     * Retrieves the ID of the Daseen resource the result was published to.
+     *
+     * @return the Daseen resource ID
+     */
+    public String getDaseenResourceId() {
+        return daseenResourceId;
+    }
+
+    /**
+     * Sets the ID of the Daseen resource the result was published to.
+     *
+     * @param daseenResourceId the Daseen resource ID to set
+     */
+    public void setDaseenResourceId(String daseenResourceId) {
+        this.daseenResourceId = daseenResourceId;
+    }
+
+    /**
+     * Retrieves the failure reason.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Sets the failure reason.
+     *
+     * @param message the message to set
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,12 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+/**
+ * DTO for the request of a workflow analysing an asset with EDPS and
+ * publishing the result to Daseen.
+ */
+public record WorkflowRequestDto(
+        String edpsContractId,
+        String daseenContractId,
+        String resultAssetId,
+        String destinationAddress) {
+}
@@ -0,0 +1,13 @@
+package io.nexyo.edp.extensions.dtos.internal;
+
+/**
+ * Enum for the steps of an EDPS-to-Daseen workflow, in execution order.
+ */
+public enum WorkflowStep {
+    CREATE_JOB,
+    AWAIT_JOB,
+    FETCH_RESULT,
+    AWAIT_RESULT,
+    PUBLISH,
+    DONE;
+}
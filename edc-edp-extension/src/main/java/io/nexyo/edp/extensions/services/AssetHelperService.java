@@ -4,20 +4,45 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.nexyo.edp.extensions.dtos.internal.DaseenResourceDto;
+import io.nexyo.edp.extensions.dtos.internal.DaseenTombstoneDto;
+import io.nexyo.edp.extensions.dtos.internal.Versioned;
 import io.nexyo.edp.extensions.exceptions.EdpException;
 import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 import org.eclipse.edc.connector.controlplane.services.spi.asset.AssetService;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
- * Service for handling assets and storing and loading information.
+ * Service for handling assets and storing and loading information. Writes to
+ * the same asset are serialized, so concurrent read-modify-write updates do not
+ * overwrite each other.
  */
 public class AssetHelperService {
 
     public static final String EDPS_JOB_KEY = "edps_job";
     public static final String DASEEN_RESOURCE_KEY = "daseen_resource";
+    public static final String DASEEN_TOMBSTONES_KEY = "daseen_tombstones";
+    private static final int LOCK_STRIPES = 64;
+    // shared by all instances, the controllers create their own helpers
+    private static final Object[] LOCKS = new Object[LOCK_STRIPES];
+
+    static {
+        for (var i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
     private final ObjectMapper mapper = new ObjectMapper();
     private final AssetService assetService;
     private final Monitor logger;
@@ -41,17 +66,80 @@ public class AssetHelperService {
      * @param data    the data to store on the asset
      */
     private void persistRaw(String assetId, String key, String data) {
-        var asset = this.assetService.findById(assetId);
-        var updatedAsset = asset.toBuilder().property(key, data)
-                .build();
-        var result = assetService.update(updatedAsset);
-        if (result.failed()) {
-            this.logger.warning("Could not store information on asset: " + assetId);
+        synchronized (lockFor(assetId)) {
+            var asset = this.assetService.findById(assetId);
+            var updatedAsset = asset.toBuilder().property(key, data)
+                    .build();
+            var result = assetService.update(updatedAsset);
+            if (result.failed()) {
+                this.logger.warning("Could not store information on asset: " + assetId);
+            }
+        }
+    }
+
+    /**
+     * Persists several properties on the asset with a single read and update.
+     * Strings are stored as they are, other values serialized; {@link Versioned}
+     * DTOs are versioned as in {@link #persist(String, String, Object)}.
+     *
+     * @param assetId    the asset id
+     * @param properties the properties to store on the asset
+     */
+    public void persistAll(String assetId, Map<String, ?> properties) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        persistAll(assetId, properties, asset -> List.of());
+    }
+
+    /**
+     * Persists several properties on the asset with a single read and update,
+     * after removing the obsolete properties of the stored asset, e.g. those
+     * of a previous result that the new properties replace.
+     *
+     * @param assetId      the asset id
+     * @param properties   the properties to store on the asset
+     * @param obsoleteKeys determines the keys to remove from the stored asset
+     */
+    public void persistAll(String assetId, Map<String, ?> properties,
+            Function<Asset, Collection<String>> obsoleteKeys) {
+        synchronized (lockFor(assetId)) {
+            var asset = this.assetService.findById(assetId);
+            var builder = asset.toBuilder();
+            var changed = false;
+            var remaining = new HashMap<>(asset.getProperties());
+            for (var key : obsoleteKeys.apply(asset)) {
+                changed |= !properties.containsKey(key) && remaining.remove(key) != null;
+            }
+            if (changed) {
+                builder.properties(remaining);
+            }
+            for (var property : properties.entrySet()) {
+                var data = property.getValue() instanceof String raw ? raw
+                        : property.getValue() instanceof Versioned versioned
+                                ? serializeVersioned(asset, property.getKey(), versioned)
+                                : serialize(property.getValue());
+                if (data != null) {
+                    builder.property(property.getKey(), data);
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return;
+            }
+            var result = assetService.update(builder.build());
+            if (result.failed()) {
+                this.logger.warning("Could not store information on asset: " + assetId);
+            }
         }
     }
 
     /**
-     * Persists a DTO on the asset.
+     * Persists a DTO on the asset. The version of a {@link Versioned} DTO is
+     * taken over from the stored record and incremented if the content changed;
+     * an unchanged record is not written again. Reading the stored version and
+     * writing the new one happen under the asset's lock, so two concurrent
+     * writers cannot both store version N+1 with different content.
      *
      * @param <T>     the type of DTO to persist
      * @param assetId the asset id
@@ -59,14 +147,126 @@ public class AssetHelperService {
      * @param clazz   the DTO to store
      */
     public <T> void persist(String assetId, String key, T clazz) {
+        if (clazz instanceof Versioned versioned) {
+            persistVersioned(assetId, key, versioned);
+            return;
+        }
+        this.persistRaw(assetId, key, serialize(clazz));
+    }
+
+    private void persistVersioned(String assetId, String key, Versioned versioned) {
+        synchronized (lockFor(assetId)) {
+            var serializedData = serializeVersioned(this.assetService.findById(assetId), key, versioned);
+            if (serializedData != null) {
+                this.persistRaw(assetId, key, serializedData);
+            }
+        }
+    }
+
+    /**
+     * Serializes a versioned DTO with the next version of the record stored on
+     * the asset, or returns null if the content is unchanged.
+     */
+    private String serializeVersioned(Asset asset, String key, Versioned versioned) {
+        var stored = Optional.ofNullable(asset.getProperty(key)).map(Object::toString);
+        var storedVersion = stored.map(data -> deserialize(data, versioned.getClass()).getVersion()).orElse(0L);
+
+        versioned.setVersion(storedVersion);
+        if (stored.isPresent() && stored.get().equals(serialize(versioned))) {
+            return null;
+        }
+        versioned.setVersion(storedVersion + 1);
+        return serialize(versioned);
+    }
+
+    /**
+     * Removes a property from the asset.
+     *
+     * @param assetId the asset id
+     * @param key     the key of the property to remove
+     */
+    public void remove(String assetId, String key) {
+        synchronized (lockFor(assetId)) {
+            var asset = this.assetService.findById(assetId);
+            if (asset.getProperty(key) == null) {
+                return;
+            }
+            var properties = new HashMap<>(asset.getProperties());
+            properties.remove(key);
+            var result = assetService.update(asset.toBuilder().properties(properties).build());
+            if (result.failed()) {
+                this.logger.warning("Could not remove information from asset: " + assetId);
+            }
+        }
+    }
+
+    /**
+     * Reads a list of DTOs stored on an already loaded asset.
+     *
+     * @param <T>   the type of the DTOs
+     * @param asset the asset
+     * @param key   the key to retrieve the list from
+     * @param clazz the class of the DTOs
+     * @return the stored list, empty if there is none
+     */
+    public <T> List<T> readList(Asset asset, String key, Class<T> clazz) {
+        var stored = asset.getProperty(key);
+        if (stored == null) {
+            return List.of();
+        }
         try {
-            var serializedData = mapper.writeValueAsString(clazz);
-            this.persistRaw(assetId, key, serializedData);
+            return mapper.readValue(stored.toString(),
+                    mapper.getTypeFactory().constructCollectionType(List.class, clazz));
         } catch (JsonProcessingException e) {
-            throw new EdpException("Unable to serialize " + clazz.getClass().getSimpleName(), e);
+            throw new EdpException("Unable to deserialize list of " + clazz.getSimpleName() + " from asset", e);
+        }
+    }
+
+    /**
+     * Updates a list of DTOs stored on the asset under the asset's lock. An
+     * empty result removes the property.
+     *
+     * @param <T>     the type of the DTOs
+     * @param assetId the asset id
+     * @param key     the key the list is stored under
+     * @param clazz   the class of the DTOs
+     * @param update  computes the new list from a mutable copy of the stored one
+     */
+    public <T> void updateList(String assetId, String key, Class<T> clazz, UnaryOperator<List<T>> update) {
+        synchronized (lockFor(assetId)) {
+            var stored = readList(this.assetService.findById(assetId), key, clazz);
+            var updated = update.apply(new ArrayList<>(stored));
+            if (updated.equals(stored)) {
+                return;
+            }
+            if (updated.isEmpty()) {
+                remove(assetId, key);
+            } else {
+                persistRaw(assetId, key, serialize(updated));
+            }
         }
     }
 
+    /**
+     * Records a tombstone for a Daseen resource the asset no longer references,
+     * so the reconciliation may delete it in Daseen.
+     *
+     * @param resource the retired Daseen resource
+     */
+    public void tombstone(DaseenResourceDto resource) {
+        var tombstone = new DaseenTombstoneDto(resource.getResourceId(), resource.getContractId(),
+                System.currentTimeMillis());
+        updateList(resource.getAssetId(), DASEEN_TOMBSTONES_KEY, DaseenTombstoneDto.class, tombstones -> {
+            tombstones.removeIf(existing -> existing.resourceId().equals(tombstone.resourceId()));
+            tombstones.add(tombstone);
+            return tombstones;
+        });
+    }
+
+    private static Object lockFor(String assetId) {
+        return LOCKS[Math.floorMod(assetId.hashCode(), LOCK_STRIPES)];
+    }
+
     /**
      * Retrieves stored information on the asset.
      *
@@ -96,12 +296,52 @@ public class AssetHelperService {
      */
     public <T> Optional<T> load(String assetId, String key, Class<T> clazz) {
         return this.load(assetId, key)
-                .map(serializedData -> {
-                    try {
-                        return mapper.readValue(serializedData, clazz);
-                    } catch (JsonProcessingException e) {
-                        throw new EdpException("Unable to deserialize " + clazz.getSimpleName() + " from asset", e);
-                    }
-                });
+                .map(serializedData -> deserialize(serializedData, clazz));
+    }
+
+    /**
+     * Retrieves and deserializes a DTO from an already loaded asset.
+     *
+     * @param <T>   the type of DTO to deserialize
+     * @param asset the asset
+     * @param key   the key to retrieve the data from
+     * @param clazz the class of the DTO to deserialize
+     * @return an Optional containing the deserialized DTO, or empty if not found
+     */
+    public <T> Optional<T> read(Asset asset, String key, Class<T> clazz) {
+        return Optional.ofNullable(asset.getProperty(key))
+                .map(serializedData -> deserialize(serializedData.toString(), clazz));
+    }
+
+    /**
+     * Retrieves a page of assets.
+     *
+     * @param offset the index of the first asset
+     * @param limit  the maximum number of assets
+     * @return the assets of the page
+     */
+    public List<Asset> findPage(int offset, int limit) {
+        var querySpec = QuerySpec.Builder.newInstance()
+                .offset(offset)
+                .limit(limit)
+                .build();
+        return this.assetService.search(querySpec)
+                .orElseThrow(failure -> new EdpException("Unable to list assets: " + failure.getFailureDetail()));
+    }
+
+    private String serialize(Object data) {
+        try {
+            return mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new EdpException("Unable to serialize " + data.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T deserialize(String serializedData, Class<T> clazz) {
+        try {
+            return mapper.readValue(serializedData, clazz);
+        } catch (JsonProcessingException e) {
+            throw new EdpException("Unable to deserialize " + clazz.getSimpleName() + " from asset", e);
+        }
     }
 }
@@ -0,0 +1,105 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.connector.controlplane.asset.spi.index.AssetIndex;
+import org.eclipse.edc.connector.dataplane.http.spi.HttpDataAddress;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.Optional;
+
+/**
+ * Computes a digest of the content behind an asset's source address, used to
+ * detect whether an asset changed since it was last pushed. For HTTP sources
+ * the validators of a HEAD request ({@code ETag}, or {@code Last-Modified}
+ * together with {@code Content-Length}) are used. The content itself is never
+ * downloaded: a source without validators has no digest and is treated as
+ * changed. The digest at push time is stored on the Daseen record and compared
+ * against on the next update.
+ */
+public class ContentDigestService {
+
+    private static final String HTTP_DATA_TYPE = "HttpData";
+
+    private final Monitor logger;
+    private final Client httpClient = ClientBuilder.newClient()
+            .register(new TracingClientFilter("asset-source"));
+    private final AssetIndex assetIndexer;
+
+    /**
+     * Constructs an instance of ContentDigestService.
+     *
+     * @param assetIndexer the indexer for resolving asset addresses.
+     */
+    public ContentDigestService(AssetIndex assetIndexer) {
+        this.logger = LoggingUtils.getLogger();
+        this.assetIndexer = assetIndexer;
+    }
+
+    /**
+     * Computes the content digest of the given asset.
+     *
+     * @param assetId the asset ID.
+     * @return the digest, or empty if the source is not an HTTP address, cannot
+     *         be read or has no validators, in which case the content must be
+     *         treated as changed.
+     */
+    public Optional<String> digest(String assetId) {
+        var sourceAddress = this.assetIndexer.resolveForAsset(assetId);
+        if (sourceAddress == null || !HTTP_DATA_TYPE.equals(sourceAddress.getType())) {
+            return Optional.empty();
+        }
+
+        var httpAddress = HttpDataAddress.Builder.newInstance().copyFrom(sourceAddress).build();
+        if (httpAddress.getBaseUrl() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return fromValidators(httpAddress);
+        } catch (ProcessingException e) {
+            this.logger.warning("Could not compute content digest for asset " + assetId + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> fromValidators(HttpDataAddress address) {
+        try (var response = TracingClientFilter.invoke(() -> request(address).head())) {
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                return Optional.empty();
+            }
+            var etag = response.getHeaderString(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                return Optional.of("etag:" + etag);
+            }
+            var lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+            var contentLength = response.getHeaderString(HttpHeaders.CONTENT_LENGTH);
+            if (lastModified != null && contentLength != null) {
+                return Optional.of(String.format("modified:%s;length:%s", lastModified, contentLength));
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Invocation.Builder request(HttpDataAddress address) {
+        var request = this.httpClient.target(address.getBaseUrl()).request();
+        if (address.getAuthKey() != null && address.getAuthCode() != null) {
+            request.header(address.getAuthKey(), address.getAuthCode());
+        }
+        address.getAdditionalHeaders().forEach(request::header);
+        return request;
+    }
+
+    /**
+     * Closes the HTTP client.
+     */
+    public void close() {
+        this.logger.info("Closing HTTP client...");
+        this.httpClient.close();
+    }
+}
@@ -0,0 +1,114 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.CacheStatisticsDto;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
+import org.eclipse.edc.connector.controlplane.services.spi.contractagreement.ContractAgreementService;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache in front of the {@link ContractAgreementService}.
+ * Contract agreements are immutable once concluded, so found agreements never
+ * need to be invalidated. Unknown IDs are cached for a short time only, as the
+ * agreement may still be concluded. Both are bounded to
+ * {@code edp.cache.agreement.max.size} entries, evicting the least recently
+ * used ones.
+ */
+public class ContractAgreementCache {
+
+    public static final String CACHE_NAME = "contract-agreements";
+    private static final long DEFAULT_MAX_SIZE = 256;
+    private static final long DEFAULT_NEGATIVE_TTL_SECONDS = 30;
+
+    private final ContractAgreementService contractAgreementService;
+    private final Map<String, ContractAgreement> agreements;
+    private final Map<String, Long> missingUntil;
+    private final long maxSize;
+    private final long negativeTtlMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    /**
+     * Constructs an instance of ContractAgreementCache.
+     *
+     * @param contractAgreementService the service to load agreements from.
+     */
+    public ContractAgreementCache(ContractAgreementService contractAgreementService) {
+        this.contractAgreementService = contractAgreementService;
+        this.maxSize = ConfigurationUtils.readLongProperty("edp.cache.agreement", "max.size", DEFAULT_MAX_SIZE);
+        this.negativeTtlMillis = Duration.ofSeconds(ConfigurationUtils.readLongProperty("edp.cache.agreement",
+                "negative.ttl.seconds", DEFAULT_NEGATIVE_TTL_SECONDS)).toMillis();
+        this.agreements = newLruMap();
+        this.missingUntil = newLruMap();
+    }
+
+    /**
+     * Retrieves the contract agreement for a given contract ID.
+     *
+     * @param contractId the contract ID.
+     * @return the contract agreement, or empty if it does not exist.
+     */
+    public Optional<ContractAgreement> find(String contractId) {
+        synchronized (this.agreements) {
+            var cached = this.agreements.get(contractId);
+            if (cached != null) {
+                this.hits.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        synchronized (this.missingUntil) {
+            var missingDeadline = this.missingUntil.get(contractId);
+            if (missingDeadline != null) {
+                if (missingDeadline > System.currentTimeMillis()) {
+                    this.negativeHits.increment();
+                    return Optional.empty();
+                }
+                this.missingUntil.remove(contractId);
+            }
+        }
+
+        this.misses.increment();
+        var agreement = this.contractAgreementService.findById(contractId);
+        if (agreement == null) {
+            synchronized (this.missingUntil) {
+                this.missingUntil.put(contractId, System.currentTimeMillis() + this.negativeTtlMillis);
+            }
+            return Optional.empty();
+        }
+
+        synchronized (this.agreements) {
+            this.agreements.put(contractId, agreement);
+        }
+        return Optional.of(agreement);
+    }
+
+    /**
+     * Retrieves the hit/miss statistics of the cache.
+     *
+     * @return the cache statistics.
+     */
+    public CacheStatisticsDto statistics() {
+        int size;
+        synchronized (this.agreements) {
+            size = this.agreements.size();
+        }
+        return new CacheStatisticsDto(CACHE_NAME, size, this.hits.sum(), this.negativeHits.sum(),
+                this.misses.sum());
+    }
+
+    private <V> Map<String, V> newLruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > ContractAgreementCache.this.maxSize;
+            }
+        };
+    }
+}
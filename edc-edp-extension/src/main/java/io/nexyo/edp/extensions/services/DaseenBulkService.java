@@ -0,0 +1,196 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.DaseenBulkResultDto;
+import io.nexyo.edp.extensions.dtos.internal.DaseenResourceDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.ExecutorFactory;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Publishes or updates many assets in Daseen at once. The remote resource
+ * creation and the dataplane dispatch run concurrently, limited by
+ * {@code edp.daseen.bulk.concurrency}; the resulting resources are then written
+ * to their assets in one pass, with a single read and update per asset.
+ */
+public class DaseenBulkService {
+
+    public static final String ACTION_CREATE = "CREATE";
+    public static final String ACTION_UPDATE = "UPDATE";
+    public static final String ACTION_UNCHANGED = "UNCHANGED";
+    public static final String ACTION_DELETE = "DELETE";
+    private static final long DEFAULT_CONCURRENCY = 8;
+
+    private final Monitor logger;
+    private final DaseenService daseenService;
+    private final AssetHelperService assetHelperService;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs an instance of DaseenBulkService.
+     *
+     * @param daseenService      the service talking to Daseen.
+     * @param assetHelperService the helper used to store the Daseen resources.
+     */
+    public DaseenBulkService(DaseenService daseenService, AssetHelperService assetHelperService) {
+        this.logger = LoggingUtils.getLogger();
+        this.daseenService = daseenService;
+        this.assetHelperService = assetHelperService;
+        var concurrency = (int) Math.max(1, ConfigurationUtils.readLongProperty("edp.daseen.bulk", "concurrency",
+                DEFAULT_CONCURRENCY));
+        this.executor = ExecutorFactory.newIoExecutor("edp-daseen-bulk", concurrency);
+    }
+
+    /**
+     * Creates Daseen resources for all assets not yet published and dispatches
+     * the publish or update transfers for every asset.
+     *
+     * @param contractId the contract with the Daseen provider.
+     * @param assetIds   the assets to publish or update.
+     * @return the outcome per asset, in request order.
+     */
+    public List<DaseenBulkResultDto> publishAll(String contractId, List<String> assetIds) {
+        return publishAll(contractId, assetIds, false);
+    }
+
+    /**
+     * Creates new Daseen resources for all assets and publishes them, replacing
+     * any resource recorded on the asset, e.g. because it no longer exists in
+     * Daseen.
+     *
+     * @param contractId the contract with the Daseen provider.
+     * @param assetIds   the assets to republish.
+     * @return the outcome per asset, in request order.
+     */
+    public List<DaseenBulkResultDto> recreateAll(String contractId, List<String> assetIds) {
+        return publishAll(contractId, assetIds, true);
+    }
+
+    /**
+     * Deletes the given resources in Daseen.
+     *
+     * @param contractId  the contract with the Daseen provider.
+     * @param resourceIds the Daseen resources to delete.
+     * @return the outcome per resource, in request order.
+     */
+    public List<DaseenBulkResultDto> deleteAll(String contractId, List<String> resourceIds) {
+        this.logger.info(String.format("Deleting %d resources in Daseen...", resourceIds.size()));
+        var deleted = runAll(resourceIds, resourceId -> {
+            this.daseenService.deleteInDaseen(new DaseenResourceDto(UUID.randomUUID().toString(), null, resourceId,
+                    contractId, null));
+            return new DaseenBulkResultDto(null, resourceId, ACTION_DELETE, Status.OK, "Deleted");
+        }, (resourceId, error) -> new DaseenBulkResultDto(null, resourceId, ACTION_DELETE, Status.FAILED, error));
+        return resourceIds.stream().distinct().map(deleted::get).toList();
+    }
+
+    private List<DaseenBulkResultDto> publishAll(String contractId, List<String> assetIds, boolean recreate) {
+        this.logger.info(String.format("Publishing %d assets to Daseen...", assetIds.size()));
+
+        var prepared = runAll(assetIds, assetId -> prepare(assetId, contractId, recreate),
+                (assetId, error) -> new Outcome(assetId, null, null, null, error));
+
+        var dispatched = runAll(assetIds, assetId -> dispatch(prepared.get(assetId)),
+                (assetId, error) -> prepared.get(assetId).withError(error).toResult());
+
+        var records = new LinkedHashMap<String, DaseenResourceDto>();
+        prepared.forEach((assetId, outcome) -> {
+            var result = dispatched.get(assetId);
+            if (outcome.resource() != null
+                    && (ACTION_CREATE.equals(outcome.action())
+                            || ACTION_UPDATE.equals(result.action()) && result.status() == Status.OK)) {
+                records.put(assetId, outcome.resource());
+            }
+            if (outcome.replaced() != null) {
+                this.assetHelperService.tombstone(outcome.replaced());
+            }
+        });
+        // the asset store has no multi-asset update, so this is one read and one write per asset
+        records.forEach((assetId, resource) -> this.assetHelperService.persistAll(assetId,
+                Map.of(AssetHelperService.DASEEN_RESOURCE_KEY, resource)));
+        return assetIds.stream().distinct().map(dispatched::get).toList();
+    }
+
+    private Outcome prepare(String assetId, String contractId, boolean recreate) {
+        var existing = this.assetHelperService.load(assetId, AssetHelperService.DASEEN_RESOURCE_KEY,
+                DaseenResourceDto.class);
+        if (existing.isPresent() && !recreate) {
+            return new Outcome(assetId, ACTION_UPDATE, existing.get(), null, null);
+        }
+
+        var daseenResponseDto = this.daseenService.createDaseenResource(assetId, contractId);
+        var daseenResourceDto = new DaseenResourceDto(UUID.randomUUID().toString(), assetId,
+                daseenResponseDto.id(), contractId, daseenResponseDto.uploadUrl());
+        return new Outcome(assetId, ACTION_CREATE, daseenResourceDto, existing.orElse(null), null);
+    }
+
+    private DaseenBulkResultDto dispatch(Outcome outcome) {
+        if (outcome.error() != null) {
+            return outcome.toResult();
+        }
+        if (ACTION_CREATE.equals(outcome.action())) {
+            this.daseenService.publishToDaseen(outcome.resource());
+        } else if (!this.daseenService.updateInDaseen(outcome.resource(), false)) {
+            return new DaseenBulkResultDto(outcome.assetId(), outcome.resource().getResourceId(), ACTION_UNCHANGED,
+                    Status.OK, "Content unchanged, nothing dispatched");
+        }
+        return outcome.toResult();
+    }
+
+    /**
+     * Runs the task for every distinct ID on the bulk executor and waits for
+     * all of them. A failing asset is reported through {@code onFailure} instead
+     * of aborting the others.
+     */
+    private <T> Map<String, T> runAll(List<String> ids, Function<String, T> task,
+            BiFunction<String, String, T> onFailure) {
+        var futures = new LinkedHashMap<String, CompletableFuture<T>>();
+        ids.stream().distinct().forEach(id -> futures.put(id,
+                CompletableFuture.supplyAsync(() -> task.apply(id), this.executor)));
+
+        var results = new LinkedHashMap<String, T>();
+        futures.forEach((id, future) -> {
+            try {
+                results.put(id, future.join());
+            } catch (CompletionException e) {
+                var cause = e.getCause() != null ? e.getCause() : e;
+                this.logger.warning("Bulk Daseen operation failed for " + id + ": " + cause.getMessage());
+                results.put(id, onFailure.apply(id, cause.getMessage()));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Closes the bulk executor.
+     */
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private record Outcome(String assetId, String action, DaseenResourceDto resource, DaseenResourceDto replaced,
+            String error) {
+
+        Outcome withError(String error) {
+            return new Outcome(this.assetId, this.action, this.resource, this.replaced, error);
+        }
+
+        DaseenBulkResultDto toResult() {
+            var resourceId = this.resource == null ? null : this.resource.getResourceId();
+            return this.error == null
+                    ? new DaseenBulkResultDto(this.assetId, resourceId, this.action, Status.OK,
+                            "Dispatched to dataplane")
+                    : new DaseenBulkResultDto(this.assetId, resourceId, this.action, Status.FAILED, this.error);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.DaseenBulkResultDto;
+import io.nexyo.edp.extensions.dtos.internal.DaseenReconciliationReportDto;
+import io.nexyo.edp.extensions.dtos.internal.DaseenResourceDto;
+import io.nexyo.edp.extensions.dtos.internal.DaseenTombstoneDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Detects and repairs drift between the Daseen resources recorded on local
+ * assets and the resources registered in Daseen. Local assets and remote
+ * resources are paged through in batches. Records whose resource is missing in
+ * Daseen are republished; remote resources are only deleted if this connector
+ * left a tombstone for them when deleting or replacing them. Other remote
+ * resources are reported as unknown and left alone, as they may belong to
+ * another connector sharing the contract. Records and tombstones younger than
+ * one reconciliation interval are skipped, so in-flight publishes are not
+ * mistaken for drift. Repairs go through {@link DaseenBulkService} and thus run
+ * with bounded concurrency; they are off unless
+ * {@code edp.daseen.reconciliation.repair} is set.
+ */
+public class DaseenReconciliationService {
+
+    public static final String STATE_IDLE = "IDLE";
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_COMPLETED = "COMPLETED";
+    public static final String STATE_FAILED = "FAILED";
+    private static final int PAGE_SIZE = 100;
+    private static final long DEFAULT_INTERVAL_SECONDS = 3600;
+    private static final long DEFAULT_MAX_REMOTE_PAGES = 1000;
+
+    private final Monitor logger;
+    private final AssetHelperService assetHelperService;
+    private final DaseenService daseenService;
+    private final DaseenBulkService daseenBulkService;
+    private final long intervalSeconds;
+    private final long gracePeriodMillis;
+    private final long maxRemotePages;
+    private final String contractId;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "edp-daseen-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Run lastRun;
+
+    /**
+     * Constructs an instance of DaseenReconciliationService.
+     *
+     * @param assetHelperService the helper used to page through local records.
+     * @param daseenService      the service listing the Daseen resources.
+     * @param daseenBulkService  the service performing the repairs.
+     */
+    public DaseenReconciliationService(AssetHelperService assetHelperService, DaseenService daseenService,
+            DaseenBulkService daseenBulkService) {
+        this.logger = LoggingUtils.getLogger();
+        this.assetHelperService = assetHelperService;
+        this.daseenService = daseenService;
+        this.daseenBulkService = daseenBulkService;
+        this.intervalSeconds = ConfigurationUtils.readLongProperty("edp.daseen.reconciliation", "interval.seconds",
+                DEFAULT_INTERVAL_SECONDS);
+        this.gracePeriodMillis = TimeUnit.SECONDS.toMillis(this.intervalSeconds > 0 ? this.intervalSeconds
+                : DEFAULT_INTERVAL_SECONDS);
+        this.maxRemotePages = Math.max(1, ConfigurationUtils.readLongProperty("edp.daseen.reconciliation",
+                "max.remote.pages", DEFAULT_MAX_REMOTE_PAGES));
+        this.contractId = ConfigurationUtils.readStringProperty("edp.daseen.reconciliation", "contract.id", "");
+    }
+
+    /**
+     * Schedules the periodic reconciliation. A non-positive interval disables it.
+     */
+    public void start() {
+        if (this.intervalSeconds <= 0) {
+            this.logger.info("Daseen reconciliation disabled");
+            return;
+        }
+        this.scheduler.scheduleWithFixedDelay(() -> trigger(ConfigurationUtils.getSettings().reconciliationRepair()),
+                this.intervalSeconds, this.intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a reconciliation run in the background unless one is already
+     * running.
+     *
+     * @param repair whether to repair the detected drift.
+     * @return the report of the started or already running reconciliation.
+     */
+    public DaseenReconciliationReportDto trigger(boolean repair) {
+        if (this.running.compareAndSet(false, true)) {
+            var run = new Run();
+            this.lastRun = run;
+            this.scheduler.execute(() -> {
+                try {
+                    reconcile(run, repair);
+                } finally {
+                    this.running.set(false);
+                }
+            });
+        }
+        return getReport();
+    }
+
+    /**
+     * Retrieves the report of the current or last reconciliation run.
+     *
+     * @return the report.
+     */
+    public DaseenReconciliationReportDto getReport() {
+        var run = this.lastRun;
+        if (run == null) {
+            return new DaseenReconciliationReportDto(STATE_IDLE, null, null, 0, 0, List.of(), List.of(), List.of(),
+                    0, 0, 0, null);
+        }
+        return run.toReport();
+    }
+
+    private void reconcile(Run run, boolean repair) {
+        try {
+            var local = loadLocal();
+            run.localCount = local.resourceIds().size();
+
+            var contractIds = new LinkedHashSet<>(local.records().keySet());
+            contractIds.addAll(local.tombstones().keySet());
+            if (!this.contractId.isBlank()) {
+                contractIds.add(this.contractId);
+            }
+
+            var missingByContract = new HashMap<String, List<String>>();
+            var orphanedByContract = new HashMap<String, List<String>>();
+            var goneTombstones = new HashMap<String, String>();
+            var unknown = new ArrayList<String>();
+            var remoteResourceIds = new HashSet<String>();
+            for (var contract : contractIds) {
+                Set<String> remote;
+                try {
+                    remote = loadRemote(contract);
+                } catch (EdpException e) {
+                    this.logger.warning("Skipping reconciliation for contract " + contract + ": " + e.getMessage());
+                    continue;
+                }
+
+                local.records().getOrDefault(contract, Map.of()).forEach((resourceId, assetId) -> {
+                    if (!remote.contains(resourceId)) {
+                        missingByContract.computeIfAbsent(contract, key -> new ArrayList<>()).add(assetId);
+                    }
+                });
+                local.tombstones().getOrDefault(contract, Map.of()).forEach((resourceId, assetId) -> {
+                    if (remote.contains(resourceId)) {
+                        orphanedByContract.computeIfAbsent(contract, key -> new ArrayList<>()).add(resourceId);
+                    } else {
+                        goneTombstones.put(resourceId, assetId);
+                    }
+                });
+                remote.stream()
+                        .filter(resourceId -> !local.resourceIds().contains(resourceId)
+                                && remoteResourceIds.add(resourceId))
+                        .forEach(unknown::add);
+                remoteResourceIds.addAll(remote);
+            }
+
+            run.remoteCount = remoteResourceIds.size();
+            var missing = missingByContract.values().stream().flatMap(List::stream).toList();
+            var orphaned = orphanedByContract.values().stream().flatMap(List::stream).toList();
+            run.diff(missing, orphaned, unknown);
+            this.logger.info(String.format(
+                    "Daseen reconciliation found %d missing, %d orphaned and %d unknown resources",
+                    missing.size(), orphaned.size(), unknown.size()));
+
+            if (repair) {
+                run.repairsTotal.set(missing.size() + orphaned.size());
+                missingByContract.forEach((contract, assetIds) -> inBatches(assetIds,
+                        batch -> run.count(this.daseenBulkService.recreateAll(contract, batch))));
+                orphanedByContract.forEach((contract, resourceIds) -> inBatches(resourceIds, batch -> {
+                    var results = this.daseenBulkService.deleteAll(contract, batch);
+                    run.count(results);
+                    results.stream()
+                            .filter(result -> result.status() == Status.OK)
+                            .forEach(result -> goneTombstones.put(result.resourceId(),
+                                    local.tombstones().get(contract).get(result.resourceId())));
+                }));
+                goneTombstones.forEach(this::removeTombstone);
+            }
+            run.finish(STATE_COMPLETED, null);
+        } catch (RuntimeException e) {
+            this.logger.warning("Daseen reconciliation failed: " + e.getMessage());
+            run.finish(STATE_FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Pages through all assets and collects their Daseen records and
+     * tombstones, as resource ID to asset ID per contract. Records and
+     * tombstones younger than the grace period are left out of the diff, but
+     * their resources still count as known so they are never reported as
+     * unknown.
+     */
+    private Local loadLocal() {
+        var local = new Local(new HashMap<>(), new HashMap<>(), new HashSet<>());
+        var cutoff = System.currentTimeMillis() - this.gracePeriodMillis;
+        var offset = 0;
+        while (true) {
+            var assets = this.assetHelperService.findPage(offset, PAGE_SIZE);
+            for (var asset : assets) {
+                this.assetHelperService.read(asset, AssetHelperService.DASEEN_RESOURCE_KEY, DaseenResourceDto.class)
+                        .filter(resource -> resource.getResourceId() != null && resource.getContractId() != null)
+                        .ifPresent(resource -> {
+                            local.resourceIds().add(resource.getResourceId());
+                            if (resource.getCreatedAt() <= cutoff) {
+                                local.records().computeIfAbsent(resource.getContractId(), key -> new HashMap<>())
+                                        .put(resource.getResourceId(), asset.getId());
+                            }
+                        });
+                this.assetHelperService.readList(asset, AssetHelperService.DASEEN_TOMBSTONES_KEY,
+                        DaseenTombstoneDto.class).forEach(tombstone -> {
+                            local.resourceIds().add(tombstone.resourceId());
+                            if (tombstone.createdAt() <= cutoff) {
+                                local.tombstones().computeIfAbsent(tombstone.contractId(), key -> new HashMap<>())
+                                        .put(tombstone.resourceId(), asset.getId());
+                            }
+                        });
+            }
+            if (assets.size() < PAGE_SIZE) {
+                return local;
+            }
+            offset += PAGE_SIZE;
+        }
+    }
+
+    /**
+     * Pages through the resources registered in Daseen for the contract. A
+     * listing that repeats resources or exceeds the configured number of pages
+     * is treated as unreliable, so the contract is skipped rather than
+     * reconciled against a partial or looping result.
+     */
+    private Set<String> loadRemote(String contract) {
+        var remote = new HashSet<String>();
+        var offset = 0;
+        for (var page = 0; page < this.maxRemotePages; page++) {
+            var resources = this.daseenService.listDaseenResources(contract, offset, PAGE_SIZE);
+            for (var resource : resources) {
+                if (!remote.add(resource.id())) {
+                    throw new EdpException("Daseen listing repeated resource " + resource.id() + " at offset "
+                            + offset);
+                }
+            }
+            if (resources.size() < PAGE_SIZE) {
+                return remote;
+            }
+            offset += PAGE_SIZE;
+        }
+        throw new EdpException("Daseen listing exceeded " + this.maxRemotePages + " pages");
+    }
+
+    private void removeTombstone(String resourceId, String assetId) {
+        try {
+            this.assetHelperService.updateList(assetId, AssetHelperService.DASEEN_TOMBSTONES_KEY,
+                    DaseenTombstoneDto.class, tombstones -> {
+                        tombstones.removeIf(tombstone -> tombstone.resourceId().equals(resourceId));
+                        return tombstones;
+                    });
+        } catch (RuntimeException e) {
+            this.logger.warning("Could not remove Daseen tombstone " + resourceId + " from asset " + assetId + ": "
+                    + e.getMessage());
+        }
+    }
+
+    private void inBatches(List<String> ids, Consumer<List<String>> action) {
+        for (var from = 0; from < ids.size(); from += PAGE_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + PAGE_SIZE, ids.size())));
+        }
+    }
+
+    /**
+     * Stops the periodic reconciliation.
+     */
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Daseen records and tombstones found on the local assets.
+     */
+    private record Local(Map<String, Map<String, String>> records, Map<String, Map<String, String>> tombstones,
+            Set<String> resourceIds) {
+    }
+
+    /**
+     * State of a single reconciliation run, updated while it progresses.
+     */
+    private static final class Run {
+
+        private final Instant startedAt = Instant.now();
+        private List<String> missingRemote = List.of();
+        private List<String> orphanedRemote = List.of();
+        private List<String> unknownRemote = List.of();
+        private final AtomicInteger repairsTotal = new AtomicInteger();
+        private final AtomicInteger repairsDone = new AtomicInteger();
+        private final AtomicInteger repairsFailed = new AtomicInteger();
+        private volatile int localCount;
+        private volatile int remoteCount;
+        private volatile String state = STATE_RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String message;
+
+        synchronized void diff(List<String> missingRemote, List<String> orphanedRemote,
+                List<String> unknownRemote) {
+            this.missingRemote = missingRemote;
+            this.orphanedRemote = orphanedRemote;
+            this.unknownRemote = unknownRemote;
+        }
+
+        void count(List<DaseenBulkResultDto> results) {
+            results.forEach(result -> (result.status() == Status.OK ? this.repairsDone : this.repairsFailed)
+                    .incrementAndGet());
+        }
+
+        void finish(String state, String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        synchronized DaseenReconciliationReportDto toReport() {
+            return new DaseenReconciliationReportDto(this.state, this.startedAt.toString(),
+                    this.finishedAt == null ? null : this.finishedAt.toString(), this.localCount, this.remoteCount,
+                    this.missingRemote, this.orphanedRemote, this.unknownRemote, this.repairsTotal.get(),
+                    this.repairsDone.get(), this.repairsFailed.get(), this.message);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.nexyo.edp.extensions.services;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nexyo.edp.extensions.dtos.external.DaseenCreateResourceResponseDto;
@@ -19,27 +20,35 @@ import org.eclipse.edc.connector.dataplane.http.spi.HttpDataAddress;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.types.domain.transfer.FlowType;
 
+import java.util.List;
+
 /**
  * DaseenService
  */
 public class DaseenService {
 
         private final Monitor logger;
-        private final Client httpClient = ClientBuilder.newClient();
+        private final Client httpClient = ClientBuilder.newClient()
+                .register(new TracingClientFilter("Daseen"));
         private final ObjectMapper mapper = new ObjectMapper();
         private final DataplaneService dataplaneService;
         private final EdrService edrService;
+        private final ContentDigestService contentDigestService;
 
         /**
          * Constructor for the DaseenService.
          *
-         * @param dataplaneService the dataplane service
+         * @param dataplaneService     the dataplane service
+         * @param edrService           the EDR service
+         * @param contentDigestService the service detecting content changes
          */
-        public DaseenService(DataplaneService dataplaneService, EdrService edrService) {
+        public DaseenService(DataplaneService dataplaneService, EdrService edrService,
+                        ContentDigestService contentDigestService) {
                 this.logger = LoggingUtils.getLogger();
                 this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
                 this.dataplaneService = dataplaneService;
                 this.edrService = edrService;
+                this.contentDigestService = contentDigestService;
         }
 
         /**
@@ -55,11 +64,12 @@ public class DaseenService {
                 final var daseenAuthorizationFromContract = this.edrService.getEdrProperty(contractId,
                                 ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
 
-                var apiResponse = httpClient.target(String.format("%s/connector/edp/", daseenBaseUrlFromContract))
+                var apiResponse = TracingClientFilter.invoke(() -> httpClient
+                                .target(String.format("%s/connector/edp/", daseenBaseUrlFromContract))
                                 .request()
                                 .header("accept", "*/*")
                                 .header("Authorization", daseenAuthorizationFromContract)
-                                .post(Entity.json(""));
+                                .post(Entity.json("")));
 
                 if (!(apiResponse.getStatus() >= 200 && apiResponse.getStatus() < 300)) {
                         this.logger.warning("Failed to create EDP entry in Daseen for asset id: " + assetId
@@ -78,7 +88,47 @@ public class DaseenService {
         }
 
         /**
-         * Publishes the EDPS job result to Daseen.
+         * Lists a page of the resources registered in Daseen.
+         *
+         * @param contractId the contract with the Daseen provider.
+         * @param offset     the index of the first resource.
+         * @param limit      the maximum number of resources.
+         * @return the resources of the page.
+         */
+        public List<DaseenCreateResourceResponseDto> listDaseenResources(String contractId, int offset, int limit) {
+                final var daseenBaseUrlFromContract = this.edrService.getEdrProperty(contractId,
+                                ConfigurationUtils.EDR_PROPERTY_EDPS_BASE_URL_KEY);
+                final var daseenAuthorizationFromContract = this.edrService.getEdrProperty(contractId,
+                                ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
+
+                var apiResponse = TracingClientFilter.invoke(() -> httpClient
+                                .target(String.format("%s/connector/edp/", daseenBaseUrlFromContract))
+                                .queryParam("offset", offset)
+                                .queryParam("limit", limit)
+                                .request(MediaType.APPLICATION_JSON)
+                                .header("Authorization", daseenAuthorizationFromContract)
+                                .get());
+
+                if (!(apiResponse.getStatus() >= 200 && apiResponse.getStatus() < 300)) {
+                        this.logger.warning("Failed to list EDP entries in Daseen. Status was: "
+                                        + apiResponse.getStatus());
+                        throw new EdpException("Daseen resource listing failed for contract id: " + contractId);
+                }
+
+                String responseBody = apiResponse.readEntity(String.class);
+
+                try {
+                        return this.mapper.readValue(responseBody,
+                                        new TypeReference<List<DaseenCreateResourceResponseDto>>() {
+                                        });
+                } catch (JsonProcessingException e) {
+                        throw new EdpException("Unable to map response to DTO ", e);
+                }
+        }
+
+        /**
+         * Publishes the EDPS job result to Daseen and records the digest of the
+         * published content on the given DTO.
          *
          * @param daseenResourceDto the DaseenResourceDto to be published.
          */
@@ -88,7 +138,7 @@ public class DaseenService {
                                                 daseenResourceDto.getAssetId()));
 
                 // TODO: replace daseenAuthorization with proper auth mechanism
-                final var daseenAuthorization = ConfigurationUtils.readStringProperty("edp.daseen.api", "key");
+                final var daseenAuthorization = ConfigurationUtils.getSettings().daseenApiKey();
 
                 var destinationAddress = HttpDataAddress.Builder.newInstance()
                                 .type(FlowType.PUSH.toString())
@@ -101,17 +151,32 @@ public class DaseenService {
                 var transferProcess = this.edrService.getCurrentTransferProcess(daseenResourceDto.getContractId());
                 var participantId = this.edrService.getContractAgreement(daseenResourceDto.getContractId())
                                 .getProviderId();
+                var contentDigest = this.contentDigestService.digest(daseenResourceDto.getAssetId());
 
                 this.dataplaneService.start(daseenResourceDto.getAssetId(), destinationAddress,
                                 transferProcess.getId(), participantId, daseenResourceDto.getContractId());
+                daseenResourceDto.setContentDigest(contentDigest.orElse(null));
         }
 
         /**
-         * Updates the EDPS job result in Daseen.
+         * Updates the EDPS job result in Daseen. Unless forced, the update is
+         * skipped when the digest of the asset's content matches the digest
+         * recorded at the last push. The new digest is recorded on the given DTO.
          *
          * @param daseenResourceDto the DaseenResourceDto to be updated.
+         * @param force             whether to push even if the content is unchanged.
+         * @return true if an update was dispatched, false if the content is
+         *         unchanged.
          */
-        public void updateInDaseen(DaseenResourceDto daseenResourceDto) {
+        public boolean updateInDaseen(DaseenResourceDto daseenResourceDto, boolean force) {
+                var contentDigest = this.contentDigestService.digest(daseenResourceDto.getAssetId());
+                if (!force && contentDigest.isPresent()
+                                && contentDigest.get().equals(daseenResourceDto.getContentDigest())) {
+                        this.logger.info(String.format("Resource for Asset %s is unchanged, skipping Daseen update",
+                                        daseenResourceDto.getAssetId()));
+                        return false;
+                }
+
                 this.logger.info(String.format("Updating Resource for Asset %s in Daseen...",
                                 daseenResourceDto.getAssetId()));
                 final var daseenBaseUrlFromContract = this.edrService.getEdrProperty(daseenResourceDto.getContractId(),
@@ -134,6 +199,8 @@ public class DaseenService {
 
                 this.dataplaneService.start(daseenResourceDto.getAssetId(), destinationAddress,
                                 transferProcess.getId(), participantId, daseenResourceDto.getContractId());
+                daseenResourceDto.setContentDigest(contentDigest.orElse(null));
+                return true;
         }
 
         /**
@@ -151,12 +218,12 @@ public class DaseenService {
                                 daseenResourceDto.getContractId(),
                                 ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
 
-                var apiResponse = httpClient
+                var apiResponse = TracingClientFilter.invoke(() -> httpClient
                                 .target(String.format("%s/connector/edp/%s", daseenBaseUrlFromContract,
                                                 daseenResourceDto.getResourceId()))
                                 .request(MediaType.APPLICATION_JSON)
                                 .header("Authorization", daseenAuthorizationFromContract)
-                                .delete();
+                                .delete());
 
                 if (!(apiResponse.getStatus() == 204 || apiResponse.getStatus() == 200)) {
                         this.logger.warning("Failed to delete EDP entry in Daseen for asset id: "
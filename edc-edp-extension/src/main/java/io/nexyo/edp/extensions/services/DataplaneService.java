@@ -3,6 +3,8 @@ package io.nexyo.edp.extensions.services;
 import io.nexyo.edp.extensions.exceptions.EdpException;
 import io.nexyo.edp.extensions.utils.ConfigurationUtils;
 import io.nexyo.edp.extensions.utils.LoggingUtils;
+import io.nexyo.edp.extensions.utils.Span;
+import io.nexyo.edp.extensions.utils.TracingUtils;
 import org.eclipse.edc.connector.controlplane.asset.spi.index.AssetIndex;
 import org.eclipse.edc.connector.controlplane.transfer.spi.types.DataFlowResponse;
 import org.eclipse.edc.connector.dataplane.selector.spi.DataPlaneSelectorService;
@@ -15,6 +17,7 @@ import org.eclipse.edc.spi.types.domain.transfer.FlowType;
 import org.eclipse.edc.spi.types.domain.transfer.TransferType;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -23,11 +26,12 @@ import java.util.UUID;
  */
 public class DataplaneService {
 
+    private static final String ADDITIONAL_HEADER = "header:";
+
     private DataPlaneClientFactory clientFactory;
     private DataPlaneSelectorService selectorService;
     private AssetIndex assetIndexer;
     private Monitor logger;
-    private String callbackAddress;
 
     /**
      * Default constructor for DataplaneService.
@@ -49,7 +53,6 @@ public class DataplaneService {
         this.clientFactory = clientFactory;
         this.assetIndexer = assetIndexer;
         this.logger = LoggingUtils.getLogger();
-        this.callbackAddress = ConfigurationUtils.readStringProperty("edp.dataplane.callback", "url");
     }
 
     /**
@@ -85,19 +88,7 @@ public class DataplaneService {
             throw new EdpException("No source address found for asset id: " + assetId);
         }
 
-        var dataplaneInstance = getDataplane(sourceAddress);
-        this.logger.info("Data flow starting with dataplane id: " + dataplaneInstance.getId());
-
-        var dataFlowRequest = createDataFlowRequest(assetId, sourceAddress, destinationAddress, processId,
-                participantId, agreementId);
-
-        var result = clientFactory.createClient(dataplaneInstance)
-                .start(dataFlowRequest)
-                .map(it -> DataFlowResponse.Builder.newInstance()
-                        .dataAddress(it.getDataAddress())
-                        .dataPlaneId(dataplaneInstance.getId())
-                        .build());
-        this.logger.info("Data flow response is: " + result);
+        startDataFlow(assetId, sourceAddress, destinationAddress, processId, participantId, agreementId);
     }
 
     /**
@@ -108,19 +99,53 @@ public class DataplaneService {
      */
     public void start(DataAddress sourceAddress, DataAddress destinationAddress, String processId, String participantId,
             String agreementId) {
-        var dataplaneInstance = getDataplane(sourceAddress);
-        this.logger.info("Data flow starting with dataplane id: " + dataplaneInstance.getId());
-
-        var dataFlowRequest = createDataFlowRequest(null, sourceAddress, destinationAddress, processId, participantId,
-                agreementId);
-
-        var result = clientFactory.createClient(dataplaneInstance)
-                .start(dataFlowRequest)
-                .map(it -> DataFlowResponse.Builder.newInstance()
-                        .dataAddress(it.getDataAddress())
-                        .dataPlaneId(dataplaneInstance.getId())
-                        .build());
-        this.logger.info("Data flow response is: " + result);
+        startDataFlow(null, sourceAddress, destinationAddress, processId, participantId, agreementId);
+    }
+
+    /**
+     * Starts a data flow on the selected data plane, in a client span. The
+     * trace is passed on in the start message and as {@code traceparent}
+     * header of the push to the destination.
+     */
+    private void startDataFlow(String assetId, DataAddress sourceAddress, DataAddress destinationAddress,
+            String processId, String participantId, String agreementId) {
+        TracingUtils.run("dataplane.start", Span.Kind.CLIENT, span -> {
+            span.setAttribute("edp.asset_id", assetId)
+                    .setAttribute("edp.process_id", processId);
+            var dataplaneInstance = getDataplane(sourceAddress);
+            span.setAttribute("edp.dataplane_id", dataplaneInstance.getId());
+            this.logger.info("Data flow starting with dataplane id: " + dataplaneInstance.getId());
+
+            var traceparent = span.traceparent();
+            var dataFlowRequest = createDataFlowRequest(assetId, sourceAddress,
+                    withTraceparent(destinationAddress, traceparent), processId, participantId, agreementId,
+                    traceparent);
+
+            var result = clientFactory.createClient(dataplaneInstance)
+                    .start(dataFlowRequest)
+                    .map(it -> DataFlowResponse.Builder.newInstance()
+                            .dataAddress(it.getDataAddress())
+                            .dataPlaneId(dataplaneInstance.getId())
+                            .build());
+            if (result.failed()) {
+                span.setError(result.getFailureDetail());
+            }
+            this.logger.info("Data flow response is: " + result);
+        });
+    }
+
+    /**
+     * Adds the {@code traceparent} header to the requests of the data plane to
+     * the destination.
+     */
+    private DataAddress withTraceparent(DataAddress destinationAddress, String traceparent) {
+        if (traceparent == null) {
+            return destinationAddress;
+        }
+        return DataAddress.Builder.newInstance()
+                .properties(destinationAddress.getProperties())
+                .property(ADDITIONAL_HEADER + TracingUtils.TRACEPARENT, traceparent)
+                .build();
     }
 
     /**
@@ -130,13 +155,16 @@ public class DataplaneService {
      *                               (optional).
      * @param sourceDataAddress      the source data address.
      * @param destinationDataAddress the destination data address.
+     * @param traceparent            the trace context of the data flow, may be
+     *                               null.
      * @return a {@link DataFlowStartMessage} representing the request.
      */
     private DataFlowStartMessage createDataFlowRequest(String assetId, DataAddress sourceDataAddress,
-            DataAddress destinationDataAddress, String processId, String participantId, String agreementId) {
+            DataAddress destinationDataAddress, String processId, String participantId, String agreementId,
+            String traceparent) {
         TransferType transferType = new TransferType("HttpData", FlowType.PUSH);
 
-        return DataFlowStartMessage.Builder.newInstance()
+        var builder = DataFlowStartMessage.Builder.newInstance()
                 .id(UUID.randomUUID().toString())
                 .assetId(assetId)
                 .sourceDataAddress(sourceDataAddress)
@@ -144,8 +172,11 @@ public class DataplaneService {
                 .processId(processId)
                 .participantId(participantId)
                 .agreementId(agreementId)
-                .callbackAddress(URI.create(this.callbackAddress))
-                .transferType(transferType)
-                .build();
+                .callbackAddress(URI.create(ConfigurationUtils.getSettings().dataplaneCallbackUrl()))
+                .transferType(transferType);
+        if (traceparent != null) {
+            builder.properties(Map.of(TracingUtils.TRACEPARENT, traceparent));
+        }
+        return builder.build();
     }
 }
@@ -2,24 +2,36 @@ package io.nexyo.edp.extensions.services;
 
 import io.nexyo.edp.extensions.controllers.DaseenController;
 import io.nexyo.edp.extensions.controllers.EdpsController;
+import io.nexyo.edp.extensions.controllers.RateLimitFeature;
+import io.nexyo.edp.extensions.controllers.StatusController;
+import io.nexyo.edp.extensions.controllers.TracingFilter;
+import io.nexyo.edp.extensions.controllers.WorkflowController;
 import io.nexyo.edp.extensions.exceptions.EdpExceptionMapper;
 import io.nexyo.edp.extensions.utils.ConfigurationUtils;
 import io.nexyo.edp.extensions.utils.LoggingUtils;
+import io.nexyo.edp.extensions.utils.SpanExporter;
+import io.nexyo.edp.extensions.utils.TracingUtils;
 import org.eclipse.edc.connector.controlplane.asset.spi.index.AssetIndex;
 import org.eclipse.edc.connector.controlplane.services.spi.asset.AssetService;
 import org.eclipse.edc.connector.controlplane.services.spi.catalog.CatalogService;
 import org.eclipse.edc.connector.controlplane.services.spi.contractagreement.ContractAgreementService;
 import org.eclipse.edc.connector.controlplane.services.spi.contractnegotiation.ContractNegotiationService;
 import org.eclipse.edc.connector.controlplane.services.spi.transferprocess.TransferProcessService;
+import org.eclipse.edc.connector.controlplane.transfer.spi.observe.TransferProcessObservable;
 import org.eclipse.edc.connector.dataplane.selector.spi.DataPlaneSelectorService;
 import org.eclipse.edc.connector.dataplane.selector.spi.client.DataPlaneClientFactory;
 import org.eclipse.edc.edr.spi.store.EndpointDataReferenceStore;
+import org.eclipse.edc.jsonld.spi.JsonLd;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
 import org.eclipse.edc.web.spi.WebService;
 
+import java.net.URI;
+import java.nio.file.Path;
+
 /**
  * The EdpServiceExtension class is responsible for initializing the EDP service
  * extension.
@@ -57,6 +69,15 @@ public class EdpServiceExtension implements ServiceExtension {
     @Inject
     private EndpointDataReferenceStore edrStore;
 
+    @Inject
+    private TransferProcessObservable transferProcessObservable;
+
+    @Inject
+    private JsonLd jsonLd;
+
+    @Inject
+    private TypeTransformerRegistry transformerRegistry;
+
     @Inject
     AssetIndex assetIndexer;
 
@@ -66,6 +87,26 @@ public class EdpServiceExtension implements ServiceExtension {
 
     private DaseenService daseenService;
 
+    private EdpsResultProcessor edpsResultProcessor;
+
+    private TransferProcessIndex transferProcessIndex;
+
+    private EdrRefreshService edrRefreshService;
+
+    private ProviderWarmupService providerWarmupService;
+
+    private DaseenBulkService daseenBulkService;
+
+    private ContentDigestService contentDigestService;
+
+    private DaseenReconciliationService daseenReconciliationService;
+
+    private WorkflowService workflowService;
+
+    private RequestExecutor requestExecutor;
+
+    private SpanExporter spanExporter;
+
     @Override
     public String name() {
         return EXTENSION_NAME;
@@ -75,26 +116,84 @@ public class EdpServiceExtension implements ServiceExtension {
     public void initialize(ServiceExtensionContext context) {
         logger = context.getMonitor();
         LoggingUtils.setLogger(logger);
-        ConfigurationUtils.loadConfig();
+        ConfigurationUtils.initialize(context);
         logger.info("EdpServiceExtension initialized");
+        configureTracing();
 
         final var dataplaneService = new DataplaneService(dataPlaneSelectorService, clientFactory, assetIndexer);
-        this.edrService = new EdrService(catalogService, contractNegotiationService, contractAgreementService, transferProcessService, edrStore);
+        this.transferProcessIndex = new TransferProcessIndex(transferProcessService);
+        transferProcessObservable.registerListener(transferProcessIndex);
+        final var contractAgreementCache = new ContractAgreementCache(contractAgreementService);
+        this.edrService = new EdrService(catalogService, contractNegotiationService, contractAgreementService, transferProcessService, edrStore, transferProcessIndex, contractAgreementCache);
         this.edpsService = new EdpsService(dataplaneService, edrService);
-        this.daseenService = new DaseenService(dataplaneService, edrService);
-        final var edpsController = new EdpsController(edpsService, assetService);
-        final var daseenController = new DaseenController(daseenService, assetService);
+        this.contentDigestService = new ContentDigestService(assetIndexer);
+        this.daseenService = new DaseenService(dataplaneService, edrService, contentDigestService);
+        final var assetHelperService = new AssetHelperService(assetService);
+        this.edpsResultProcessor = new EdpsResultProcessor(edrService, assetHelperService);
+        this.requestExecutor = new RequestExecutor();
+        final var idempotencyService = new IdempotencyService();
+        final var edpsController = new EdpsController(edpsService, assetHelperService, edpsResultProcessor, requestExecutor,
+                idempotencyService);
+        this.daseenBulkService = new DaseenBulkService(daseenService, assetHelperService);
+        this.daseenReconciliationService = new DaseenReconciliationService(assetHelperService, daseenService, daseenBulkService);
+        final var daseenController = new DaseenController(daseenService, assetService, daseenBulkService, daseenReconciliationService, requestExecutor,
+                idempotencyService);
+        this.edrRefreshService = new EdrRefreshService(edrService, transferProcessIndex, transferProcessService);
+        this.providerWarmupService = new ProviderWarmupService(catalogService, contractNegotiationService, contractAgreementService, transferProcessService, edrService, transferProcessIndex, jsonLd, transformerRegistry);
+
+        this.workflowService = new WorkflowService(edpsService, assetHelperService, contentDigestService, daseenBulkService);
 
         webService.registerResource(edpsController);
         webService.registerResource(daseenController);
+        webService.registerResource(new WorkflowController(workflowService));
+        webService.registerResource(new StatusController(contractAgreementCache, edrRefreshService, providerWarmupService));
         webService.registerResource(new EdpExceptionMapper());
+        webService.registerResource(new RateLimitFeature(new RateLimiter()));
+        webService.registerResource(new TracingFilter());
+    }
+
+    @Override
+    public void start() {
+        this.transferProcessIndex.rebuild();
+        this.edrRefreshService.start();
+        this.providerWarmupService.start();
+        this.daseenReconciliationService.start();
+        this.workflowService.start();
     }
 
     @Override
     public void shutdown() {
         logger.info("Shutting down EDP extension");
+        this.requestExecutor.close();
         this.edpsService.close();
         this.daseenService.close();
+        this.workflowService.close();
+        this.daseenReconciliationService.close();
+        this.daseenBulkService.close();
+        this.contentDigestService.close();
+        this.edpsResultProcessor.close();
+        this.edrRefreshService.close();
+        this.providerWarmupService.close();
+        if (this.spanExporter != null) {
+            this.spanExporter.close();
+        }
+        ConfigurationUtils.close();
+    }
+
+    /**
+     * Enables tracing unless {@code edp.tracing.enabled} is false, and exports
+     * the spans to the configured file and/or OTLP/HTTP endpoint.
+     */
+    private void configureTracing() {
+        var enabled = Boolean.parseBoolean(ConfigurationUtils.readStringProperty("edp.tracing", "enabled", "true"));
+        var file = ConfigurationUtils.readStringProperty("edp.tracing", "export.file", "");
+        var endpoint = ConfigurationUtils.readStringProperty("edp.tracing", "export.endpoint", "");
+        if (enabled && (!file.isBlank() || !endpoint.isBlank())) {
+            var queueSize = (int) ConfigurationUtils.readLongProperty("edp.tracing", "queue.size", 2048);
+            this.spanExporter = new SpanExporter(file.isBlank() ? null : Path.of(file),
+                    endpoint.isBlank() ? null : URI.create(endpoint), queueSize);
+        }
+        TracingUtils.configure(enabled, this.spanExporter);
     }
 
 }
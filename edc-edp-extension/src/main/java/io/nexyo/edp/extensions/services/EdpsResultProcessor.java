@@ -0,0 +1,291 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.EdpsJobDto;
+import io.nexyo.edp.extensions.dtos.internal.EdpsResultEntryDto;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams an EDPS result ZIP from the job's result URL, registers selected
+ * entries (EDP JSON, schema, previews) as properties on the analysed asset and
+ * forwards the remaining entries as a new ZIP to the destination address.
+ * The archive is never buffered as a whole, neither on disk nor on the heap.
+ * <p>
+ * Each registered entry is stored under a key derived from its full path and
+ * listed in {@code edps_result_index}, a JSON array of
+ * {@link EdpsResultEntryDto}. Storing a result removes the entries of the
+ * previous one. Entries whose path cannot be parsed, whose key is already taken by another
+ * entry or the index, or which exceed
+ * {@code edp.edps.result.register.max.size} are forwarded instead.
+ */
+public class EdpsResultProcessor {
+
+    public static final String EDPS_RESULT_KEY_PREFIX = "edps_result_";
+    public static final String EDPS_RESULT_INDEX_KEY = EDPS_RESULT_KEY_PREFIX + "index";
+    private static final String DEFAULT_PATTERNS = "**.json,**schema*,**preview*";
+    private static final Set<String> TEXT_EXTENSIONS = Set.of("json", "txt", "csv", "md", "xml", "yaml", "yml");
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Monitor logger;
+    private final Client httpClient = ClientBuilder.newClient()
+            .register(new TracingClientFilter("EDPS"));
+    private final EdrService edrService;
+    private final AssetHelperService assetHelperService;
+    private final List<PathMatcher> registerMatchers;
+
+    /**
+     * Constructs an instance of EdpsResultProcessor.
+     *
+     * @param edrService         the service resolving the EDPS endpoint data
+     *                           reference.
+     * @param assetHelperService the helper used to store the registered entries.
+     */
+    public EdpsResultProcessor(EdrService edrService, AssetHelperService assetHelperService) {
+        this.logger = LoggingUtils.getLogger();
+        this.edrService = edrService;
+        this.assetHelperService = assetHelperService;
+        this.registerMatchers = Arrays.stream(ConfigurationUtils
+                        .readStringProperty("edp.edps.result.register", "patterns", DEFAULT_PATTERNS).split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .map(pattern -> FileSystems.getDefault().getPathMatcher("glob:" + pattern))
+                .toList();
+    }
+
+    /**
+     * Streams the result ZIP of the given job, registers the selected entries on
+     * the job's asset and forwards all other entries to the destination address.
+     *
+     * @param edpsJobDto         the job whose result is processed.
+     * @param destinationAddress the address the remaining entries are PUT to, may
+     *                           be blank to only register entries.
+     * @return the names of the entries that were registered on the asset.
+     * @throws EdpException if the result cannot be fetched, unpacked or forwarded.
+     */
+    public List<String> process(EdpsJobDto edpsJobDto, String destinationAddress) {
+        this.logger.info(String.format("Processing EDPS Job Result ZIP for asset %s for job %s...",
+                edpsJobDto.getAssetId(), edpsJobDto.getJobId()));
+        var authorization = this.edrService.getEdrProperty(edpsJobDto.getContractId(),
+                ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
+
+        var sourceResponse = TracingClientFilter.invoke(() -> this.httpClient.target(edpsJobDto.getResultUrl())
+                .request()
+                .header("Authorization", authorization)
+                .get());
+
+        if (sourceResponse.getStatus() < 200 || sourceResponse.getStatus() >= 300) {
+            sourceResponse.close();
+            throw new EdpException("Failed to fetch EDPS result for job " + edpsJobDto.getJobId()
+                    + ". Status was: " + sourceResponse.getStatus());
+        }
+
+        var registered = new LinkedHashMap<String, RegisteredEntry>();
+        try (sourceResponse; var source = new ZipInputStream(sourceResponse.readEntity(InputStream.class))) {
+            if (destinationAddress == null || destinationAddress.isBlank()) {
+                processEntries(source, null, registered);
+            } else {
+                forward(source, destinationAddress, registered);
+            }
+        } catch (IOException | UncheckedIOException | ProcessingException e) {
+            throw new EdpException("Unable to process EDPS result for job " + edpsJobDto.getJobId(), e);
+        }
+
+        var entryNames = new ArrayList<String>();
+        var index = new ArrayList<EdpsResultEntryDto>();
+        var properties = new HashMap<String, Object>();
+        registered.forEach((key, entry) -> {
+            entryNames.add(entry.name());
+            index.add(new EdpsResultEntryDto(entry.name(), key));
+            properties.put(key, entry.value());
+        });
+        properties.put(EDPS_RESULT_INDEX_KEY, index);
+        this.assetHelperService.persistAll(edpsJobDto.getAssetId(), properties, this::previousResultKeys);
+
+        this.logger.info(String.format("Registered %d EDPS result entries on asset %s",
+                entryNames.size(), edpsJobDto.getAssetId()));
+        return entryNames;
+    }
+
+    /**
+     * Re-packs the unregistered entries into a ZIP that is streamed to the
+     * destination while the source is being read.
+     */
+    private void forward(ZipInputStream source, String destinationAddress, Map<String, RegisteredEntry> registered) {
+        StreamingOutput body = output -> {
+            var target = new ZipOutputStream(output);
+            processEntries(source, target, registered);
+            target.finish();
+        };
+
+        var response = TracingClientFilter.invoke(() -> this.httpClient.target(destinationAddress)
+                .request()
+                .property("jersey.config.client.request.entity.processing", "CHUNKED")
+                .put(Entity.entity(body, "application/zip")));
+
+        try (response) {
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new EdpException("Forwarding EDPS result to " + destinationAddress
+                        + " failed. Status was: " + response.getStatus());
+            }
+        }
+    }
+
+    private void processEntries(ZipInputStream source, ZipOutputStream target,
+            Map<String, RegisteredEntry> registered) throws IOException {
+        ZipEntry entry;
+        while ((entry = source.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            var name = entry.getName();
+            var propertyKey = isSelected(name) ? toPropertyKey(name, registered) : null;
+            if (propertyKey != null) {
+                var buffer = new ByteArrayOutputStream();
+                if (copyBounded(source, buffer)) {
+                    registered.put(propertyKey, new RegisteredEntry(name, encode(name, buffer.toByteArray())));
+                    continue;
+                }
+                this.logger.warning("EDPS result entry " + name + " exceeds "
+                        + ConfigurationUtils.getSettings().edpsResultMaxSize()
+                        + " bytes and is forwarded instead of registered");
+                if (target != null) {
+                    target.putNextEntry(new ZipEntry(name));
+                    buffer.writeTo(target);
+                    source.transferTo(target);
+                    target.closeEntry();
+                }
+            } else if (target != null) {
+                target.putNextEntry(new ZipEntry(name));
+                source.transferTo(target);
+                target.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Copies the current entry into the buffer until it is exhausted or the
+     * configured maximum size is exceeded.
+     *
+     * @return true if the whole entry fit into the buffer.
+     */
+    private boolean copyBounded(InputStream source, ByteArrayOutputStream buffer) throws IOException {
+        var maxEntrySize = ConfigurationUtils.getSettings().edpsResultMaxSize();
+        var chunk = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = source.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+            if (buffer.size() > maxEntrySize) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSelected(String entryName) {
+        Path path;
+        try {
+            path = Path.of(entryName);
+        } catch (InvalidPathException e) {
+            this.logger.warning("EDPS result entry " + entryName + " is not a valid path and is forwarded instead of"
+                    + " registered: " + e.getMessage());
+            return false;
+        }
+        return this.registerMatchers.stream().anyMatch(matcher -> matcher.matches(path));
+    }
+
+    private String encode(String entryName, byte[] content) {
+        var extensionIndex = entryName.lastIndexOf('.');
+        var extension = extensionIndex < 0 ? "" : entryName.substring(extensionIndex + 1).toLowerCase();
+        if (TEXT_EXTENSIONS.contains(extension)) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+
+        var contentType = URLConnection.guessContentTypeFromName(entryName);
+        return String.format("data:%s;base64,%s", contentType == null ? "application/octet-stream" : contentType,
+                Base64.getEncoder().encodeToString(content));
+    }
+
+    /**
+     * Derives the property key from the full path of the entry.
+     *
+     * @return the key, or null if it is already taken by another entry or the
+     *         index.
+     */
+    private String toPropertyKey(String entryName, Map<String, RegisteredEntry> registered) {
+        var path = entryName.replace('\\', '/').replaceAll("^/+", "");
+        var propertyKey = EDPS_RESULT_KEY_PREFIX + path.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (propertyKey.equals(EDPS_RESULT_INDEX_KEY) || registered.containsKey(propertyKey)) {
+            this.logger.warning("EDPS result entry " + entryName + " maps to the property " + propertyKey
+                    + ", which is already taken, and is forwarded instead of registered");
+            return null;
+        }
+        return propertyKey;
+    }
+
+    /**
+     * Gets the properties of the result stored on the asset before, including
+     * its index. An index in the former comma-separated format cannot be
+     * mapped to its keys, then all {@code edps_result_*} properties are
+     * returned.
+     */
+    private Collection<String> previousResultKeys(Asset asset) {
+        if (asset.getProperty(EDPS_RESULT_INDEX_KEY) == null) {
+            return List.of();
+        }
+        try {
+            var keys = new ArrayList<String>();
+            keys.add(EDPS_RESULT_INDEX_KEY);
+            this.assetHelperService.readList(asset, EDPS_RESULT_INDEX_KEY, EdpsResultEntryDto.class)
+                    .forEach(entry -> keys.add(entry.property()));
+            return keys;
+        } catch (EdpException e) {
+            return asset.getProperties().keySet().stream()
+                    .filter(key -> key.startsWith(EDPS_RESULT_KEY_PREFIX))
+                    .toList();
+        }
+    }
+
+    private record RegisteredEntry(String name, String value) {
+    }
+
+    /**
+     * Closes the HTTP client.
+     */
+    public void close() {
+        this.logger.info("Closing HTTP client...");
+        this.httpClient.close();
+    }
+}
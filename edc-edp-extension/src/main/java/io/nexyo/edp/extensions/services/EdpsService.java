@@ -25,7 +25,8 @@ import org.eclipse.edc.spi.types.domain.transfer.FlowType;
 public class EdpsService {
 
         private final Monitor logger;
-        private final Client httpClient = ClientBuilder.newClient();
+        private final Client httpClient = ClientBuilder.newClient()
+                .register(new TracingClientFilter("EDPS"));
         private final ObjectMapper mapper = new ObjectMapper();
         private final DataplaneService dataplaneService;
         private final EdrService edrService;
@@ -60,11 +61,11 @@ public class EdpsService {
                 var requestBody = MockUtils.createRequestBody(assetId);
                 String jsonRequestBody = jsonb.toJson(requestBody);
 
-                var apiResponse = httpClient
+                var apiResponse = TracingClientFilter.invoke(() -> httpClient
                                 .target(String.format("%s%s", edpsBaseUrlFromContract, "/v1/dataspace/analysisjob"))
                                 .request(MediaType.APPLICATION_JSON)
                                 .header("Authorization", edpsAuthorizationFromContract)
-                                .post(Entity.entity(jsonRequestBody, MediaType.APPLICATION_JSON));
+                                .post(Entity.entity(jsonRequestBody, MediaType.APPLICATION_JSON)));
 
                 if (!(apiResponse.getStatus() >= 200 && apiResponse.getStatus() <= 300)) {
                         this.logger.warning(
@@ -112,11 +113,11 @@ public class EdpsService {
                 final var edpsAuthorizationFromContract = this.edrService.getEdrProperty(contractId,
                                 ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
 
-                var apiResponse = this.httpClient
+                var apiResponse = TracingClientFilter.invoke(() -> this.httpClient
                                 .target(String.format("%s/v1/dataspace/analysisjob/%s/status", edpsBaseUrl, jobId))
                                 .request(MediaType.APPLICATION_JSON)
                                 .header("Authorization", edpsAuthorizationFromContract)
-                                .get();
+                                .get());
 
                 if (apiResponse.getStatus() < 200 || apiResponse.getStatus() >= 300) {
                         String errorMessage = apiResponse.readEntity(String.class);
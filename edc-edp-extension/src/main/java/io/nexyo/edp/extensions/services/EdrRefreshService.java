@@ -0,0 +1,254 @@
+package io.nexyo.edp.extensions.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nexyo.edp.extensions.dtos.internal.EdrStatusDto;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.connector.controlplane.services.spi.transferprocess.TransferProcessService;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcess;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background refresher keeping the EDR tokens of all started transfer processes
+ * valid. Expiry is read from the {@code exp} claim of the EDR authorization
+ * token. Shortly before a token lapses a new transfer process is initiated for
+ * the same contract. Once it is started, lookups switch over to it as the
+ * newest started transfer process. The renewed transfer process is terminated
+ * when its EDR expires, or at the latest after
+ * {@code edp.edr.refresh.grace.seconds}, so calls that already use the old EDR
+ * can finish. Other transfer processes of the contract are left alone.
+ */
+public class EdrRefreshService {
+
+    private static final String DEFAULT_TRANSFER_TYPE = "HttpData-PULL";
+    private static final long DEFAULT_INTERVAL_SECONDS = 30;
+    private static final long DEFAULT_LEAD_SECONDS = 120;
+    private static final long DEFAULT_GRACE_SECONDS = 120;
+
+    private final Monitor logger;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final EdrService edrService;
+    private final TransferProcessIndex transferProcessIndex;
+    private final TransferProcessService transferProcessService;
+    private final Map<String, Renewal> pendingRenewals = new ConcurrentHashMap<>();
+    private final Map<String, Instant> retiring = new ConcurrentHashMap<>();
+    private final long intervalSeconds;
+    private final Duration leadTime;
+    private final Duration gracePeriod;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs an instance of EdrRefreshService.
+     *
+     * @param edrService             the service resolving EDRs and starting transfers.
+     * @param transferProcessIndex   the index of started transfer processes.
+     * @param transferProcessService the service used to check renewal progress.
+     */
+    public EdrRefreshService(EdrService edrService, TransferProcessIndex transferProcessIndex,
+            TransferProcessService transferProcessService) {
+        this.logger = LoggingUtils.getLogger();
+        this.edrService = edrService;
+        this.transferProcessIndex = transferProcessIndex;
+        this.transferProcessService = transferProcessService;
+        this.intervalSeconds = ConfigurationUtils.readLongProperty("edp.edr.refresh", "interval.seconds",
+                DEFAULT_INTERVAL_SECONDS);
+        this.leadTime = Duration.ofSeconds(ConfigurationUtils.readLongProperty("edp.edr.refresh", "lead.seconds",
+                DEFAULT_LEAD_SECONDS));
+        this.gracePeriod = Duration.ofSeconds(ConfigurationUtils.readLongProperty("edp.edr.refresh", "grace.seconds",
+                DEFAULT_GRACE_SECONDS));
+    }
+
+    /**
+     * Starts the periodic refresh. A non-positive interval disables it.
+     */
+    public void start() {
+        if (this.intervalSeconds <= 0) {
+            this.logger.info("EDR refresh disabled");
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "edp-edr-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::refresh, this.intervalSeconds, this.intervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Retrieves the time until the EDR of the current transfer process of a
+     * contract expires.
+     *
+     * @param contractId the contract ID.
+     * @return the time to expiry, or empty if no started transfer process exists
+     *         or its token carries no expiry.
+     */
+    public Optional<Duration> getTimeToExpiry(String contractId) {
+        return this.transferProcessIndex.findStarted(contractId)
+                .flatMap(this::getExpiry)
+                .map(expiry -> Duration.between(Instant.now(), expiry));
+    }
+
+    /**
+     * Retrieves the EDR expiry status of all contracts with a started transfer
+     * process.
+     *
+     * @return the status per contract.
+     */
+    public List<EdrStatusDto> getStatus() {
+        var status = new ArrayList<EdrStatusDto>();
+        for (var contractId : this.transferProcessIndex.contractIds()) {
+            this.transferProcessIndex.findStarted(contractId).ifPresent(transferProcess -> {
+                var expiry = getExpiry(transferProcess);
+                status.add(new EdrStatusDto(contractId, transferProcess.getId(),
+                        expiry.map(Instant::toString).orElse(null),
+                        expiry.map(it -> Duration.between(Instant.now(), it).toSeconds()).orElse(null),
+                        this.pendingRenewals.containsKey(contractId)));
+            });
+        }
+        return status;
+    }
+
+    private void refresh() {
+        try {
+            this.pendingRenewals.forEach(this::completeRenewal);
+            this.retiring.forEach(this::retire);
+            for (var contractId : this.transferProcessIndex.contractIds()) {
+                if (!this.pendingRenewals.containsKey(contractId)) {
+                    renewIfExpiring(contractId);
+                }
+            }
+        } catch (RuntimeException e) {
+            this.logger.warning("EDR refresh failed: " + e.getMessage());
+        }
+    }
+
+    private void renewIfExpiring(String contractId) {
+        var current = this.transferProcessIndex.findStarted(contractId);
+        if (current.isEmpty()) {
+            return;
+        }
+        var expiry = getExpiry(current.get());
+        if (expiry.isEmpty() || Instant.now().plus(this.leadTime).isBefore(expiry.get())) {
+            return;
+        }
+
+        this.logger.info(String.format("EDR for contract %s expires at %s, initiating renewal...", contractId,
+                expiry.get()));
+        try {
+            var transferType = Optional.ofNullable(current.get().getTransferType()).orElse(DEFAULT_TRANSFER_TYPE);
+            var renewal = this.edrService.startTransfer(contractId, transferType);
+            this.pendingRenewals.put(contractId, new Renewal(renewal.getId(), current.get().getId(), expiry.get()));
+        } catch (EdpException e) {
+            this.logger.warning("Could not renew EDR for contract " + contractId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules the termination of the renewed transfer process once the
+     * renewal is started.
+     */
+    private void completeRenewal(String contractId, Renewal pending) {
+        var renewalId = pending.renewalId();
+        var renewal = this.transferProcessService.findById(renewalId);
+        if (renewal == null || renewal.getState() > TransferProcessStates.STARTED.code()) {
+            this.logger.warning("EDR renewal " + renewalId + " for contract " + contractId + " did not start");
+            this.pendingRenewals.remove(contractId);
+            return;
+        }
+        if (renewal.getState() != TransferProcessStates.STARTED.code()) {
+            return;
+        }
+
+        this.transferProcessIndex.add(renewal);
+        this.pendingRenewals.remove(contractId);
+        var graceEnd = Instant.now().plus(this.gracePeriod);
+        var terminateAt = pending.expiry().isBefore(graceEnd) ? pending.expiry() : graceEnd;
+        this.logger.info(String.format("EDR for contract %s renewed by %s, terminating %s at %s", contractId,
+                renewalId, pending.renewedId(), terminateAt));
+        this.retiring.put(pending.renewedId(), terminateAt);
+    }
+
+    /**
+     * Terminates a renewed transfer process once it is due, unless it already
+     * left the STARTED state.
+     */
+    private void retire(String transferProcessId, Instant terminateAt) {
+        if (Instant.now().isBefore(terminateAt)) {
+            return;
+        }
+        this.retiring.remove(transferProcessId);
+        var transferProcess = this.transferProcessService.findById(transferProcessId);
+        if (transferProcess == null || transferProcess.getState() != TransferProcessStates.STARTED.code()) {
+            return;
+        }
+        this.logger.info("Terminating renewed transfer process " + transferProcessId);
+        try {
+            this.edrService.terminateTransfer(transferProcessId, "EDR renewed");
+        } catch (EdpException e) {
+            this.logger.warning(e.getMessage());
+        }
+        this.transferProcessIndex.remove(transferProcess);
+    }
+
+    /**
+     * Reads the expiry of the EDR of a transfer process from the {@code exp}
+     * claim of its authorization token.
+     */
+    private Optional<Instant> getExpiry(TransferProcess transferProcess) {
+        try {
+            var authorization = this.edrService.getEndpointDataReference(transferProcess.getId())
+                    .getStringProperty(ConfigurationUtils.EDR_PROPERTY_EDPS_AUTH_KEY);
+            if (authorization == null) {
+                return Optional.empty();
+            }
+            var parts = authorization.replaceFirst("(?i)^Bearer ", "").split("\\.");
+            if (parts.length < 2) {
+                return Optional.empty();
+            }
+            var claims = this.mapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]),
+                    StandardCharsets.UTF_8));
+            var exp = claims.get("exp");
+            return exp == null || !exp.canConvertToLong()
+                    ? Optional.empty()
+                    : Optional.of(Instant.ofEpochSecond(exp.asLong()));
+        } catch (Exception e) {
+            this.logger.debug("Could not read EDR expiry of transfer process " + transferProcess.getId() + ": "
+                    + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A renewal in progress.
+     *
+     * @param renewalId the transfer process initiated to renew the EDR.
+     * @param renewedId the transfer process whose EDR is renewed.
+     * @param expiry    the expiry of the renewed EDR.
+     */
+    private record Renewal(String renewalId, String renewedId, Instant expiry) {
+    }
+
+    /**
+     * Stops the periodic refresh.
+    public void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+}
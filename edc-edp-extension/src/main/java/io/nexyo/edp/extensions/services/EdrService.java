@@ -4,6 +4,8 @@ import com.apicatalog.jsonld.StringUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.Span;
+import io.nexyo.edp.extensions.utils.TracingUtils;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiation;
 import org.eclipse.edc.connector.controlplane.services.spi.catalog.CatalogService;
@@ -12,11 +14,15 @@ import org.eclipse.edc.connector.controlplane.services.spi.contractnegotiation.C
 import org.eclipse.edc.connector.controlplane.services.spi.transferprocess.TransferProcessService;
 import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcess;
 import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferRequest;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.command.TerminateTransferCommand;
 import org.eclipse.edc.edr.spi.store.EndpointDataReferenceStore;
 import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.types.domain.DataAddress;
 
 import java.util.Comparator;
-import java.util.concurrent.ExecutionException;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.eclipse.edc.spi.query.Criterion.criterion;
 
@@ -27,13 +33,17 @@ public class EdrService {
     private final ContractAgreementService contractAgreementService;
     private final TransferProcessService transferProcessService;
     private final EndpointDataReferenceStore edrStore;
+    private final TransferProcessIndex transferProcessIndex;
+    private final ContractAgreementCache contractAgreementCache;
 
-    public EdrService(CatalogService catalogService, ContractNegotiationService contractNegotiationService, ContractAgreementService contractAgreementService, TransferProcessService transferProcessService, EndpointDataReferenceStore edrStore) {
+    public EdrService(CatalogService catalogService, ContractNegotiationService contractNegotiationService, ContractAgreementService contractAgreementService, TransferProcessService transferProcessService, EndpointDataReferenceStore edrStore, TransferProcessIndex transferProcessIndex, ContractAgreementCache contractAgreementCache) {
         this.catalogService = catalogService;
         this.contractNegotiationService = contractNegotiationService;
         this.contractAgreementService = contractAgreementService;
         this.transferProcessService = transferProcessService;
         this.edrStore = edrStore;
+        this.transferProcessIndex = transferProcessIndex;
+        this.contractAgreementCache = contractAgreementCache;
     }
 
     /**
@@ -43,24 +53,86 @@ public class EdrService {
      * @return the corresponding value of the given key.
      */
     public String getEdrProperty(String contractId, String key) {
-        var transferProcess = this.getCurrentTransferProcess(contractId);
+        return TracingUtils.call("EdrService.getEdrProperty", Span.Kind.INTERNAL, span -> {
+            span.setAttribute("edp.contract_id", contractId);
+            var transferProcess = this.getCurrentTransferProcess(contractId);
+            span.setAttribute("edp.transfer_process_id", transferProcess.getId());
+
+            var edrProperties = this.getEndpointDataReference(transferProcess.getId())
+                    .getProperties();
+            var edrPropertyValue = edrProperties.getOrDefault(key, "")
+                    .toString();
+
+            if (StringUtils.isBlank(edrPropertyValue)) {
+                throw new EdpException("Could not extract EDR property for key " + key);
+            }
+
+            return edrPropertyValue;
+        });
+    }
 
-        var endpointDataReference = this.edrStore.resolveByTransferProcess(transferProcess.getId());
+    /**
+     * Retrieves the Endpoint Data Reference of a transfer process.
+     *
+     * @param transferProcessId the transfer process ID.
+     * @return the Endpoint Data Reference.
+     */
+    public DataAddress getEndpointDataReference(String transferProcessId) {
+        var endpointDataReference = this.edrStore.resolveByTransferProcess(transferProcessId);
         if (endpointDataReference.failed()) {
             throw new EdpException("Endpoint Data Reference not found for transfer process. The error messages are: " +
                     String.join("; ", endpointDataReference.getFailureMessages()) );
         }
+        return endpointDataReference.getContent();
+    }
 
-        var edrProperties = endpointDataReference.getContent()
-                .getProperties();
-        var edrPropertyValue = edrProperties.getOrDefault(key, "")
-                .toString();
+    /**
+     * Initiates a new transfer process for a given contract ID, using the
+     * counter-party address and protocol of the negotiation that concluded the
+     * contract.
+     *
+     * @param contractId   the contract ID.
+     * @param transferType the transfer type, e.g. HttpData-PULL.
+     * @return the initiated transfer process.
+     */
+    public TransferProcess startTransfer(String contractId, String transferType) {
+        var agreement = this.getContractAgreement(contractId);
+        var querySpec = QuerySpec.Builder.newInstance()
+                .filter(criterion("contractAgreement.id", "=", contractId))
+                .build();
+        var negotiation = this.contractNegotiationService.search(querySpec)
+                .map(it -> it.stream().findFirst())
+                .orElse(ignored -> Optional.<ContractNegotiation>empty())
+                .orElseThrow(() -> new EdpException("Contract negotiation not found for contract ID: " + contractId));
+
+        var transferRequest = TransferRequest.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .protocol(negotiation.getProtocol())
+                .counterPartyAddress(negotiation.getCounterPartyAddress())
+                .contractId(agreement.getId())
+                .transferType(transferType)
+                .build();
 
-        if (StringUtils.isBlank(edrPropertyValue)) {
-            throw new EdpException("Could not extract EDR property for key " + key);
+        var result = this.transferProcessService.initiateTransfer(transferRequest);
+        if (result.failed()) {
+            throw new EdpException("Could not initiate transfer for contract ID " + contractId + ": "
+                    + result.getFailureDetail());
         }
+        return result.getContent();
+    }
 
-        return edrPropertyValue;
+    /**
+     * Terminates a transfer process.
+     *
+     * @param transferProcessId the transfer process ID.
+     * @param reason            the reason for the termination.
+     */
+    public void terminateTransfer(String transferProcessId, String reason) {
+        var result = this.transferProcessService.terminate(new TerminateTransferCommand(transferProcessId, reason));
+        if (result.failed()) {
+            throw new EdpException("Could not terminate transfer process " + transferProcessId + ": "
+                    + result.getFailureDetail());
+        }
     }
 
     /**
@@ -70,26 +142,32 @@ public class EdrService {
      * @return the current transfer process.
      */
     public TransferProcess getCurrentTransferProcess(String contractId) {
-        var contractAgreement = this.contractAgreementService.findById(contractId);
-        if (contractAgreement == null) {
-            throw new EdpException("Contract agreement not found for contract ID: " + contractId);
-        }
+        this.getContractAgreement(contractId);
 
+        return this.transferProcessIndex.findStarted(contractId)
+                .or(() -> this.findStartedInStore(contractId))
+                .orElseThrow(() -> new EdpException("Transfer process not found for contract ID: " + contractId));
+    }
+
+    /**
+     * Looks up the newest STARTED transfer process in the store and adds it to
+     * the index. Only used if the index missed an event.
+     *
+     * @param contractId the contract ID.
+     * @return the transfer process, or empty if none is started.
+     */
+    private Optional<TransferProcess> findStartedInStore(String contractId) {
         var querySpec = QuerySpec.Builder.newInstance()
                 .filter(criterion("contractId", "=", contractId))
+                .filter(criterion("state", "=", TransferProcessStates.STARTED.code()))
                 .build();
-        var transferProcesses = this.transferProcessService.search(querySpec);
-
-        var currentTransferProcess = transferProcesses.map(it -> it.stream()
-                        .filter(tp -> tp.getState() == TransferProcessStates.STARTED.code())
-                        .min(Comparator.comparing(TransferProcess::getStateTimestamp))
-                        .orElse(null))
-                .orElse(null);
 
-        if (currentTransferProcess == null) {
-            throw new EdpException("Transfer process not found for contract ID: " + contractId);
-        }
+        var currentTransferProcess = this.transferProcessService.search(querySpec)
+                .map(it -> it.stream()
+                        .max(Comparator.comparing(TransferProcess::getStateTimestamp)))
+                .orElse(ignored -> Optional.empty());
 
+        currentTransferProcess.ifPresent(this.transferProcessIndex::add);
         return currentTransferProcess;
     }
 
@@ -100,11 +178,7 @@ public class EdrService {
      * @return the contract agreement.
      */
     public ContractAgreement getContractAgreement(String contractId) {
-        var contractAgreement = this.contractAgreementService.findById(contractId);
-
-        if (contractAgreement == null) {
-            throw new EdpException("Contract agreement not found for contract ID: " + contractId);
-        }
-        return contractAgreement;
+        return this.contractAgreementCache.find(contractId)
+                .orElseThrow(() -> new EdpException("Contract agreement not found for contract ID: " + contractId));
     }
 }
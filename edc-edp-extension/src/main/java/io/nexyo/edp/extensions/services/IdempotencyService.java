@@ -0,0 +1,165 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.GenericResponseDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates requests that create remote EDPS jobs or Daseen resources.
+ * <ul>
+ * <li>Concurrent requests for the same operation (e.g. the same asset and
+ * contract) are collapsed into one in-flight execution whose response all
+ * callers receive.</li>
+ * <li>Requests carrying an {@code Idempotency-Key} header are answered with
+ * the stored response of the first request with that key for
+ * {@code edp.idempotency.ttl.seconds}. At most
+ * {@code edp.idempotency.max.keys} keys are kept, the least recently used are
+ * dropped first. Server errors are not stored, so the request can be
+ * retried.</li>
+ * </ul>
+ */
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final long DEFAULT_MAX_KEYS = 10_000;
+
+    private final Monitor logger;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Entry> keys;
+
+    /**
+     * Constructs an instance of IdempotencyService.
+     */
+    public IdempotencyService() {
+        this.logger = LoggingUtils.getLogger();
+        var maxKeys = ConfigurationUtils.readLongProperty("edp.idempotency", "max.keys", DEFAULT_MAX_KEYS);
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Executes the operation unless an identical operation is in flight or the
+     * idempotency key was already used.
+     *
+     * @param idempotencyKey the client's idempotency key, may be null.
+     * @param endpoint       the endpoint, scoping the idempotency keys.
+     * @param target         identifies the target of the operation, e.g. asset
+     *                       and contract; requests with the same idempotency
+     *                       key must have the same target.
+     * @param action         starts the operation.
+     * @return the response of the operation, or the stored response of the
+     *         earlier request.
+     */
+    public CompletionStage<Response> execute(String idempotencyKey, String endpoint, String target,
+            Supplier<CompletionStage<Response>> action) {
+        var operation = endpoint + "|" + target;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return singleFlight(operation, action).thenApply(stored -> stored.toResponse(false));
+        }
+
+        var key = endpoint + "|" + idempotencyKey;
+        Entry entry;
+        var replayed = true;
+        synchronized (this.keys) {
+            entry = this.keys.get(key);
+            if (entry != null && entry.isExpired(ConfigurationUtils.getSettings().idempotencyTtl().toMillis())) {
+                this.keys.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(operation, singleFlight(operation, action), System.currentTimeMillis());
+                this.keys.put(key, entry);
+                replayed = false;
+            }
+        }
+
+        if (!entry.operation().equals(operation)) {
+            return CompletableFuture.completedFuture(Response.status(422)
+                    .entity(new GenericResponseDto("Idempotency key was already used for a different request",
+                            Status.FAILED))
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .build());
+        }
+
+        var stored = entry;
+        entry.response().whenComplete((response, throwable) -> {
+            if (throwable != null || response.status() >= 500) {
+                synchronized (this.keys) {
+                    this.keys.remove(key, stored);
+                }
+            }
+        });
+        var isReplay = replayed;
+        return entry.response().thenApply(response -> response.toResponse(isReplay));
+    }
+
+    /**
+     * Joins the in-flight execution of the operation or starts a new one.
+     */
+    private CompletableFuture<StoredResponse> singleFlight(String operation,
+            Supplier<CompletionStage<Response>> action) {
+        var started = new CompletableFuture<StoredResponse>();
+        var running = this.inFlight.putIfAbsent(operation, started);
+        if (running != null) {
+            this.logger.debug("Joining in-flight operation " + operation);
+            return running;
+        }
+
+        try {
+            action.get().whenComplete((response, throwable) -> {
+                this.inFlight.remove(operation, started);
+                if (throwable != null) {
+                    started.completeExceptionally(throwable);
+                } else {
+                    started.complete(StoredResponse.of(response));
+                }
+            });
+        } catch (RuntimeException e) {
+            this.inFlight.remove(operation, started);
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    private record Entry(String operation, CompletableFuture<StoredResponse> response, long createdAt) {
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - this.createdAt > ttlMillis;
+        }
+    }
+
+    /**
+     * The parts of a response needed to answer further callers; a built
+     * {@link Response} must not be sent more than once.
+     */
+    private record StoredResponse(int status, Object entity, MediaType mediaType) {
+
+        static StoredResponse of(Response response) {
+            return new StoredResponse(response.getStatus(), response.getEntity(), response.getMediaType());
+        }
+
+        Response toResponse(boolean replayed) {
+            var builder = Response.status(this.status).entity(this.entity).type(this.mediaType);
+            if (replayed) {
+                builder.header(REPLAYED_HEADER, true);
+            }
+            return builder.build();
+        }
+    }
+}
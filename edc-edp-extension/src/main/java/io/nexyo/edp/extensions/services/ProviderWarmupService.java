@@ -0,0 +1,397 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.ProviderStatusDto;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import jakarta.json.Json;
+import org.eclipse.edc.connector.controlplane.catalog.spi.Dataset;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiationStates;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractRequest;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.connector.controlplane.services.spi.catalog.CatalogService;
+import org.eclipse.edc.connector.controlplane.services.spi.contractagreement.ContractAgreementService;
+import org.eclipse.edc.connector.controlplane.services.spi.contractnegotiation.ContractNegotiationService;
+import org.eclipse.edc.connector.controlplane.services.spi.transferprocess.TransferProcessService;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.policy.model.AndConstraint;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.Constraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.eclipse.edc.spi.query.Criterion.criterion;
+
+/**
+ * Orchestrates contract negotiation and transfer start for the configured
+ * EDPS and Daseen providers, so a STARTED transfer process (and with it an
+ * EDR) is available before the first job arrives. Providers are configured
+ * through {@code edp.warmup.providers} and
+ * {@code edp.warmup.<name>.{address,provider.id,asset.id,protocol}}. The
+ * pipeline runs at startup and is re-checked periodically, e.g. after a
+ * transfer process expired or was terminated.
+ * <p>
+ * An existing agreement is only reused while it is still valid: its
+ * negotiation is finalized, the {@code inForceDate} constraints of its policy
+ * have not expired and the provider has not refused a transfer under it.
+ * Otherwise a new contract is negotiated.
+ */
+public class ProviderWarmupService {
+
+    private static final String DEFAULT_PROTOCOL = "dataspace-protocol-http";
+    private static final String TRANSFER_TYPE = "HttpData-PULL";
+    private static final String MANAGEMENT_API_CONTEXT = "management-api";
+    private static final long DEFAULT_INTERVAL_SECONDS = 60;
+    private static final long DEFAULT_TIMEOUT_SECONDS = 300;
+    private static final long POLL_MILLIS = 1000;
+    private static final String IN_FORCE_DATE = "inForceDate";
+    private static final Pattern AGREEMENT_OFFSET = Pattern.compile("contractAgreement\\+(\\d+)([smhd])");
+
+    private final Monitor logger;
+    private final CatalogService catalogService;
+    private final ContractNegotiationService contractNegotiationService;
+    private final ContractAgreementService contractAgreementService;
+    private final TransferProcessService transferProcessService;
+    private final EdrService edrService;
+    private final TransferProcessIndex transferProcessIndex;
+    private final JsonLd jsonLd;
+    private final TypeTransformerRegistry transformerRegistry;
+    private final List<Provider> providers;
+    private final Map<String, ProviderStatusDto> status = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> running = new ConcurrentHashMap<>();
+    private final Set<String> refusedAgreements = ConcurrentHashMap.newKeySet();
+    private final long intervalSeconds;
+    private final Duration timeout;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        var thread = new Thread(runnable, "edp-provider-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs an instance of ProviderWarmupService.
+     *
+     * @param catalogService             the service used to request provider datasets.
+     * @param contractNegotiationService the service used to negotiate contracts.
+     * @param contractAgreementService   the service used to find existing agreements.
+     * @param transferProcessService     the service used to check transfer progress.
+     * @param edrService                 the service used to start transfers.
+     * @param transferProcessIndex       the index of started transfer processes.
+     * @param jsonLd                     the JSON-LD service expanding datasets.
+     * @param transformerRegistry        the registry transforming datasets.
+     */
+    public ProviderWarmupService(CatalogService catalogService, ContractNegotiationService contractNegotiationService,
+            ContractAgreementService contractAgreementService, TransferProcessService transferProcessService,
+            EdrService edrService, TransferProcessIndex transferProcessIndex, JsonLd jsonLd,
+            TypeTransformerRegistry transformerRegistry) {
+        this.logger = LoggingUtils.getLogger();
+        this.catalogService = catalogService;
+        this.contractNegotiationService = contractNegotiationService;
+        this.contractAgreementService = contractAgreementService;
+        this.transferProcessService = transferProcessService;
+        this.edrService = edrService;
+        this.transferProcessIndex = transferProcessIndex;
+        this.jsonLd = jsonLd;
+        this.transformerRegistry = transformerRegistry.forContext(MANAGEMENT_API_CONTEXT);
+        this.intervalSeconds = ConfigurationUtils.readLongProperty("edp.warmup", "interval.seconds",
+                DEFAULT_INTERVAL_SECONDS);
+        this.timeout = Duration.ofSeconds(ConfigurationUtils.readLongProperty("edp.warmup", "timeout.seconds",
+                DEFAULT_TIMEOUT_SECONDS));
+        this.providers = Arrays.stream(ConfigurationUtils.readStringProperty("edp.warmup", "providers", "")
+                        .split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(Provider::fromConfig)
+                .toList();
+    }
+
+    /**
+     * Starts the warm-up of all configured providers and schedules the periodic
+     * re-check.
+     */
+    public void start() {
+        if (this.providers.isEmpty()) {
+            return;
+        }
+        this.logger.info("Warming up contracts and transfers for providers: "
+                + String.join(", ", this.providers.stream().map(Provider::name).toList()));
+        this.scheduler.scheduleWithFixedDelay(() -> this.providers.forEach(this::warmUp), 0,
+                Math.max(this.intervalSeconds, 1), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Retrieves the warm-up status of all configured providers.
+     *
+     * @return the status per provider.
+     */
+    public List<ProviderStatusDto> getStatus() {
+        return this.providers.stream()
+                .map(provider -> this.status.getOrDefault(provider.name(),
+                        new ProviderStatusDto(provider.name(), provider.assetId(), null, "PENDING", null)))
+                .toList();
+    }
+
+    /**
+     * Ensures a STARTED transfer process exists for the provider, negotiating a
+     * contract first if none was concluded yet.
+     *
+     * @param provider the provider.
+     * @return a future completing with the contract ID once the transfer is started.
+     */
+    private CompletableFuture<String> warmUp(Provider provider) {
+        return this.running.computeIfAbsent(provider.name(), name -> CompletableFuture
+                .supplyAsync(() -> findAgreement(provider), this.scheduler)
+                .thenCompose(agreementId -> agreementId != null
+                        ? CompletableFuture.completedFuture(agreementId)
+                        : negotiate(provider))
+                .thenCompose(contractId -> ensureTransfer(provider, contractId))
+                .whenComplete((contractId, failure) -> {
+                    this.running.remove(name);
+                    if (failure != null) {
+                        this.logger.warning("Warm-up of provider " + name + " failed: " + failure.getMessage());
+                        updateStatus(provider, null, "FAILED", failure.getMessage());
+                    } else {
+                        updateStatus(provider, contractId, "READY", null);
+                    }
+                }));
+    }
+
+    private String findAgreement(Provider provider) {
+        var querySpec = QuerySpec.Builder.newInstance()
+                .filter(criterion("assetId", "=", provider.assetId()))
+                .build();
+        return this.contractAgreementService.search(querySpec)
+                .map(agreements -> agreements.stream()
+                        .filter(agreement -> provider.providerId().equals(agreement.getProviderId()))
+                        .filter(this::isValid)
+                        .max(Comparator.comparing(ContractAgreement::getContractSigningDate))
+                        .map(ContractAgreement::getId)
+                        .orElse(null))
+                .orElse(failure -> null);
+    }
+
+    private boolean isValid(ContractAgreement agreement) {
+        if (this.refusedAgreements.contains(agreement.getId())) {
+            return false;
+        }
+        var negotiation = this.contractAgreementService.findNegotiation(agreement.getId());
+        if (negotiation == null || negotiation.getState() != ContractNegotiationStates.FINALIZED.code()) {
+            return false;
+        }
+
+        var signedAt = Instant.ofEpochSecond(agreement.getContractSigningDate());
+        var now = Instant.now();
+        return agreement.getPolicy().getPermissions().stream()
+                .flatMap(permission -> permission.getConstraints().stream())
+                .flatMap(ProviderWarmupService::conjuncts)
+                .filter(constraint -> constraint.getLeftExpression() instanceof LiteralExpression left
+                        && left.asString().endsWith(IN_FORCE_DATE))
+                .allMatch(constraint -> isInForce(agreement, constraint, signedAt, now));
+    }
+
+    /**
+     * Gets the atomic constraints that must all hold, i.e. the constraint
+     * itself or the members of an AND constraint.
+     */
+    private static Stream<AtomicConstraint> conjuncts(Constraint constraint) {
+        if (constraint instanceof AtomicConstraint atomic) {
+            return Stream.of(atomic);
+        }
+        if (constraint instanceof AndConstraint andConstraint) {
+            return andConstraint.getConstraints().stream().flatMap(ProviderWarmupService::conjuncts);
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Checks an {@code inForceDate} constraint, whose right operand is either an
+     * ISO-8601 instant or an offset to the signing date such as
+     * {@code contractAgreement+30d}. Constraints that cannot be read are left to
+     * the provider to enforce.
+     */
+    private boolean isInForce(ContractAgreement agreement, AtomicConstraint constraint, Instant signedAt,
+            Instant now) {
+        if (!(constraint.getRightExpression() instanceof LiteralExpression right)) {
+            return true;
+        }
+        Instant bound;
+        var value = right.asString().trim();
+        var offset = AGREEMENT_OFFSET.matcher(value);
+        try {
+            if (offset.matches()) {
+                var amount = Long.parseLong(offset.group(1));
+                bound = signedAt.plus(switch (offset.group(2)) {
+                    case "s" -> Duration.ofSeconds(amount);
+                    case "m" -> Duration.ofMinutes(amount);
+                    case "h" -> Duration.ofHours(amount);
+                    default -> Duration.ofDays(amount);
+                });
+            } else {
+                bound = Instant.parse(value);
+            }
+        } catch (DateTimeParseException | ArithmeticException e) {
+            this.logger.debug("Cannot read inForceDate " + value + " of agreement " + agreement.getId());
+            return true;
+        }
+
+        var inForce = switch (constraint.getOperator()) {
+            case LT -> now.isBefore(bound);
+            case LEQ -> !now.isAfter(bound);
+            case GT -> now.isAfter(bound);
+            case GEQ -> !now.isBefore(bound);
+            default -> true;
+        };
+        if (!inForce) {
+            this.logger.debug("Agreement " + agreement.getId() + " is not in force, inForceDate "
+                    + constraint.getOperator() + " " + value);
+        }
+        return inForce;
+    }
+
+    private CompletableFuture<String> negotiate(Provider provider) {
+        updateStatus(provider, null, "NEGOTIATING", null);
+        return this.catalogService.requestDataset(provider.assetId(), provider.providerId(), provider.address(),
+                        provider.protocol())
+                .thenApply(result -> {
+                    if (result.failed()) {
+                        throw new EdpException("Dataset request failed: " + result.getFailureDetail());
+                    }
+                    return toContractRequest(provider, result.getContent());
+                })
+                .thenApply(request -> this.contractNegotiationService.initiateNegotiation(request).getId())
+                .thenCompose(negotiationId -> poll(() -> {
+                    var negotiation = this.contractNegotiationService.findbyId(negotiationId);
+                    if (negotiation == null
+                            || negotiation.getState() == ContractNegotiationStates.TERMINATED.code()) {
+                        throw new EdpException("Contract negotiation " + negotiationId + " was terminated");
+                    }
+                    return negotiation.getState() == ContractNegotiationStates.FINALIZED.code()
+                            ? negotiation.getContractAgreement().getId()
+                            : null;
+                }, Instant.now().plus(this.timeout)));
+    }
+
+    private ContractRequest toContractRequest(Provider provider, byte[] datasetJson) {
+        var compacted = Json.createReader(new ByteArrayInputStream(datasetJson)).readObject();
+        var dataset = this.jsonLd.expand(compacted)
+                .compose(expanded -> this.transformerRegistry.transform(expanded, Dataset.class))
+                .orElseThrow(failure -> new EdpException("Could not read dataset of provider " + provider.name()
+                        + ": " + failure.getFailureDetail()));
+        var offer = dataset.getOffers().entrySet().stream()
+                .findFirst()
+                .orElseThrow(() -> new EdpException("Provider " + provider.name() + " offers no policy for asset "
+                        + provider.assetId()));
+
+        var policy = offer.getValue().toBuilder()
+                .assigner(provider.providerId())
+                .target(provider.assetId())
+                .build();
+        return ContractRequest.Builder.newInstance()
+                .counterPartyAddress(provider.address())
+                .protocol(provider.protocol())
+                .contractOffer(ContractOffer.Builder.newInstance()
+                        .id(offer.getKey())
+                        .assetId(provider.assetId())
+                        .policy(policy)
+                        .build())
+                .build();
+    }
+
+    private CompletableFuture<String> ensureTransfer(Provider provider, String contractId) {
+        if (this.transferProcessIndex.findStarted(contractId).isPresent()) {
+            return CompletableFuture.completedFuture(contractId);
+        }
+
+        updateStatus(provider, contractId, "TRANSFERRING", null);
+        var transferProcessId = this.edrService.startTransfer(contractId, TRANSFER_TYPE).getId();
+        return poll(() -> {
+            var transferProcess = this.transferProcessService.findById(transferProcessId);
+            if (transferProcess == null || transferProcess.getState() > TransferProcessStates.STARTED.code()) {
+                // e.g. the provider no longer accepts the agreement, negotiate a new one on the next run
+                this.refusedAgreements.add(contractId);
+                throw new EdpException("Transfer process " + transferProcessId + " did not start");
+            }
+            if (transferProcess.getState() != TransferProcessStates.STARTED.code()) {
+                return null;
+            }
+            this.transferProcessIndex.add(transferProcess);
+            return contractId;
+        }, Instant.now().plus(this.timeout));
+    }
+
+    /**
+     * Polls the condition on the scheduler until it yields a non-null value or
+     * the deadline passes, without blocking a thread while waiting.
+     */
+    private <T> CompletableFuture<T> poll(Supplier<T> condition, Instant deadline) {
+        var future = new CompletableFuture<T>();
+        schedulePoll(condition, deadline, future);
+        return future;
+    }
+
+    private <T> void schedulePoll(Supplier<T> condition, Instant deadline, CompletableFuture<T> future) {
+        this.scheduler.schedule(() -> {
+            try {
+                var value = condition.get();
+                if (value != null) {
+                    future.complete(value);
+                } else if (Instant.now().isAfter(deadline)) {
+                    future.completeExceptionally(new EdpException("Timed out waiting for provider"));
+                } else {
+                    schedulePoll(condition, deadline, future);
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void updateStatus(Provider provider, String contractId, String state, String message) {
+        this.status.put(provider.name(),
+                new ProviderStatusDto(provider.name(), provider.assetId(), contractId, state, message));
+    }
+
+    /**
+     * Stops the warm-up scheduler.
+     */
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Configuration of a provider to warm up.
+     */
+    private record Provider(String name, String address, String providerId, String assetId, String protocol) {
+
+        static Provider fromConfig(String name) {
+            var prefix = "edp.warmup." + name;
+            return new Provider(name,
+                    ConfigurationUtils.readStringProperty(prefix, "address"),
+                    ConfigurationUtils.readStringProperty(prefix, "provider.id"),
+                    ConfigurationUtils.readStringProperty(prefix, "asset.id"),
+                    ConfigurationUtils.readStringProperty(prefix, "protocol", DEFAULT_PROTOCOL));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.EdpSettings;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter for the EDP endpoints. Every endpoint has one
+ * bucket per API caller and one per contract; a request is admitted only if
+ * both buckets have a token left. Limits default to the values declared on the
+ * endpoint and can be overridden per endpoint with
+ * {@code edp.ratelimit.<endpoint>.caller.per.minute},
+ * {@code edp.ratelimit.<endpoint>.caller.burst} and the corresponding
+ * {@code contract} settings. {@code edp.ratelimit.enabled=false} disables
+ * limiting.
+ * <p>
+ * Buckets are kept in the generic cell rate form: a single atomic "theoretical
+ * arrival time" per bucket, advanced by compare-and-set, so admission takes no
+ * locks. Once {@code edp.ratelimit.max.buckets} is reached, full buckets are
+ * swept, at most once per second; if the limit is still reached, requests that
+ * would need a new bucket are rejected until buckets become full again.
+ */
+public class RateLimiter {
+
+    public static final String SCOPE_CALLER = "caller";
+    public static final String SCOPE_CONTRACT = "contract";
+    private static final long DEFAULT_MAX_BUCKETS = 10_000;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Monitor logger;
+    private final long maxBuckets;
+    private volatile Limits limits = new Limits(null, Map.of());
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    /**
+     * Constructs an instance of RateLimiter.
+     */
+    public RateLimiter() {
+        this.logger = LoggingUtils.getLogger();
+        this.maxBuckets = ConfigurationUtils.readLongProperty("edp.ratelimit", "max.buckets", DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Tries to take a token for a request to the endpoint.
+     *
+     * @param endpoint          the name of the endpoint.
+     * @param callerId          the API caller.
+     * @param contractId        the contract of the request, or null if unknown.
+     * @param defaultPerMinute  the default sustained rate of the endpoint.
+     * @param defaultBurst      the default burst of the endpoint.
+     * @return the decision, describing the most exhausted bucket.
+     */
+    public Decision acquire(String endpoint, String callerId, String contractId, long defaultPerMinute,
+            long defaultBurst) {
+        var settings = ConfigurationUtils.getSettings();
+        if (!settings.rateLimitEnabled()) {
+            return Decision.UNLIMITED;
+        }
+
+        var limits = limitsOf(settings);
+        var now = System.nanoTime();
+        var decision = take(settings, limits, endpoint, SCOPE_CALLER, callerId, defaultPerMinute, defaultBurst, now);
+        if (decision.allowed() && contractId != null && !contractId.isBlank()) {
+            var contractDecision = take(settings, limits, endpoint, SCOPE_CONTRACT, contractId, defaultPerMinute,
+                    defaultBurst, now);
+            if (!contractDecision.allowed() || contractDecision.remaining() < decision.remaining()) {
+                decision = contractDecision;
+            }
+        }
+        if (!decision.allowed()) {
+            this.logger.debug(String.format("Rate limit of %s exceeded for %s", endpoint, callerId));
+        }
+        return decision;
+    }
+
+    /**
+     * Gets the limits resolved from the given settings snapshot, starting over
+     * when the configuration was reloaded. Existing buckets keep their state
+     * and apply the new limits from their next request on.
+     */
+    private Map<String, Limit> limitsOf(EdpSettings settings) {
+        var current = this.limits;
+        if (current.settings() != settings) {
+            current = new Limits(settings, new ConcurrentHashMap<>());
+            this.limits = current;
+        }
+        return current.byEndpoint();
+    }
+
+    private Decision take(EdpSettings settings, Map<String, Limit> limits, String endpoint, String scope,
+            String key, long defaultPerMinute, long defaultBurst, long now) {
+        var limit = limits.computeIfAbsent(endpoint + "." + scope,
+                name -> Limit.configured(settings, endpoint, scope, defaultPerMinute, defaultBurst));
+        if (limit.unlimited()) {
+            return Decision.UNLIMITED;
+        }
+        var name = endpoint + "|" + scope + "|" + key;
+        var bucket = this.buckets.get(name);
+        if (bucket == null) {
+            if (this.buckets.size() >= this.maxBuckets && !sweepFullBuckets(now)) {
+                this.logger.debug("Rate limiter is tracking " + this.maxBuckets + " buckets, rejecting new key");
+                return new Decision(false, limit.burst(), 0, 1, 1);
+            }
+            bucket = this.buckets.computeIfAbsent(name, ignored -> new TokenBucket());
+        }
+        return bucket.take(limit, now);
+    }
+
+    /**
+     * Drops the full buckets, unless another sweep ran less than a second ago.
+     *
+     * @return whether there is room for a new bucket afterwards.
+     */
+    private boolean sweepFullBuckets(long now) {
+        var last = this.lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && this.lastSweep.compareAndSet(last, now)) {
+            this.buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        return this.buckets.size() < this.maxBuckets;
+    }
+
+    /**
+     * Outcome of a rate limit check.
+     *
+     * @param allowed           whether the request is admitted.
+     * @param limit             the burst size of the bucket.
+     * @param remaining         the tokens left in the bucket.
+     * @param resetSeconds      the seconds until the bucket is full again.
+     * @param retryAfterSeconds the seconds until the next token, if rejected.
+     */
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+
+        static final Decision UNLIMITED = new Decision(true, -1, -1, 0, 0);
+
+        /**
+         * Tells whether the request was checked against a bucket.
+         *
+         * @return false if no limit applies to the request
+         */
+        public boolean limited() {
+            return this.limit >= 0;
+        }
+    }
+
+    private record Limits(EdpSettings settings, Map<String, Limit> byEndpoint) {
+    }
+
+    private record Limit(long emissionIntervalNanos, long burst) {
+
+        static Limit configured(EdpSettings settings, String endpoint, String scope, long defaultPerMinute,
+                long defaultBurst) {
+            var key = "edp.ratelimit." + endpoint + "." + scope;
+            var perMinute = settings.getLong(key + ".per.minute", defaultPerMinute);
+            var burst = settings.getLong(key + ".burst", defaultBurst);
+            if (perMinute <= 0) {
+                return new Limit(0, 0);
+            }
+            return new Limit(TimeUnit.MINUTES.toNanos(1) / perMinute, Math.max(1, burst));
+        }
+
+        boolean unlimited() {
+            return this.emissionIntervalNanos <= 0;
+        }
+    }
+
+    /**
+     * Token bucket of {@code burst} tokens refilled one per emission interval.
+     * Instead of the token count, the time at which the bucket would be full
+     * again is stored ({@code tat}); taking a token pushes it one interval
+     * further, and a request is rejected if that would put it more than
+     * {@code burst} intervals ahead of now.
+     */
+    private static final class TokenBucket {
+
+        private final AtomicLong tat = new AtomicLong(System.nanoTime());
+
+        Decision take(Limit limit, long now) {
+            var interval = limit.emissionIntervalNanos();
+            var capacity = interval * limit.burst();
+            while (true) {
+                var current = this.tat.get();
+                var next = Math.max(current, now) + interval;
+                var ahead = next - now;
+                if (ahead > capacity) {
+                    var retryAfter = ahead - capacity;
+                    var reset = Math.max(0, current - now);
+                    return new Decision(false, limit.burst(), 0, toSeconds(reset), toSeconds(retryAfter));
+                }
+                if (this.tat.compareAndSet(current, next)) {
+                    var remaining = (capacity - ahead) / interval;
+                    return new Decision(true, limit.burst(), remaining, toSeconds(ahead), 0);
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return this.tat.get() <= now;
+        }
+
+        private static long toSeconds(long nanos) {
+            return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+}
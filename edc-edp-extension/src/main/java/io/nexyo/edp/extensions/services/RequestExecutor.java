@@ -0,0 +1,131 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.dtos.internal.GenericResponseDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.exceptions.EdpExceptionMapper;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.ExecutorFactory;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import io.nexyo.edp.extensions.utils.TracingUtils;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking work of the EDP endpoints (outbound EDPS/Daseen calls, EDR
+ * lookups, asset updates) on an extension-owned executor, so Jersey worker
+ * threads are released while a remote is slow. Every request is bounded by
+ * {@code edp.request.timeout.seconds}; exceptions are mapped to responses here,
+ * because they arrive wrapped in a {@link CompletionException}.
+ * <p>
+ * At most {@code edp.request.threads} requests run at a time (default 16, or
+ * 1024 on virtual threads, which cost next to nothing while blocked); up to
+ * {@code edp.request.queue.size} more wait, further requests are rejected.
+ */
+public class RequestExecutor {
+
+    private static final long DEFAULT_THREADS = 16;
+    private static final long DEFAULT_VIRTUAL_THREADS = 1024;
+    private static final long DEFAULT_QUEUE_SIZE = 256;
+    private static final long DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private final Monitor logger;
+    private final EdpExceptionMapper exceptionMapper = new EdpExceptionMapper();
+    private final ExecutorService executor;
+    private final Semaphore admissions;
+    private final long timeoutSeconds;
+
+    /**
+     * Constructs an instance of RequestExecutor.
+     */
+    public RequestExecutor() {
+        this.logger = LoggingUtils.getLogger();
+        var threads = (int) Math.max(1, ConfigurationUtils.readLongProperty("edp.request", "threads",
+                ExecutorFactory.isVirtual() ? DEFAULT_VIRTUAL_THREADS : DEFAULT_THREADS));
+        var queueSize = (int) Math.max(1, ConfigurationUtils.readLongProperty("edp.request", "queue.size",
+                DEFAULT_QUEUE_SIZE));
+        this.timeoutSeconds = ConfigurationUtils.readLongProperty("edp.request", "timeout.seconds",
+                DEFAULT_TIMEOUT_SECONDS);
+        this.executor = ExecutorFactory.newIoExecutor("edp-request", threads);
+        this.admissions = new Semaphore(threads + queueSize);
+    }
+
+    /**
+     * Runs the handler on the request executor.
+     *
+     * @param handler the blocking request handler.
+     * @return a stage completing with the handler's response, or with an error
+     *         response if the handler failed, timed out or could not be queued.
+     */
+    public CompletionStage<Response> submit(Supplier<Response> handler) {
+        if (!this.admissions.tryAcquire()) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+        var span = TracingUtils.current();
+        CompletableFuture<Response> future;
+        try {
+            future = CompletableFuture.supplyAsync(handler, this.executor);
+        } catch (RejectedExecutionException e) {
+            this.admissions.release();
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+        // the executor carries the request span on; the container thread must not keep it
+        TracingUtils.detach(span);
+        future.whenComplete((response, throwable) -> this.admissions.release());
+        if (this.timeoutSeconds > 0) {
+            future = future.orTimeout(this.timeoutSeconds, TimeUnit.SECONDS);
+        }
+        return future.exceptionally(this::toResponse);
+    }
+
+    private Response toResponse(Throwable throwable) {
+        var cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof TimeoutException) {
+            this.logger.warning("EDP request timed out after " + this.timeoutSeconds + " seconds");
+            return error(Response.Status.GATEWAY_TIMEOUT,
+                    "Request timed out after " + this.timeoutSeconds + " seconds");
+        }
+        if (cause instanceof EdpException edpException) {
+            return this.exceptionMapper.toResponse(edpException);
+        }
+        if (cause instanceof WebApplicationException webApplicationException) {
+            return webApplicationException.getResponse();
+        }
+        this.logger.severe("Unexpected error handling EDP request", cause);
+        return error(Response.Status.INTERNAL_SERVER_ERROR, cause.getMessage());
+    }
+
+    private Response tooManyRequests() {
+        return error(Response.Status.SERVICE_UNAVAILABLE, "Too many concurrent requests, try again later");
+    }
+
+    private Response error(Response.Status status, String message) {
+        return Response.status(status)
+                .entity(new GenericResponseDto(message, Status.FAILED))
+                .build();
+    }
+
+    /**
+     * Stops the request executor.
+     */
+    public void close() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.utils.Span;
+import io.nexyo.edp.extensions.utils.TracingUtils;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+
+import java.util.function.Supplier;
+
+/**
+ * Records a client span for every outbound request of a client and passes
+ * the trace on in the W3C {@code traceparent} header. The response filter
+ * does not run if the request fails before a response arrives, e.g. on a
+ * timeout or a refused connection, so synchronous calls go through
+ * {@link #invoke(Supplier)}, which ends the span with the error.
+ */
+public class TracingClientFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String SPAN_PROPERTY = TracingClientFilter.class.getName() + ".span";
+    // span of the synchronous request in flight on this thread
+    private static final ThreadLocal<Span> IN_FLIGHT = new ThreadLocal<>();
+
+    private final String remote;
+
+    /**
+     * Constructs an instance of TracingClientFilter.
+     *
+     * @param remote the name of the called service, used in the span names.
+     */
+    public TracingClientFilter(String remote) {
+        this.remote = remote;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        var uri = requestContext.getUri();
+        var span = TracingUtils.startSpan(this.remote + " " + requestContext.getMethod(), Span.Kind.CLIENT)
+                .setAttribute("http.method", requestContext.getMethod())
+                .setAttribute("http.url", uri.getScheme() + "://" + uri.getAuthority() + uri.getPath())
+                .setAttribute("peer.service", this.remote);
+        var traceparent = span.traceparent();
+        if (traceparent != null) {
+            requestContext.getHeaders().putSingle(TracingUtils.TRACEPARENT, traceparent);
+        }
+        requestContext.setProperty(SPAN_PROPERTY, span);
+        IN_FLIGHT.set(span);
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        if (requestContext.getProperty(SPAN_PROPERTY) instanceof Span span) {
+            span.setAttribute("http.status_code", responseContext.getStatus());
+            if (responseContext.getStatus() >= 400) {
+                span.setError("HTTP " + responseContext.getStatus());
+            }
+            span.end();
+            if (IN_FLIGHT.get() == span) {
+                IN_FLIGHT.remove();
+            }
+        }
+    }
+
+    /**
+     * Performs a synchronous request and ends its span with an error if the
+     * request fails without a response.
+     *
+     * @param invocation the request
+     * @param <T>        the type of the response
+     * @return the response
+     */
+    public static <T> T invoke(Supplier<T> invocation) {
+        IN_FLIGHT.remove();
+        try {
+            return invocation.get();
+        } catch (RuntimeException e) {
+            var span = IN_FLIGHT.get();
+            if (span != null) {
+                span.recordError(e);
+                span.end();
+            }
+            throw e;
+        } finally {
+            IN_FLIGHT.remove();
+        }
+    }
+}
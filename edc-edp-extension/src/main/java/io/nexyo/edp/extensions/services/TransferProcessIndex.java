@@ -0,0 +1,156 @@
+package io.nexyo.edp.extensions.services;
+
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.connector.controlplane.services.spi.transferprocess.TransferProcessService;
+import org.eclipse.edc.connector.controlplane.transfer.spi.observe.TransferProcessListener;
+import org.eclipse.edc.connector.controlplane.transfer.spi.observe.TransferProcessStartedData;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcess;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.eclipse.edc.spi.query.Criterion.criterion;
+
+/**
+ * In-memory index of STARTED transfer processes per contract ID. The index is
+ * rebuilt from the transfer process store on boot and kept up to date through
+ * transfer process events, so lookups do not depend on the transfer history.
+ */
+public class TransferProcessIndex implements TransferProcessListener {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final Monitor logger;
+    private final TransferProcessService transferProcessService;
+    private final Map<String, Map<String, TransferProcess>> startedByContract = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance of TransferProcessIndex.
+     *
+     * @param transferProcessService the service used to rebuild the index.
+     */
+    public TransferProcessIndex(TransferProcessService transferProcessService) {
+        this.logger = LoggingUtils.getLogger();
+        this.transferProcessService = transferProcessService;
+    }
+
+    /**
+     * Rebuilds the index from all STARTED transfer processes in the store.
+     */
+    public void rebuild() {
+        this.startedByContract.clear();
+        var offset = 0;
+        var indexed = 0;
+        while (true) {
+            var querySpec = QuerySpec.Builder.newInstance()
+                    .filter(criterion("state", "=", TransferProcessStates.STARTED.code()))
+                    .offset(offset)
+                    .limit(PAGE_SIZE)
+                    .build();
+            var page = this.transferProcessService.search(querySpec);
+            if (page.failed()) {
+                this.logger.warning("Could not rebuild transfer process index: " + page.getFailureDetail());
+                return;
+            }
+
+            var transferProcesses = page.getContent();
+            transferProcesses.forEach(this::add);
+            indexed += transferProcesses.size();
+            if (transferProcesses.size() < PAGE_SIZE) {
+                break;
+            }
+            offset += PAGE_SIZE;
+        }
+        this.logger.info("Transfer process index rebuilt with " + indexed + " started transfer processes");
+    }
+
+    /**
+     * Retrieves the newest STARTED transfer process for a given contract ID, so
+     * a renewed transfer process takes over as soon as it is started.
+     *
+     * @param contractId the contract ID.
+     * @return the transfer process, or empty if none is started.
+     */
+    public Optional<TransferProcess> findStarted(String contractId) {
+        var started = this.startedByContract.get(contractId);
+        if (started == null) {
+            return Optional.empty();
+        }
+        return started.values().stream()
+                .max(Comparator.comparing(TransferProcess::getStateTimestamp));
+    }
+
+    /**
+     * Retrieves the IDs of all contracts that currently have a STARTED transfer
+     * process.
+     *
+     * @return the contract IDs.
+     */
+    public Set<String> contractIds() {
+        return Set.copyOf(this.startedByContract.keySet());
+    }
+
+    /**
+     * Adds a transfer process to the index if it is in the STARTED state.
+     *
+     * @param transferProcess the transfer process.
+     */
+    public void add(TransferProcess transferProcess) {
+        if (transferProcess.getState() != TransferProcessStates.STARTED.code()
+                || transferProcess.getContractId() == null) {
+            return;
+        }
+        // inserted within compute, so a concurrent remove cannot drop the map in between
+        this.startedByContract.compute(transferProcess.getContractId(), (contractId, started) -> {
+            var map = started == null ? new ConcurrentHashMap<String, TransferProcess>() : started;
+            map.put(transferProcess.getId(), transferProcess);
+            return map;
+        });
+    }
+
+    /**
+     * Removes a transfer process from the index.
+     *
+     * @param transferProcess the transfer process.
+     */
+    public void remove(TransferProcess transferProcess) {
+        if (transferProcess.getContractId() == null) {
+            return;
+        }
+        this.startedByContract.computeIfPresent(transferProcess.getContractId(), (contractId, started) -> {
+            started.remove(transferProcess.getId());
+            return started.isEmpty() ? null : started;
+        });
+    }
+
+    @Override
+    public void started(TransferProcess process, TransferProcessStartedData additionalData) {
+        add(process);
+    }
+
+    @Override
+    public void completed(TransferProcess process) {
+        remove(process);
+    }
+
+    @Override
+    public void suspended(TransferProcess process) {
+        remove(process);
+    }
+
+    @Override
+    public void terminated(TransferProcess process) {
+        remove(process);
+    }
+
+    @Override
+    public void deprovisioned(TransferProcess process) {
+        remove(process);
+    }
+}
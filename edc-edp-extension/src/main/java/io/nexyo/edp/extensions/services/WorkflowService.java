@@ -0,0 +1,327 @@
+package io.nexyo.edp.extensions.services;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nexyo.edp.extensions.dtos.internal.EdpsJobDto;
+import io.nexyo.edp.extensions.dtos.internal.EdpsResultRequestDto;
+import io.nexyo.edp.extensions.dtos.internal.Status;
+import io.nexyo.edp.extensions.dtos.internal.WorkflowDto;
+import io.nexyo.edp.extensions.dtos.internal.WorkflowRequestDto;
+import io.nexyo.edp.extensions.dtos.internal.WorkflowStep;
+import io.nexyo.edp.extensions.exceptions.EdpException;
+import io.nexyo.edp.extensions.utils.ConfigurationUtils;
+import io.nexyo.edp.extensions.utils.EdpSettings;
+import io.nexyo.edp.extensions.utils.ExecutorFactory;
+import io.nexyo.edp.extensions.utils.LoggingUtils;
+import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs the chain "analyse with EDPS, fetch the result, publish it to Daseen"
+ * for an asset on the server. The chain is a table of steps, each with its
+ * successor, delay and timeout; a step is retried until its action reports it
+ * complete. EDPS job and result availability are polled here rather
+ * than by the client. The workflow is stored on the analysed asset after every
+ * step, so running workflows are resumed after a restart. The scheduler only
+ * times the steps; the steps themselves run on an I/O executor, so a slow EDPS
+ * call does not hold up the workflows of other assets.
+ */
+public class WorkflowService {
+
+    public static final String WORKFLOW_KEY = "edp_workflow";
+    private static final String EDPS_STATE_COMPLETED = "COMPLETED";
+    private static final String EDPS_STATE_FAILED = "FAILED";
+    private static final int PAGE_SIZE = 100;
+    private static final long DEFAULT_CONCURRENCY = 8;
+    private static final String CALLBACK_INFO = "Check specified dataplane-callback address for updates.";
+
+    private final Monitor logger;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final EdpsService edpsService;
+    private final AssetHelperService assetHelperService;
+    private final ContentDigestService contentDigestService;
+    private final DaseenBulkService daseenBulkService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "edp-workflow");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService stepExecutor;
+    private final Map<WorkflowStep, Step> steps = new EnumMap<>(WorkflowStep.class);
+
+    /**
+     * Constructs an instance of WorkflowService.
+     *
+     * @param edpsService          the service talking to EDPS.
+     * @param assetHelperService   the helper used to store workflows and jobs.
+     * @param contentDigestService the service checking that the result arrived.
+     * @param daseenBulkService    the service publishing the result to Daseen.
+     */
+    public WorkflowService(EdpsService edpsService, AssetHelperService assetHelperService,
+            ContentDigestService contentDigestService, DaseenBulkService daseenBulkService) {
+        this.logger = LoggingUtils.getLogger();
+        this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.edpsService = edpsService;
+        this.assetHelperService = assetHelperService;
+        this.contentDigestService = contentDigestService;
+        this.daseenBulkService = daseenBulkService;
+        this.stepExecutor = ExecutorFactory.newIoExecutor("edp-workflow-step",
+                (int) ConfigurationUtils.readLongProperty("edp.workflow", "concurrency", DEFAULT_CONCURRENCY));
+
+        this.steps.put(WorkflowStep.CREATE_JOB, new Step(this::createJob, WorkflowStep.AWAIT_JOB, true, null));
+        this.steps.put(WorkflowStep.AWAIT_JOB, new Step(this::awaitJob, WorkflowStep.FETCH_RESULT, false,
+                EdpSettings::workflowJobTimeout));
+        this.steps.put(WorkflowStep.FETCH_RESULT, new Step(this::fetchResult, WorkflowStep.AWAIT_RESULT, true,
+                null));
+        this.steps.put(WorkflowStep.AWAIT_RESULT, new Step(this::awaitResult, WorkflowStep.PUBLISH, false,
+                EdpSettings::workflowResultTimeout));
+        this.steps.put(WorkflowStep.PUBLISH, new Step(this::publish, WorkflowStep.DONE, false, null));
+    }
+
+    /**
+     * Resumes all workflows that were running when the connector stopped.
+     */
+    public void start() {
+        this.scheduler.execute(() -> {
+            var resumed = 0;
+            var offset = 0;
+            while (true) {
+                List<Asset> assets;
+                try {
+                    assets = this.assetHelperService.findPage(offset, PAGE_SIZE);
+                } catch (EdpException e) {
+                    this.logger.warning("Could not resume workflows: " + e.getMessage());
+                    return;
+                }
+                for (var asset : assets) {
+                    var workflow = this.assetHelperService.read(asset, WORKFLOW_KEY, WorkflowDto.class);
+                    if (workflow.isPresent() && workflow.get().isRunning()) {
+                        schedule(asset.getId(), 0);
+                        resumed++;
+                    }
+                }
+                if (assets.size() < PAGE_SIZE) {
+                    break;
+                }
+                offset += PAGE_SIZE;
+            }
+            this.logger.info("Resumed " + resumed + " EDP workflows");
+        });
+    }
+
+    /**
+     * Starts a workflow for the given asset.
+     *
+     * @param assetId the asset to analyse.
+     * @param request the workflow request.
+     * @return the started workflow, or empty if a workflow is already running
+     *         for the asset.
+     */
+    public synchronized Optional<WorkflowDto> startWorkflow(String assetId, WorkflowRequestDto request) {
+        if (find(assetId).filter(WorkflowDto::isRunning).isPresent()) {
+            return Optional.empty();
+        }
+
+        var workflow = new WorkflowDto(assetId, request);
+        this.assetHelperService.persist(assetId, WORKFLOW_KEY, workflow);
+        this.logger.info(String.format("Started EDP workflow %s for asset %s", workflow.getUuid(), assetId));
+        schedule(assetId, 0);
+        return Optional.of(workflow);
+    }
+
+    /**
+     * Retrieves the workflow of the given asset.
+     *
+     * @param assetId the asset ID.
+     * @return the workflow, or empty if none was started.
+     */
+    public Optional<WorkflowDto> find(String assetId) {
+        return this.assetHelperService.load(assetId, WORKFLOW_KEY, WorkflowDto.class);
+    }
+
+    private void schedule(String assetId, long delaySeconds) {
+        this.scheduler.schedule(() -> this.stepExecutor.execute(() -> advance(assetId)), delaySeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Executes the current step of the asset's workflow, stores the outcome and
+     * schedules the next step.
+     */
+    private void advance(String assetId) {
+        Optional<WorkflowDto> loaded;
+        try {
+            loaded = find(assetId);
+        } catch (RuntimeException e) {
+            this.logger.warning("Could not load workflow of asset " + assetId + ": " + e.getMessage());
+            return;
+        }
+        if (loaded.isEmpty() || !loaded.get().isRunning()) {
+            return;
+        }
+
+        var workflow = loaded.get();
+        long delay;
+        try {
+            delay = execute(workflow);
+        } catch (RuntimeException e) {
+            this.logger.warning(String.format("EDP workflow for asset %s failed at step %s: %s", assetId,
+                    workflow.getStep(), e.getMessage()));
+            workflow.fail(e.getMessage());
+            delay = 0;
+        }
+
+        this.assetHelperService.persist(assetId, WORKFLOW_KEY, workflow);
+        if (workflow.isRunning()) {
+            schedule(assetId, delay);
+        }
+    }
+
+    /**
+     * Executes the current step once.
+     *
+     * @return the delay in seconds before the next step is executed.
+     */
+    private long execute(WorkflowDto workflow) {
+        var step = this.steps.get(workflow.getStep());
+        if (step == null) {
+            return 0;
+        }
+        var settings = ConfigurationUtils.getSettings();
+        if (step.action().test(workflow)) {
+            workflow.moveTo(step.next());
+            return step.pollAfter() ? settings.workflowPollSeconds() : 0;
+        }
+        if (step.timeout() != null) {
+            checkTimeout(workflow, step.timeout().apply(settings));
+        }
+        return settings.workflowPollSeconds();
+    }
+
+    /**
+     * Creates the EDPS job and sends the analysis data. The request is recorded
+     * on the workflow before EDPS is called, so a workflow resumed after a crash
+     * adopts the job stored on the asset instead of creating a second one, or
+     * fails if it cannot tell whether EDPS created one.
+     */
+    private boolean createJob(WorkflowDto workflow) {
+        var assetId = workflow.getAssetId();
+        var stored = this.assetHelperService.load(assetId, AssetHelperService.EDPS_JOB_KEY, EdpsJobDto.class);
+        var storedJobId = stored.map(EdpsJobDto::getJobId).orElse(null);
+
+        EdpsJobDto edpsJobDto;
+        if (workflow.getJobRequestedAt() == 0) {
+            workflow.setPriorJobId(storedJobId);
+            workflow.setJobRequestedAt(System.currentTimeMillis());
+            this.assetHelperService.persist(assetId, WORKFLOW_KEY, workflow);
+
+            var edpsJobResponseDto = this.edpsService.createEdpsJob(assetId, workflow.getEdpsContractId());
+            edpsJobDto = this.mapper.convertValue(edpsJobResponseDto, EdpsJobDto.class);
+            edpsJobDto.setAssetId(assetId);
+            edpsJobDto.setDetails("Posting analysis data to EDPS initiated. " + CALLBACK_INFO);
+            edpsJobDto.setContractId(workflow.getEdpsContractId());
+            this.assetHelperService.persist(assetId, AssetHelperService.EDPS_JOB_KEY, edpsJobDto);
+        } else if (storedJobId != null && !storedJobId.equals(workflow.getPriorJobId())) {
+            this.logger.info(String.format("Resuming EDP workflow for asset %s with EDPS job %s", assetId,
+                    storedJobId));
+            edpsJobDto = stored.get();
+        } else {
+            throw new EdpException("EDPS job creation was interrupted, the job may exist in EDPS without being"
+                    + " recorded. Check EDPS before starting the workflow again.");
+        }
+        workflow.setJobId(edpsJobDto.getJobId());
+
+        this.edpsService.sendAnalysisData(edpsJobDto);
+        return true;
+    }
+
+    private boolean awaitJob(WorkflowDto workflow) {
+        var edpsJobDto = loadJob(workflow);
+        var edpsJobResponseDto = this.edpsService.getEdpsJobStatus(edpsJobDto.getJobId(),
+                edpsJobDto.getContractId());
+        edpsJobDto.setState(edpsJobResponseDto.state());
+        edpsJobDto.setDetails(edpsJobResponseDto.details());
+        this.assetHelperService.persist(workflow.getAssetId(), AssetHelperService.EDPS_JOB_KEY, edpsJobDto);
+
+        if (EDPS_STATE_FAILED.equals(edpsJobResponseDto.state())) {
+            throw new EdpException("EDPS job " + edpsJobDto.getJobId() + " failed: " + edpsJobResponseDto.details());
+        }
+        return EDPS_STATE_COMPLETED.equals(edpsJobResponseDto.state());
+    }
+
+    /**
+     * Records the digest of whatever the result asset currently points to and
+     * starts the transfer of the EDPS result.
+     */
+    private boolean fetchResult(WorkflowDto workflow) {
+        workflow.setResultBaseline(this.contentDigestService.digest(workflow.getResultAssetId()).orElse(null));
+        this.edpsService.fetchEdpsJobResult(loadJob(workflow),
+                new EdpsResultRequestDto(workflow.getDestinationAddress(), false));
+        return true;
+    }
+
+    /**
+     * Waits until the dataplane delivered the EDPS result to the destination
+     * address, i.e. the result asset's digest differs from the one recorded
+     * before the result was fetched. A result left by an earlier run is thus
+     * not published again. The result location must answer HEAD requests with
+     * an ETag or Last-Modified, otherwise the step times out.
+     */
+    private boolean awaitResult(WorkflowDto workflow) {
+        return this.contentDigestService.digest(workflow.getResultAssetId())
+                .filter(digest -> !digest.equals(workflow.getResultBaseline()))
+                .isPresent();
+    }
+
+    private boolean publish(WorkflowDto workflow) {
+        var result = this.daseenBulkService.publishAll(workflow.getDaseenContractId(),
+                List.of(workflow.getResultAssetId())).get(0);
+        if (result.status() != Status.OK) {
+            throw new EdpException("Publishing to Daseen failed: " + result.message());
+        }
+        workflow.setDaseenResourceId(result.resourceId());
+        this.logger.info(String.format("EDP workflow for asset %s completed", workflow.getAssetId()));
+        return true;
+    }
+
+    private EdpsJobDto loadJob(WorkflowDto workflow) {
+        return this.assetHelperService.load(workflow.getAssetId(), AssetHelperService.EDPS_JOB_KEY, EdpsJobDto.class)
+                .orElseThrow(() -> new EdpException("No Job found for asset: " + workflow.getAssetId()));
+    }
+
+    private void checkTimeout(WorkflowDto workflow, Duration timeout) {
+        if (System.currentTimeMillis() - workflow.getStepStartedAt() > timeout.toMillis()) {
+            throw new EdpException("Timed out in step " + workflow.getStep());
+        }
+    }
+
+    /**
+     * Stops the workflow scheduler and step executor. Running workflows are
+     * resumed on the next start.
+     */
+    public void close() {
+        this.scheduler.shutdownNow();
+        this.stepExecutor.shutdownNow();
+    }
+
+    /**
+     * A workflow step: the action, which returns true once the step is complete,
+     * the step that follows, whether to wait one poll interval before it and how
+     * long the action may keep returning false.
+     */
+    private record Step(Predicate<WorkflowDto> action, WorkflowStep next, boolean pollAfter,
+            Function<EdpSettings, Duration> timeout) {
+    }
+}
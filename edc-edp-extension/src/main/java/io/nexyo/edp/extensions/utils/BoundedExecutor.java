@@ -0,0 +1,123 @@
+package io.nexyo.edp.extensions.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs every task on a delegate executor, but lets at most {@code permits} of
+ * them proceed at a time. Waiting tasks park their own (virtual) thread instead
+ * of being queued. The class only depends on the JDK, so the benchmarks in
+ * {@code util/benchmarks} can run it without the connector.
+ */
+public final class BoundedExecutor extends AbstractExecutorService {
+
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = lookupVirtualExecutor();
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final UnaryOperator<Runnable> decorator;
+
+    /**
+     * Constructs an instance of BoundedExecutor.
+     *
+     * @param delegate  the executor running the tasks.
+     * @param permits   the maximum number of tasks running at a time.
+     * @param decorator applied to every task on the submitting thread, e.g. to
+     *                  carry the current span.
+     */
+    public BoundedExecutor(ExecutorService delegate, int permits, UnaryOperator<Runnable> decorator) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(Math.max(1, permits));
+        this.decorator = decorator;
+    }
+
+    /**
+     * Tells whether the runtime provides virtual threads (Java 21+).
+     *
+     * @return true if virtual threads are supported.
+     */
+    public static boolean supportsVirtualThreads() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for every task.
+     *
+     * @return the executor, or empty if the runtime has no virtual threads.
+     */
+    public static Optional<ExecutorService> newVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}, which is
+     * only available from Java 21 on, while the extension is built for Java 17.
+     */
+    private static MethodHandle lookupVirtualExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        var task = this.decorator.apply(command);
+        this.delegate.execute(() -> {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                this.permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return this.delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -1,52 +1,81 @@
 package io.nexyo.edp.extensions.utils;
 
-import org.eclipse.edc.boot.config.ConfigurationLoader;
-import org.eclipse.edc.boot.config.EnvironmentVariables;
-import org.eclipse.edc.boot.config.SystemProperties;
-import org.eclipse.edc.boot.system.ServiceLocatorImpl;
 import org.eclipse.edc.spi.EdcException;
-import org.eclipse.edc.spi.system.configuration.Config;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
- * Utility class for loading the configuration.
+ * Utility class for reading the configuration. The settings are resolved once
+ * from the {@link ServiceExtensionContext} into an immutable
+ * {@link EdpSettings} snapshot, which is published through a volatile
+ * reference, so reads take no locks. If the configuration is loaded from a
+ * properties file ({@code edc.fs.config}), the file is watched and a new
+ * snapshot is published when it changes, unless
+ * {@code edp.config.watch=false}.
  */
 public class ConfigurationUtils {
 
-    private static Config config;
     public static final String EDR_PROPERTY_EDPS_BASE_URL_KEY = "https://w3id.org/edc/v0.0.1/ns/endpoint";
     public static final String EDR_PROPERTY_EDPS_AUTH_KEY = "https://w3id.org/edc/v0.0.1/ns/authorization";
+    public static final String FS_CONFIG_KEY = "edc.fs.config";
+
+    private static volatile EdpSettings settings;
+    private static volatile SettingsWatcher watcher;
 
     /**
      * Private constructor to prevent instantiation.
      */
     private ConfigurationUtils() {
+        throw new IllegalStateException("Utility class");
+    }
 
+    /**
+     * Resolves the settings from the context and starts watching the
+     * configuration file, if any.
+     *
+     * @param context the service extension context
+     */
+    public static void initialize(ServiceExtensionContext context) {
+        var initial = new EdpSettings(context.getConfig().getEntries());
+        settings = initial;
+
+        var configFile = initial.getString(FS_CONFIG_KEY, null);
+        var watch = Boolean.parseBoolean(initial.getString("edp.config.watch", "true"));
+        if (configFile == null || !watch) {
+            return;
+        }
+        try {
+            watcher = new SettingsWatcher(Path.of(configFile), initial, ConfigurationUtils::publish);
+        } catch (IOException e) {
+            LoggingUtils.getLogger().warning("Cannot watch configuration file " + configFile
+                    + ", settings will not be reloaded", e);
+        }
     }
 
     /**
-     * Loads the configuration.
+     * Stops watching the configuration file.
      */
-    public static synchronized void loadConfig() {
-        var configurationLoader = new ConfigurationLoader(
-                new ServiceLocatorImpl(),
-                EnvironmentVariables.ofDefault(),
-                SystemProperties.ofDefault());
-
-        var logger = LoggingUtils.getLogger();
-        config = configurationLoader.loadConfiguration(logger);
+    public static void close() {
+        var current = watcher;
+        watcher = null;
+        if (current != null) {
+            current.close();
+        }
     }
 
     /**
-     * Gets the configuration.
-     *
+     * Gets the current settings snapshot.
      *
-     * @return the configuration
+     * @return the settings
      */
-    public static synchronized Config getConfig() {
-        if (config == null) {
-            loadConfig();
+    public static EdpSettings getSettings() {
+        var current = settings;
+        if (current == null) {
+            throw new IllegalStateException("Configuration not initialized. Call initialize() first.");
         }
-        return config;
+        return current;
     }
 
     /**
@@ -58,14 +87,45 @@ public class ConfigurationUtils {
      * @return the property value
      */
     public static String readStringProperty(String key, String propertyName) {
-        if (config == null) {
-            loadConfig();
-        }
+        return getSettings().getString(name(key, propertyName));
+    }
+
+    /**
+     * Reads a string property from the configuration, falling back to a default
+     * value if the property is not set.
+     *
+     * @param key          the key
+     * @param propertyName the property name
+     * @param defaultValue the value returned if the property is not set
+     * @return the property value
+     */
+    public static String readStringProperty(String key, String propertyName, String defaultValue) {
+        return getSettings().getString(name(key, propertyName), defaultValue);
+    }
+
+    /**
+     * Reads a long property from the configuration, falling back to a default
+     * value if the property is not set.
+     *
+     * @param key          the key
+     * @param propertyName the property name
+     * @param defaultValue the value returned if the property is not set
+     * @return the property value
+     */
+    public static long readLongProperty(String key, String propertyName, long defaultValue) {
+        return getSettings().getLong(name(key, propertyName), defaultValue);
+    }
+
+    private static void publish(EdpSettings reloaded) {
+        settings = reloaded;
+        LoggingUtils.getLogger().info("Configuration reloaded");
+    }
+
+    private static String name(String key, String propertyName) {
         if (key == null || propertyName == null) {
             throw new EdcException("Key and propertyName cannot be null");
         }
-
-        return config.getConfig(key).getString(propertyName);
+        return key + "." + propertyName;
     }
 
 }
@@ -0,0 +1,72 @@
+package io.nexyo.edp.extensions.utils;
+
+import io.nexyo.edp.extensions.dtos.internal.Versioned;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Utility class for conditional GET requests on versioned records.
+ */
+public class ETagUtils {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ETagUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Computes the ETag of a record from its UUID and version.
+     *
+     * @param record the record
+     * @return the ETag
+     */
+    public static EntityTag entityTag(Versioned record) {
+        return new EntityTag(record.getUuid() + "-" + record.getVersion());
+    }
+
+    /**
+     * Builds the response for a conditional GET of the record: 304 without a
+     * body if the client's {@code If-None-Match} header matches the record's
+     * ETag, otherwise 200 with the record. Both carry the ETag.
+     *
+     * @param record      the record
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, may be
+     *                    null
+     * @return the response
+     */
+    public static Response conditionalOk(Versioned record, String ifNoneMatch) {
+        var entityTag = entityTag(record);
+        if (matches(ifNoneMatch, entityTag)) {
+            return Response.notModified(entityTag).build();
+        }
+        return Response.ok(record).tag(entityTag).build();
+    }
+
+    /**
+     * Checks whether an {@code If-None-Match} header matches the ETag, using the
+     * weak comparison required for this header.
+     */
+    private static boolean matches(String ifNoneMatch, EntityTag entityTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            var value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.equals(entityTag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,247 @@
+package io.nexyo.edp.extensions.utils;
+
+import org.eclipse.edc.spi.EdcException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the extension's settings. A snapshot is never changed
+ * once built; a configuration reload publishes a new one, so it can be read
+ * from any thread without locking.
+ * <p>
+ * The settings with a typed getter are parsed once per snapshot and read by
+ * their consumers on every use, so they take effect on reload. All other
+ * settings (thread pools, intervals, cache sizes) are read when the extension
+ * starts and require a restart.
+ */
+public final class EdpSettings {
+
+    public static final String DASEEN_API_KEY = "edp.daseen.api.key";
+    public static final String DATAPLANE_CALLBACK_URL = "edp.dataplane.callback.url";
+    public static final String RATE_LIMIT_ENABLED = "edp.ratelimit.enabled";
+    public static final String RATE_LIMIT_CALLER_HEADER = "edp.ratelimit.caller.header";
+    public static final String RATE_LIMIT_TRUSTED_PROXIES = "edp.ratelimit.trusted.proxies";
+    public static final String IDEMPOTENCY_TTL_SECONDS = "edp.idempotency.ttl.seconds";
+    public static final String RECONCILIATION_REPAIR = "edp.daseen.reconciliation.repair";
+    public static final String WORKFLOW_POLL_SECONDS = "edp.workflow.poll.seconds";
+    public static final String WORKFLOW_JOB_TIMEOUT_SECONDS = "edp.workflow.job.timeout.seconds";
+    public static final String WORKFLOW_RESULT_TIMEOUT_SECONDS = "edp.workflow.result.timeout.seconds";
+    public static final String EDPS_RESULT_MAX_SIZE = "edp.edps.result.register.max.size";
+
+    private final Map<String, String> entries;
+    private final String daseenApiKey;
+    private final String dataplaneCallbackUrl;
+    private final boolean rateLimitEnabled;
+    private final String rateLimitCallerHeader;
+    private final Set<String> rateLimitTrustedProxies;
+    private final Duration idempotencyTtl;
+    private final boolean reconciliationRepair;
+    private final long workflowPollSeconds;
+    private final Duration workflowJobTimeout;
+    private final Duration workflowResultTimeout;
+    private final long edpsResultMaxSize;
+
+    /**
+     * Constructs a snapshot of the given entries.
+     *
+     * @param entries the settings, keyed by their full name
+     */
+    public EdpSettings(Map<String, String> entries) {
+        this.entries = Map.copyOf(withoutNullValues(entries));
+        this.daseenApiKey = this.entries.get(DASEEN_API_KEY);
+        this.dataplaneCallbackUrl = this.entries.get(DATAPLANE_CALLBACK_URL);
+        this.rateLimitEnabled = Boolean.parseBoolean(getString(RATE_LIMIT_ENABLED, "true"));
+        this.rateLimitCallerHeader = getString(RATE_LIMIT_CALLER_HEADER, "X-Api-Key");
+        this.rateLimitTrustedProxies = Arrays.stream(getString(RATE_LIMIT_TRUSTED_PROXIES, "").split(","))
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.idempotencyTtl = Duration.ofSeconds(getLong(IDEMPOTENCY_TTL_SECONDS, 3600));
+        this.reconciliationRepair = Boolean.parseBoolean(getString(RECONCILIATION_REPAIR, "false"));
+        this.workflowPollSeconds = Math.max(1, getLong(WORKFLOW_POLL_SECONDS, 5));
+        this.workflowJobTimeout = Duration.ofSeconds(getLong(WORKFLOW_JOB_TIMEOUT_SECONDS, 3600));
+        this.workflowResultTimeout = Duration.ofSeconds(getLong(WORKFLOW_RESULT_TIMEOUT_SECONDS, 600));
+        this.edpsResultMaxSize = getLong(EDPS_RESULT_MAX_SIZE, 64 * 1024);
+    }
+
+    /**
+     * Gets all settings of the snapshot.
+     *
+     * @return the settings, keyed by their full name
+     */
+    public Map<String, String> entries() {
+        return entries;
+    }
+
+    /**
+     * Gets the API key used to publish to Daseen.
+     *
+     * @return the API key
+     * @throws EdcException if {@value #DASEEN_API_KEY} is not set
+     */
+    public String daseenApiKey() {
+        return required(DASEEN_API_KEY, daseenApiKey);
+    }
+
+    /**
+     * Gets the URL the data plane reports transfer results to.
+     *
+     * @return the callback URL
+     * @throws EdcException if {@value #DATAPLANE_CALLBACK_URL} is not set
+     */
+    public String dataplaneCallbackUrl() {
+        return required(DATAPLANE_CALLBACK_URL, dataplaneCallbackUrl);
+    }
+
+    /**
+     * Tells whether the EDP endpoints are rate limited.
+     *
+     * @return the value of {@value #RATE_LIMIT_ENABLED}, true by default
+     */
+    public boolean rateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+
+    /**
+     * Gets the header identifying the API caller for rate limiting.
+     *
+     * @return the value of {@value #RATE_LIMIT_CALLER_HEADER}, X-Api-Key by
+     *         default
+     */
+    public String rateLimitCallerHeader() {
+        return rateLimitCallerHeader;
+    }
+
+    /**
+     * Gets the addresses of the proxies whose X-Forwarded-For header is
+     * trusted.
+     *
+     * @return the addresses listed in {@value #RATE_LIMIT_TRUSTED_PROXIES}
+     */
+    public Set<String> rateLimitTrustedProxies() {
+        return rateLimitTrustedProxies;
+    }
+
+    /**
+     * Gets how long idempotency keys are kept.
+     *
+     * @return the value of {@value #IDEMPOTENCY_TTL_SECONDS}, one hour by
+     *         default
+     */
+    public Duration idempotencyTtl() {
+        return idempotencyTtl;
+    }
+
+    /**
+     * Tells whether scheduled Daseen reconciliations repair the drift they
+     * find.
+     *
+     * @return the value of {@value #RECONCILIATION_REPAIR}, false by default
+     */
+    public boolean reconciliationRepair() {
+        return reconciliationRepair;
+    }
+
+    /**
+     * Gets the delay between the polls of a waiting workflow step.
+     *
+     * @return the value of {@value #WORKFLOW_POLL_SECONDS}, at least 1
+     */
+    public long workflowPollSeconds() {
+        return workflowPollSeconds;
+    }
+
+    /**
+     * Gets how long a workflow waits for its EDPS job.
+     *
+     * @return the value of {@value #WORKFLOW_JOB_TIMEOUT_SECONDS}, one hour by
+     *         default
+     */
+    public Duration workflowJobTimeout() {
+        return workflowJobTimeout;
+    }
+
+    /**
+     * Gets how long a workflow waits for the EDPS result to arrive.
+     *
+     * @return the value of {@value #WORKFLOW_RESULT_TIMEOUT_SECONDS}, ten
+     *         minutes by default
+     */
+    public Duration workflowResultTimeout() {
+        return workflowResultTimeout;
+    }
+
+    /**
+     * Gets the maximum size of an EDPS result entry registered on the asset.
+     *
+     * @return the value of {@value #EDPS_RESULT_MAX_SIZE} in bytes
+     */
+    public long edpsResultMaxSize() {
+        return edpsResultMaxSize;
+    }
+
+    /**
+     * Gets a string setting.
+     *
+     * @param name the full name of the setting
+     * @return the value
+     * @throws EdcException if the setting is not set
+     */
+    public String getString(String name) {
+        return required(name, entries.get(name));
+    }
+
+    /**
+     * Gets a string setting, falling back to a default value if it is not set.
+     *
+     * @param name         the full name of the setting
+     * @param defaultValue the value returned if the setting is not set
+     * @return the value
+     */
+    public String getString(String name, String defaultValue) {
+        return entries.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Gets a long setting, falling back to a default value if it is not set.
+     *
+     * @param name         the full name of the setting
+     * @param defaultValue the value returned if the setting is not set
+     * @return the value
+     * @throws EdcException if the value is not a number
+     */
+    public long getLong(String name, long defaultValue) {
+        var value = entries.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new EdcException(String.format("Setting %s with value %s cannot be converted to long", name,
+                    value));
+        }
+    }
+
+    private static String required(String name, String value) {
+        if (value == null) {
+            throw new EdcException(String.format("No setting found for key %s", name));
+        }
+        return value;
+    }
+
+    private static Map<String, String> withoutNullValues(Map<String, String> entries) {
+        var copy = new HashMap<String, String>();
+        entries.forEach((name, value) -> {
+            if (name != null && value != null) {
+                copy.put(name, value);
+            }
+        });
+        return copy;
+    }
+}
@@ -0,0 +1,70 @@
+package io.nexyo.edp.extensions.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utility class creating the executors for blocking outbound I/O (EDPS and
+ * Daseen calls, EDR lookups, dataplane dispatch).
+ * <p>
+ * With {@code edp.executor.type=virtual} every task runs on its own virtual
+ * thread when the runtime provides them (Java 21+); otherwise, and with
+ * {@code edp.executor.type=platform}, a fixed pool of daemon platform threads is
+ * used. The type defaults to {@code virtual} on runtimes with virtual threads
+ * and to {@code platform} on older ones. Both variants run at most {@code maxConcurrency} tasks at a time, and
+ * run every task in the trace of the thread that submitted it.
+ */
+public class ExecutorFactory {
+
+    public static final String TYPE_VIRTUAL = "virtual";
+    public static final String TYPE_PLATFORM = "platform";
+    private static volatile Boolean virtual;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ExecutorFactory() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Creates an executor for blocking I/O tasks.
+     *
+     * @param name           the name of the platform threads.
+     * @param maxConcurrency the maximum number of tasks running at a time.
+     * @return the executor.
+     */
+    public static ExecutorService newIoExecutor(String name, int maxConcurrency) {
+        var concurrency = Math.max(1, maxConcurrency);
+        if (isVirtual()) {
+            var virtualExecutor = BoundedExecutor.newVirtualThreadExecutor().orElseThrow();
+            return new BoundedExecutor(virtualExecutor, concurrency, TracingUtils::wrap);
+        }
+        return new BoundedExecutor(Executors.newFixedThreadPool(concurrency, runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }), concurrency, TracingUtils::wrap);
+    }
+
+    /**
+     * Tells whether I/O executors run their tasks on virtual threads.
+     *
+     * @return true if virtual threads are configured and supported.
+     */
+    public static boolean isVirtual() {
+        if (virtual == null) {
+            var defaultType = BoundedExecutor.supportsVirtualThreads() ? TYPE_VIRTUAL : TYPE_PLATFORM;
+            var type = ConfigurationUtils.readStringProperty("edp.executor", "type", defaultType);
+            var useVirtual = TYPE_VIRTUAL.equalsIgnoreCase(type) && BoundedExecutor.supportsVirtualThreads();
+            if (TYPE_VIRTUAL.equalsIgnoreCase(type) && !useVirtual) {
+                LoggingUtils.getLogger().warning("Virtual threads are not supported by Java "
+                        + Runtime.version().feature() + ", falling back to platform threads");
+            } else if (!TYPE_VIRTUAL.equalsIgnoreCase(type) && !TYPE_PLATFORM.equalsIgnoreCase(type)) {
+                LoggingUtils.getLogger().warning("Unknown edp.executor.type '" + type + "', using platform threads");
+            }
+            virtual = useVirtual;
+        }
+        return virtual;
+    }
+}
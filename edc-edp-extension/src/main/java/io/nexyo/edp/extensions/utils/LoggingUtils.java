@@ -3,11 +3,12 @@ package io.nexyo.edp.extensions.utils;
 import org.eclipse.edc.spi.monitor.Monitor;
 
 /**
- * Utility class for logging.
+ * Utility class for logging. The logger is published through a volatile
+ * reference, so it can be read without locking.
  */
 public class LoggingUtils {
 
-    private static Monitor logger;
+    private static volatile Monitor logger;
 
     /**
      * Private constructor to prevent instantiation.
@@ -22,7 +23,7 @@ public class LoggingUtils {
      *
      * @param monitor the monitor
      */
-    public static synchronized void setLogger(Monitor monitor) {
+    public static void setLogger(Monitor monitor) {
         logger = monitor;
     }
 
@@ -32,10 +33,11 @@ public class LoggingUtils {
      *
      * @return the logger
      */
-    public static synchronized Monitor getLogger() {
-        if (logger == null) {
+    public static Monitor getLogger() {
+        var current = logger;
+        if (current == null) {
             throw new IllegalStateException("Logger not initialized. Call setLogger() first.");
         }
-        return logger;
+        return current;
     }
 }
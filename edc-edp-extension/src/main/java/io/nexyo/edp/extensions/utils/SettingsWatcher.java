@@ -0,0 +1,112 @@
+package io.nexyo.edp.extensions.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Watches the configuration properties file and publishes a new settings
+ * snapshot whenever it changes. Settings that were overridden by environment
+ * variables or system properties at startup keep their overridden value.
+ */
+class SettingsWatcher {
+
+    private final Path file;
+    private final Map<String, String> overrides;
+    private final Consumer<EdpSettings> publisher;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching the file.
+     *
+     * @param file      the properties file the configuration was loaded from
+     * @param initial   the settings resolved at startup
+     * @param publisher receives the reloaded settings
+     * @throws IOException if the file cannot be read or watched
+     */
+    SettingsWatcher(Path file, EdpSettings initial, Consumer<EdpSettings> publisher) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.publisher = publisher;
+        this.overrides = overrides(initial.entries(), load(this.file));
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "edp-config-watch");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    void close() {
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            LoggingUtils.getLogger().warning("Failed to close configuration file watcher", e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                var key = this.watchService.take();
+                var changed = key.pollEvents().stream()
+                        .anyMatch(event -> this.file.getFileName().equals(event.context()));
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // watcher closed on shutdown
+        }
+    }
+
+    private void reload() {
+        try {
+            var entries = load(this.file);
+            entries.putAll(this.overrides);
+            this.publisher.accept(new EdpSettings(entries));
+        } catch (IOException | RuntimeException e) {
+            LoggingUtils.getLogger().warning("Failed to reload configuration file " + this.file
+                    + ", keeping the current settings", e);
+        }
+    }
+
+    /**
+     * Finds the settings whose value did not come from the file.
+     */
+    private static Map<String, String> overrides(Map<String, String> resolved, Map<String, String> fromFile) {
+        var overrides = new HashMap<String, String>();
+        resolved.forEach((name, value) -> {
+            if (!Objects.equals(fromFile.get(name), value)) {
+                overrides.put(name, value);
+            }
+        });
+        return overrides;
+    }
+
+    private static Map<String, String> load(Path file) throws IOException {
+        var properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        var entries = new HashMap<String, String>();
+        properties.stringPropertyNames().forEach(name -> entries.put(name, properties.getProperty(name)));
+        return entries;
+    }
+}
@@ -0,0 +1,158 @@
+package io.nexyo.edp.extensions.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed operation of a trace, identified like a W3C trace context: a
+ * 16-byte trace ID shared by all spans of the trace and an 8-byte span ID,
+ * both hex encoded. Spans are created through {@link TracingUtils}.
+ */
+public final class Span {
+
+    /**
+     * The role of a span, with its OTLP value.
+     */
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3);
+
+        private final int otlpValue;
+
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+
+        /**
+         * Gets the value of the kind in the OTLP format.
+         *
+         * @return the OTLP value
+         */
+        public int otlpValue() {
+            return otlpValue;
+        }
+    }
+
+    static final Span NOOP = new Span(null, null, null, "noop", Kind.INTERNAL);
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile long endEpochNanos;
+    private volatile String errorMessage;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, Kind kind) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.startNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Adds an attribute to the span.
+     *
+     * @param key   the attribute name
+     * @param value the attribute value; null values are ignored
+     * @return this span
+     */
+    public Span setAttribute(String key, Object value) {
+        if (isRecording() && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed.
+     *
+     * @param error the error that made the operation fail
+     */
+    public void recordError(Throwable error) {
+        setError(error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    /**
+     * Marks the span as failed.
+     *
+     * @param message the reason of the failure
+     */
+    public void setError(String message) {
+        if (isRecording()) {
+            errorMessage = message;
+        }
+    }
+
+    /**
+     * Ends the span and hands it to the exporter. Further calls are ignored.
+     */
+    public void end() {
+        if (isRecording() && ended.compareAndSet(false, true)) {
+            endEpochNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+            TracingUtils.export(this);
+        }
+    }
+
+    /**
+     * Formats the span as W3C {@code traceparent} header value, so a remote
+     * party can continue the trace.
+     *
+     * @return the header value, or null if tracing is disabled
+     */
+    public String traceparent() {
+        return isRecording() ? "00-" + traceId + "-" + spanId + "-01" : null;
+    }
+
+    boolean isRecording() {
+        return traceId != null;
+    }
+
+    String traceId() {
+        return traceId;
+    }
+
+    String spanId() {
+        return spanId;
+    }
+
+    String parentSpanId() {
+        return parentSpanId;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+
+    Map<String, Object> attributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.nexyo.edp.extensions.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports ended spans in the OTLP/JSON format, in batches of up to
+ * {@value #MAX_BATCH_SIZE} spans, from a background thread. A batch is written
+ * as one line to the file {@code edp.tracing.export.file}, and/or posted to
+ * the OTLP/HTTP collector endpoint {@code edp.tracing.export.endpoint} (e.g.
+ * {@code http://localhost:4318/v1/traces}). Spans arriving while
+ * {@code edp.tracing.queue.size} spans are waiting are dropped.
+ */
+public class SpanExporter {
+
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final String SERVICE_NAME = "edp-extension";
+    private static final String SCOPE_NAME = "io.nexyo.edp.extensions";
+
+    private final Monitor logger;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path file;
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final BlockingQueue<Span> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs an instance of SpanExporter.
+     *
+     * @param file      the file to append the batches to, may be null
+     * @param endpoint  the OTLP/HTTP traces endpoint, may be null
+     * @param queueSize the maximum number of spans waiting for export
+     */
+    public SpanExporter(Path file, URI endpoint, int queueSize) {
+        this.logger = LoggingUtils.getLogger();
+        this.file = file;
+        this.endpoint = endpoint;
+        this.httpClient = endpoint == null ? null
+                : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.worker = new Thread(this::run, "edp-span-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues an ended span for export.
+     *
+     * @param span the span
+     */
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Exports the queued spans and stops the exporter.
+     */
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        var batch = new ArrayList<Span>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                var span = queue.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (span != null) {
+                    batch.add(span);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Span> batch) {
+        var droppedSpans = dropped.getAndSet(0);
+        if (droppedSpans > 0) {
+            logger.warning(String.format("Dropped %d spans, the export queue was full", droppedSpans));
+        }
+        String json;
+        try {
+            json = mapper.writeValueAsString(toOtlp(batch));
+        } catch (JsonProcessingException e) {
+            logger.warning("Failed to serialize spans", e);
+            return;
+        }
+        if (file != null) {
+            try {
+                Files.writeString(file, json + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.warning("Failed to write spans to " + file, e);
+            }
+        }
+        if (endpoint != null) {
+            post(json);
+        }
+    }
+
+    private void post(String json) {
+        var request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                logger.warning(String.format("Trace collector %s answered with status %d", endpoint,
+                        response.statusCode()));
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to send spans to " + endpoint + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds an OTLP {@code ExportTraceServiceRequest}.
+     */
+    private Map<String, Object> toOtlp(List<Span> batch) {
+        var spans = new ArrayList<Map<String, Object>>(batch.size());
+        for (var span : batch) {
+            var otlpSpan = new LinkedHashMap<String, Object>();
+            otlpSpan.put("traceId", span.traceId());
+            otlpSpan.put("spanId", span.spanId());
+            if (span.parentSpanId() != null) {
+                otlpSpan.put("parentSpanId", span.parentSpanId());
+            }
+            otlpSpan.put("name", span.name());
+            otlpSpan.put("kind", span.kind().otlpValue());
+            otlpSpan.put("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+            otlpSpan.put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+            otlpSpan.put("attributes", attributes(span.attributes()));
+            otlpSpan.put("status", span.errorMessage() == null ? Map.of("code", 1)
+                    : Map.of("code", 2, "message", span.errorMessage()));
+            spans.add(otlpSpan);
+        }
+        var resource = Map.of("attributes", attributes(Map.of("service.name", SERVICE_NAME)));
+        var scopeSpans = Map.of("scope", Map.of("name", SCOPE_NAME), "spans", spans);
+        return Map.of("resourceSpans", List.of(Map.of("resource", resource, "scopeSpans", List.of(scopeSpans))));
+    }
+
+    private static List<Map<String, Object>> attributes(Map<String, Object> attributes) {
+        var otlpAttributes = new ArrayList<Map<String, Object>>(attributes.size());
+        attributes.forEach((key, value) -> otlpAttributes.add(Map.of("key", key, "value", value(value))));
+        return otlpAttributes;
+    }
+
+    private static Map<String, Object> value(Object value) {
+        if (value instanceof Boolean) {
+            return Map.of("boolValue", value);
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return Map.of("intValue", value.toString());
+        }
+        if (value instanceof Number) {
+            return Map.of("doubleValue", value);
+        }
+        return Map.of("stringValue", value.toString());
+    }
+}
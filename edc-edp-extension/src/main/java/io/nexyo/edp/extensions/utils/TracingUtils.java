@@ -0,0 +1,210 @@
+package io.nexyo.edp.extensions.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for tracing the EDP pipeline. The span of the running
+ * operation is kept per thread; new spans become its children, and tasks
+ * submitted to the I/O executors inherit it (see {@link #wrap(Runnable)}).
+ * Remote parties continue the trace through the W3C {@code traceparent}
+ * header, which is sent with the EDPS and Daseen requests and the data flow
+ * start messages.
+ * <p>
+ * Ended spans are handed to the {@link SpanExporter}, if one is set.
+ * {@code edp.tracing.enabled=false} disables tracing.
+ */
+public class TracingUtils {
+
+    public static final String TRACEPARENT = "traceparent";
+    private static final Pattern TRACEPARENT_PATTERN = Pattern.compile(
+            "00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static volatile boolean enabled = true;
+    private static volatile SpanExporter exporter;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TracingUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Configures tracing.
+     *
+     * @param tracingEnabled whether spans are created
+     * @param spanExporter   the exporter of ended spans, may be null
+     */
+    public static void configure(boolean tracingEnabled, SpanExporter spanExporter) {
+        enabled = tracingEnabled;
+        exporter = spanExporter;
+    }
+
+    /**
+     * Starts a span as child of the current span, or as root of a new trace.
+     * The span does not become current.
+     *
+     * @param name the name of the operation
+     * @param kind the role of the span
+     * @return the started span
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        var parent = current();
+        if (parent.isRecording()) {
+            return new Span(parent.traceId(), newId(8), parent.spanId(), name, kind);
+        }
+        return startSpan(name, kind, null);
+    }
+
+    /**
+     * Starts a span continuing the trace of a remote caller.
+     *
+     * @param name        the name of the operation
+     * @param kind        the role of the span
+     * @param traceparent the caller's {@code traceparent} header, may be null
+     * @return the started span, the root of a new trace if the header is
+     *         missing or invalid
+     */
+    public static Span startSpan(String name, Span.Kind kind, String traceparent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        var matcher = traceparent == null ? null : TRACEPARENT_PATTERN.matcher(traceparent.trim());
+        if (matcher != null && matcher.matches() && !INVALID_TRACE_ID.equals(matcher.group(1))
+                && !INVALID_SPAN_ID.equals(matcher.group(2))) {
+            return new Span(matcher.group(1), newId(8), matcher.group(2), name, kind);
+        }
+        return new Span(newId(16), newId(8), null, name, kind);
+    }
+
+    /**
+     * Gets the span of the running operation.
+     *
+     * @return the current span, a non-recording span if there is none
+     */
+    public static Span current() {
+        var span = CURRENT.get();
+        return span == null ? Span.NOOP : span;
+    }
+
+    /**
+     * Makes the span current on this thread.
+     *
+     * @param span the span
+     * @return the previously current span, to be passed to {@link #restore}
+     */
+    public static Span makeCurrent(Span span) {
+        var previous = CURRENT.get();
+        CURRENT.set(span);
+        return previous;
+    }
+
+    /**
+     * Restores the span that was current before {@link #makeCurrent}.
+     *
+     * @param previous the previously current span, may be null
+     */
+    public static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Removes the span from this thread if it is current, e.g. once its work
+     * was handed to another thread.
+     *
+     * @param span the span
+     */
+    public static void detach(Span span) {
+        if (CURRENT.get() == span) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Runs an operation in a new child span, which is current while the
+     * operation runs and marked as failed if it throws.
+     *
+     * @param name      the name of the operation
+     * @param kind      the role of the span
+     * @param operation the operation, receiving the span
+     * @param <T>       the type of the result
+     * @return the result of the operation
+     */
+    public static <T> T call(String name, Span.Kind kind, Function<Span, T> operation) {
+        var span = startSpan(name, kind);
+        var previous = makeCurrent(span);
+        try {
+            return operation.apply(span);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            restore(previous);
+            span.end();
+        }
+    }
+
+    /**
+     * Runs an operation without result in a new child span, see
+     * {@link #call}.
+     *
+     * @param name      the name of the operation
+     * @param kind      the role of the span
+     * @param operation the operation, receiving the span
+     */
+    public static void run(String name, Span.Kind kind, Consumer<Span> operation) {
+        call(name, kind, span -> {
+            operation.accept(span);
+            return null;
+        });
+    }
+
+    /**
+     * Binds a task to the current span, so it runs as part of the current
+     * trace on whichever thread executes it.
+     *
+     * @param task the task
+     * @return the bound task
+     */
+    public static Runnable wrap(Runnable task) {
+        var span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            var previous = makeCurrent(span);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static void export(Span span) {
+        var current = exporter;
+        if (current != null) {
+            current.export(span);
+        }
+    }
+
+    private static String newId(int bytes) {
+        var random = ThreadLocalRandom.current();
+        var id = new StringBuilder(bytes * 2);
+        for (var i = 0; i < bytes; i++) {
+            var value = random.nextInt(256);
+            id.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xf, 16));
+        }
+        return id.toString();
+    }
+}
@@ -9,6 +9,7 @@ public interface NexyoEdpsConstants {
     String NEXYO_SPACE_MEMBERSHIP_CONSTRAINT_KEY = "nexyo:spaceMembership";
 
     String NEXYO_SPACE_MEMBERSHIPS_AGENT_ATTRIBUTE = "spaceMemberships";
+    String NEXYO_SPACE_MEMBERSHIPS_UNVERIFIED_AGENT_ATTRIBUTE = "spaceMembershipsUnverified"; // data spaces whose membership check did not finish in time, they are not granted
 
     String DATA_SPACE_MEMBERSHIP_FILE_PATH = "/app/space-memberships.txt";
 }
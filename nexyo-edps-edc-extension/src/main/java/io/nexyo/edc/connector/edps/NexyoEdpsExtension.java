@@ -20,11 +20,16 @@ import io.nexyo.edc.connector.edps.handlers.policy.SpaceMembershipConstraintFunc
 import io.nexyo.edc.connector.edps.ports.http.DataSpaceApiController;
 import io.nexyo.edc.connector.edps.ports.http.DidDocumentApiController;
 import io.nexyo.edc.connector.edps.services.config.ConfigService;
+import io.nexyo.edc.connector.edps.services.executor.IoExecutorFactory;
 import io.nexyo.edc.connector.edps.services.iam.dataspace.DataSpaceService;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.MembershipVerdictCache;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.ParticipantSetCache;
 import io.nexyo.edc.connector.edps.services.iam.did.DecentralizedIdentityService;
+import io.nexyo.edc.connector.edps.services.iam.did.web.CachingDidResolver;
+import io.nexyo.edc.connector.edps.services.iam.did.web.WebDidUrlResolver;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
 import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
-import org.eclipse.edc.iam.did.web.resolution.WebDidResolver;
 import org.eclipse.edc.policy.engine.spi.PolicyEngine;
 import org.eclipse.edc.policy.engine.spi.RuleBindingRegistry;
 import org.eclipse.edc.policy.model.Permission;
@@ -43,9 +48,18 @@ import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.web.spi.WebService;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.*;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.DID_CACHE_MAX_ENTRIES;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.DID_CACHE_TTL;
 import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.DID_WEB_USE_HTTPS;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.MEMBERSHIP_CACHE_MAX_ENTRIES;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.MEMBERSHIP_CACHE_NEGATIVE_TTL;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.MEMBERSHIP_CACHE_POSITIVE_TTL;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.MEMBERSHIP_CHECK_MAX_CONCURRENCY;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.PARTICIPANT_CACHE_TTL;
 import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.VAULT_KEYPAIR_IDENTIFIER;
 import static org.eclipse.edc.policy.engine.spi.PolicyEngine.ALL_SCOPES;
 import static org.eclipse.edc.policy.model.OdrlNamespace.ODRL_SCHEMA;
@@ -79,7 +93,10 @@ public class NexyoEdpsExtension implements ServiceExtension {
     @Inject
     private PolicyDefinitionStore policyStore;
     private DecentralizedIdentityService identityService;
-    private WebDidResolver webDidResolver;
+    private CachingDidResolver webDidResolver;
+    private ExecutorService ioExecutor;
+    private ExecutorService membershipExecutor;
+    private NexyoLogger logger;
     @Inject
     private DidResolverRegistry resolverRegistry;
 
@@ -95,9 +112,18 @@ public class NexyoEdpsExtension implements ServiceExtension {
 
         var configService = new ConfigService(context);
         var mapper = typeManager.getMapper();
+        this.logger = new NexyoLogger(monitor, configService);
+        var executorFactory = new IoExecutorFactory(monitor, configService);
+        this.ioExecutor = executorFactory.create("nexyo-io");
+        // membership checks wait for tasks of the I/O executor, so they must not take its permits
+        this.membershipExecutor = executorFactory.create("nexyo-membership", Integer.parseInt(configService.getConfigValue(MEMBERSHIP_CHECK_MAX_CONCURRENCY, "16")));
 
         var useHttpsSchema = Boolean.parseBoolean(configService.getRequiredConfigValue(DID_WEB_USE_HTTPS));
-        this.webDidResolver = new WebDidResolver(httpClient, useHttpsSchema, mapper, monitor);
+        var didCacheTtl = Duration.ofSeconds(Long.parseLong(configService.getConfigValue(DID_CACHE_TTL, "300")));
+        var didCacheMaxEntries = Integer.parseInt(configService.getConfigValue(DID_CACHE_MAX_ENTRIES, "1000"));
+        this.webDidResolver = new CachingDidResolver(httpClient, new WebDidUrlResolver(useHttpsSchema, logger), mapper, logger, clock, ioExecutor, didCacheTtl, didCacheMaxEntries);
+        // replaces the uncached did:web resolver, so token verification uses the cache too
+        resolverRegistry.register(webDidResolver);
 
         monitor.info("registering did identity service");
         this.identityService = setupIdentityService(context);
@@ -107,21 +133,26 @@ public class NexyoEdpsExtension implements ServiceExtension {
 
         monitor.info("registering spaceMembershipParticipantAgentServiceExtension");
 
-        var dataSpaceService = new DataSpaceService(monitor, configService, webDidResolver, new NexyoHubInfoClient(httpClient, identityService, mapper, monitor));
-        var spaceMembershipParticipantAgentServiceExtension = new SpaceMembershipParticipantAgentServiceExtension(monitor, dataSpaceService, configService);
+        var verdictCache = new MembershipVerdictCache(clock,
+                Duration.ofSeconds(Long.parseLong(configService.getConfigValue(MEMBERSHIP_CACHE_POSITIVE_TTL, "300"))),
+                Duration.ofSeconds(Long.parseLong(configService.getConfigValue(MEMBERSHIP_CACHE_NEGATIVE_TTL, "30"))),
+                Integer.parseInt(configService.getConfigValue(MEMBERSHIP_CACHE_MAX_ENTRIES, "10000")), membershipExecutor);
+        var dataSpaceService = new DataSpaceService(logger, configService, webDidResolver, new NexyoHubInfoClient(httpClient, identityService, mapper, logger), ioExecutor, verdictCache,
+                new ParticipantSetCache(clock, Duration.ofSeconds(Long.parseLong(configService.getConfigValue(PARTICIPANT_CACHE_TTL, "60")))));
+        var spaceMembershipParticipantAgentServiceExtension = new SpaceMembershipParticipantAgentServiceExtension(logger, dataSpaceService, configService, membershipExecutor);
         participantAgentService.register(spaceMembershipParticipantAgentServiceExtension);
 
         monitor.info("registering did document api");
-        webService.registerResource(DID_API_ID, new DidDocumentApiController(monitor, identityService.generateDidDocument(), configService));
+        webService.registerResource(DID_API_ID, new DidDocumentApiController(logger, identityService.generateDidDocument(), configService));
 
         monitor.info("registering dataspace api endpoints to mgmt api");
 
-        webService.registerResource(MGMT_API_ID, new DataSpaceApiController(monitor, identityService, mapper, httpClient, webDidResolver, dataSpaceService));
+        webService.registerResource(MGMT_API_ID, new DataSpaceApiController(logger, identityService, mapper, httpClient, webDidResolver, dataSpaceService, ioExecutor));
 
         monitor.info("initializing nexyo DS membership policies ");
         ruleBindingRegistry.bind(ODRL_SCHEMA + "use", ALL_SCOPES);
         ruleBindingRegistry.bind(NEXYO_SPACE_MEMBERSHIP_CONSTRAINT_KEY, ALL_SCOPES);
-        policyEngine.registerFunction(ALL_SCOPES, Permission.class, NEXYO_SPACE_MEMBERSHIP_CONSTRAINT_KEY, new SpaceMembershipConstraintFunction(this.monitor));
+        policyEngine.registerFunction(ALL_SCOPES, Permission.class, NEXYO_SPACE_MEMBERSHIP_CONSTRAINT_KEY, new SpaceMembershipConstraintFunction(this.logger));
         monitor.info("nexyo Data Space Extension initialized");
     }
 
@@ -129,6 +160,15 @@ public class NexyoEdpsExtension implements ServiceExtension {
     @Override
     public void shutdown() {
         monitor.info("Shutting down nexyo HTTPTransferExtension");
+        if (membershipExecutor != null) {
+            membershipExecutor.shutdownNow();
+        }
+        if (ioExecutor != null) {
+            ioExecutor.shutdownNow();
+        }
+        if (logger != null) {
+            logger.close();
+        }
     }
 
     /*
@@ -140,6 +180,6 @@ public class NexyoEdpsExtension implements ServiceExtension {
         var configService = new ConfigService(context);
         var keypairIdentifier = configService.getRequiredConfigValue(VAULT_KEYPAIR_IDENTIFIER);
 
-        return new DecentralizedIdentityService(context, vault, monitor, clock, keypairIdentifier, this.webDidResolver, this.resolverRegistry);
+        return new DecentralizedIdentityService(context, vault, monitor, logger, clock, keypairIdentifier, this.webDidResolver, this.resolverRegistry);
     }
 }
@@ -23,5 +23,41 @@ public interface NexyoEdpsSettings {
     @Setting
     String DSP_CALLBACK_ADDRESS = "edc.dsp.callback.address"; // base url of your connector's dsp api
     @Setting
+    String DID_DOCUMENT_MAX_AGE = "edc.nexyodataspace.did.document.max.age.seconds"; // Cache-Control max-age of the served DID document
+    @Setting
     String DID_WEB_USE_HTTPS = "edc.iam.did.web.use.https"; // specifies wether to use https or http to resolve DIDs
+    @Setting
+    String EXECUTOR_TYPE = "edc.nexyodataspace.executor.type"; // "virtual" (default on Java 21+) or "platform" (default on older runtimes) threads for DID resolution and hub calls
+    @Setting
+    String EXECUTOR_MAX_CONCURRENCY = "edc.nexyodataspace.executor.max.concurrency"; // maximum number of concurrent DID resolutions and hub calls
+    @Setting
+    String LOG_LEVEL = "edc.nexyodataspace.log.level"; // level of the extension's own log events: debug, info (default), warning or severe
+    @Setting
+    String LOG_QUEUE_SIZE = "edc.nexyodataspace.log.queue.size"; // number of log events buffered for the background writer, further events are dropped
+    @Setting
+    String LOG_SAMPLE_RATE = "edc.nexyodataspace.log.sample.rate"; // log one of every n high-frequency debug events (per-membership checks, policy evaluations)
+    @Setting
+    String TOKEN_CACHE_REFRESH_SKEW = "edc.nexyodataspace.token.cache.refresh.skew.seconds"; // signed tokens are reused per audience until this many seconds before they expire
+    @Setting
+    String TOKEN_CACHE_MAX_AUDIENCES = "edc.nexyodataspace.token.cache.max.audiences"; // maximum number of audiences with a cached token
+    @Setting
+    String VERIFIED_TOKEN_CACHE_MAX_ENTRIES = "edc.nexyodataspace.token.verified.cache.max.entries"; // maximum number of verified inbound tokens remembered until they expire, 0 disables the cache
+    @Setting
+    String VERIFIER_CACHE_MAX_ENTRIES = "edc.nexyodataspace.token.verifier.cache.max.entries"; // maximum number of counterparty public keys kept as prepared signature verifiers
+    @Setting
+    String MEMBERSHIP_CHECK_TIMEOUT = "edc.nexyodataspace.membership.check.timeout.millis"; // deadline for checking all data space memberships of a counterparty on a DSP request
+    @Setting
+    String MEMBERSHIP_CHECK_MAX_CONCURRENCY = "edc.nexyodataspace.membership.check.max.concurrency"; // maximum number of concurrent membership checks
+    @Setting
+    String PARTICIPANT_CACHE_TTL = "edc.nexyodataspace.participants.cache.ttl.seconds"; // how long the participant list of a data space is kept before it is fetched again
+    @Setting
+    String MEMBERSHIP_CACHE_POSITIVE_TTL = "edc.nexyodataspace.membership.cache.positive.ttl.seconds"; // how long a confirmed data space membership of a connector is cached, 0 disables
+    @Setting
+    String MEMBERSHIP_CACHE_NEGATIVE_TTL = "edc.nexyodataspace.membership.cache.negative.ttl.seconds"; // how long a denied or failed membership check is cached, 0 disables
+    @Setting
+    String MEMBERSHIP_CACHE_MAX_ENTRIES = "edc.nexyodataspace.membership.cache.max.entries"; // maximum number of cached (connector, data space) verdicts
+    @Setting
+    String DID_CACHE_TTL = "edc.nexyodataspace.did.cache.ttl.seconds"; // how long a resolved DID document is cached if the server sends no Cache-Control max-age
+    @Setting
+    String DID_CACHE_MAX_ENTRIES = "edc.nexyodataspace.did.cache.max.entries"; // maximum number of cached DID documents, the least recently used are evicted
 }
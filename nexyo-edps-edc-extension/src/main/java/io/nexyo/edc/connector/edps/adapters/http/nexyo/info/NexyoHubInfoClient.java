@@ -2,13 +2,13 @@ package io.nexyo.edc.connector.edps.adapters.http.nexyo.info;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nexyo.edc.connector.edps.services.iam.did.DecentralizedIdentityService;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.http.EdcHttpClient;
 import org.eclipse.edc.spi.iam.TokenParameters;
-import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.result.Result;
 
 import java.io.IOException;
@@ -17,26 +17,25 @@ public class NexyoHubInfoClient {
     private final EdcHttpClient httpClient;
     private final DecentralizedIdentityService identityService;
     private final ObjectMapper mapper;
-    private final Monitor monitor;
+    private final NexyoLogger logger;
 
-    public NexyoHubInfoClient(EdcHttpClient httpClient, DecentralizedIdentityService identityService, ObjectMapper mapper, Monitor monitor) {
+    public NexyoHubInfoClient(EdcHttpClient httpClient, DecentralizedIdentityService identityService, ObjectMapper mapper, NexyoLogger logger) {
         this.httpClient = httpClient;
         this.identityService = identityService;
         this.mapper = mapper;
-        this.monitor = monitor;
+        this.logger = logger;
     }
 
     public Result<NexyoHubDataSpaceInfoResponse> getDataSpaceInfo(String dataSpaceInfoServiceEndpoint, String dataSpaceControllerDid) {
         Headers headers;
         try {
-            monitor.debug("generating headers");
             headers = generateBearerHeader(dataSpaceControllerDid);
         } catch (EdcException e) {
-            monitor.debug("Could not generate Bearer Header: " + e.getMessage());
+            logger.debug("hub.request.unauthorized", "audience", dataSpaceControllerDid, "reason", e.getMessage());
             return Result.failure("Could not generate Bearer Header: " + e.getMessage());
         }
 
-        monitor.debug("headers: " + headers);
+        logger.debug("hub.request", "endpoint", dataSpaceInfoServiceEndpoint, "audience", dataSpaceControllerDid);
 
         Request getDataSpaceInfoRequest;
         try {
@@ -82,14 +81,13 @@ public class NexyoHubInfoClient {
     public Result<NexyoHubConnectorsResponse> getHubConnectors(String connectorsServiceEndpoint, String hubDid) {
         Headers headers;
         try {
-            monitor.debug("generating headers");
             headers = generateBearerHeader(hubDid);
         } catch (EdcException e) {
-            monitor.debug("Could not generate Bearer Header: " + e.getMessage());
+            logger.debug("hub.request.unauthorized", "audience", hubDid, "reason", e.getMessage());
             return Result.failure("Could not generate Bearer Header: " + e.getMessage());
         }
 
-        monitor.debug("headers: " + headers);
+        logger.debug("hub.request", "endpoint", connectorsServiceEndpoint, "audience", hubDid);
 
         Request getHubConnectorsRequest;
         try {
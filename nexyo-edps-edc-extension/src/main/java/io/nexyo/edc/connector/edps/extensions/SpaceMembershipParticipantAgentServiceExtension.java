@@ -2,70 +2,118 @@ package io.nexyo.edc.connector.edps.extensions;
 
 import io.nexyo.edc.connector.edps.services.config.ConfigService;
 import io.nexyo.edc.connector.edps.services.iam.dataspace.DataSpaceService;
+import io.nexyo.edc.connector.edps.services.logging.LogSampler;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.spi.agent.ParticipantAgentServiceExtension;
 import org.eclipse.edc.spi.iam.ClaimToken;
-import org.eclipse.edc.spi.monitor.Monitor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.NEXYO_SPACE_MEMBERSHIPS_AGENT_ATTRIBUTE;
+import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.NEXYO_SPACE_MEMBERSHIPS_UNVERIFIED_AGENT_ATTRIBUTE;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.MEMBERSHIP_CHECK_TIMEOUT;
 
+/*
+ * Adds the data spaces the token issuer is verifiably a member of to the participant agent.
+ * The memberships are checked concurrently on the membership executor, within an overall deadline. A membership whose check has not finished at the deadline
+ * is not granted for this request but listed in the spaceMembershipsUnverified attribute; its check keeps running and the verdict cache answers the next request.
+ */
 public class SpaceMembershipParticipantAgentServiceExtension implements ParticipantAgentServiceExtension {
-    private final Monitor monitor;
+    private static final String DEFAULT_MEMBERSHIP_CHECK_TIMEOUT_MILLIS = "5000";
+
+    private final NexyoLogger logger;
+    private final LogSampler membershipCheckSampler;
     private final DataSpaceService dataSpaceService;
     private final ConfigService configService;
+    private final ExecutorService membershipExecutor;
+    private final long membershipCheckTimeoutNanos;
 
-    public SpaceMembershipParticipantAgentServiceExtension(Monitor monitor, DataSpaceService dataSpaceService, ConfigService configService) {
-        System.out.println("##### SpaceMembershipParticipantAgentServiceExtension constructor called");
-        this.monitor = monitor;
+    public SpaceMembershipParticipantAgentServiceExtension(NexyoLogger logger, DataSpaceService dataSpaceService, ConfigService configService, ExecutorService membershipExecutor) {
+        this.logger = logger;
+        this.membershipCheckSampler = logger.sampler();
         this.dataSpaceService = dataSpaceService;
         this.configService = configService;
+        this.membershipExecutor = membershipExecutor;
+        this.membershipCheckTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(configService.getConfigValue(MEMBERSHIP_CHECK_TIMEOUT, DEFAULT_MEMBERSHIP_CHECK_TIMEOUT_MILLIS)));
     }
 
     @Override
     public @NotNull Map<String, String> attributesFor(ClaimToken claimToken) {
-        monitor.debug("##### SpaceMembershipParticipantAgentServiceExtension.attributesFor called");
-        monitor.debug("claims: " + claimToken.getClaims().toString());
+        if (logger.isDebugEnabled()) {
+            // getClaims wraps the claims in a new view on every call
+            logger.debug("membership.attributes.requested", "claims", claimToken.getClaims());
+        }
 
         var attributes = new HashMap<String, String>();
         List<String> memberships;
         try {
             memberships = dataSpaceService.getMemberships();
         } catch (Exception e) {
-            monitor.warning("##### Exception thrown when getting data space memberships: " + e.getMessage());
+            logger.warning("Exception thrown when getting data space memberships: " + e.getMessage());
             return attributes;
         }
 
-        monitor.debug("##### memberships to check against: " + memberships.toString());
+        logger.debug("membership.attributes.memberships", "memberships", memberships);
 
         var tokenIssuerDID = claimToken.getClaims().get("client_id").toString();
         if (tokenIssuerDID.isEmpty()) {
-            monitor.debug("##### tokenIssuerDID is empty");
+            logger.debug("membership.attributes.skipped", "reason", "empty token issuer");
             return attributes;
         }
 
-        monitor.debug("##### tokenIssuerDID: " + tokenIssuerDID);
+        var deadline = System.nanoTime() + membershipCheckTimeoutNanos;
+        var checks = new LinkedHashMap<String, CompletableFuture<Boolean>>();
+        for (var dataSpaceDID : memberships) {
+            checks.put(dataSpaceDID, checkMembership(tokenIssuerDID, dataSpaceDID));
+        }
 
+        // the memberships are checked concurrently, so waiting takes as long as the slowest check, at most until the deadline
         var verifiedMemberships = new ArrayList<String>();
-        memberships.stream().forEach(dataSpaceDID -> {
-            monitor.debug("##### checking whether " + tokenIssuerDID + " is a member of data space " + dataSpaceDID);
-            var isMember = dataSpaceService.isConnectorDataSpaceMember(tokenIssuerDID, dataSpaceDID);
-
-            if (isMember) {
-                monitor.debug("##### " + tokenIssuerDID + " is a member of data space " + dataSpaceDID);
-                verifiedMemberships.add(dataSpaceDID);
-            } else {
-                monitor.debug("##### " + tokenIssuerDID + " is not a member of data space " + dataSpaceDID);
+        var unverifiedMemberships = new ArrayList<String>();
+        for (var check : checks.entrySet()) {
+            var dataSpaceDID = check.getKey();
+            try {
+                var isMember = check.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                logger.debug(membershipCheckSampler, "membership.checked", "issuer", tokenIssuerDID, "dataSpace", dataSpaceDID, "member", isMember);
+                if (isMember) {
+                    verifiedMemberships.add(dataSpaceDID);
+                }
+            } catch (TimeoutException e) {
+                unverifiedMemberships.add(dataSpaceDID);
+            } catch (ExecutionException e) {
+                logger.debug("membership.check.failed", "issuer", tokenIssuerDID, "dataSpace", dataSpaceDID, "reason", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unverifiedMemberships.add(dataSpaceDID);
             }
-        });
+        }
 
+        if (!unverifiedMemberships.isEmpty()) {
+            logger.warning("Membership checks of " + tokenIssuerDID + " did not finish in time, not granted: " + unverifiedMemberships);
+            attributes.put(NEXYO_SPACE_MEMBERSHIPS_UNVERIFIED_AGENT_ATTRIBUTE, String.join(";", unverifiedMemberships));
+        }
         attributes.put(NEXYO_SPACE_MEMBERSHIPS_AGENT_ATTRIBUTE, String.join(";", verifiedMemberships));
 
-        monitor.debug("##### agent will return the following attributes: " + attributes);
+        logger.debug("membership.attributes.resolved", "issuer", tokenIssuerDID, "attributes", attributes);
         return attributes;
     }
+
+    private CompletableFuture<Boolean> checkMembership(String tokenIssuerDID, String dataSpaceDID) {
+        try {
+            return CompletableFuture.supplyAsync(() -> dataSpaceService.isConnectorDataSpaceMember(tokenIssuerDID, dataSpaceDID), membershipExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -1,10 +1,11 @@
 package io.nexyo.edc.connector.edps.handlers.policy;
 
+import io.nexyo.edc.connector.edps.services.logging.LogSampler;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
 import org.eclipse.edc.policy.engine.spi.PolicyContext;
 import org.eclipse.edc.policy.model.Operator;
 import org.eclipse.edc.policy.model.Permission;
-import org.eclipse.edc.spi.monitor.Monitor;
 
 import java.util.Arrays;
 
@@ -13,24 +14,24 @@ import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.NEXYO_SPACE_MEMBERS
 
 public class SpaceMembershipConstraintFunction implements AtomicConstraintFunction<Permission> {
 
-    private final Monitor monitor;
+    private final NexyoLogger logger;
+    private final LogSampler evaluationSampler;
 
-    public SpaceMembershipConstraintFunction(Monitor monitor) {
-        this.monitor = monitor;
+    public SpaceMembershipConstraintFunction(NexyoLogger logger) {
+        this.logger = logger;
+        this.evaluationSampler = logger.sampler();
     }
 
     @Override
     public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
-        monitor.debug("##### SpaceMembershipConstraintFunction.evaluate called");
-
         if (context.getParticipantAgent() == null) {
-            monitor.debug("##### participantAgent is null");
+            logger.debug("membership.constraint.rejected", "reason", "no participant agent");
             return false;
         }
 
         var spaceMemberships = context.getParticipantAgent().getAttributes().get(NEXYO_SPACE_MEMBERSHIPS_AGENT_ATTRIBUTE);
         if (spaceMemberships == null) {
-            monitor.debug("##### spaceMembership is null");
+            logger.debug("membership.constraint.rejected", "reason", "no space memberships");
             return false;
         }
 
@@ -38,9 +39,7 @@ public class SpaceMembershipConstraintFunction implements AtomicConstraintFuncti
         var dataSpaceDID = rightValue.toString();
 
         var evaluationResult = participantMemberships.contains(dataSpaceDID);
-        monitor.debug("##### verifiedMemberships: " + participantMemberships);
-        monitor.debug("##### rightValue: " + rightValue);
-        monitor.debug("##### returning evaluationResult: " + evaluationResult);
+        logger.debug(evaluationSampler, "membership.constraint.evaluated", "verifiedMemberships", spaceMemberships, "rightValue", dataSpaceDID, "result", evaluationResult);
 
         return evaluationResult;
     }
@@ -6,16 +6,18 @@ import com.google.gson.Gson;
 import io.nexyo.edc.connector.edps.adapters.http.nexyo.info.NexyoHubInfoClient;
 import io.nexyo.edc.connector.edps.services.iam.dataspace.DataSpaceService;
 import io.nexyo.edc.connector.edps.services.iam.did.DecentralizedIdentityService;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.edc.iam.did.spi.document.Service;
-import org.eclipse.edc.iam.did.web.resolution.WebDidResolver;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
 import org.eclipse.edc.spi.http.EdcHttpClient;
-import org.eclipse.edc.spi.monitor.Monitor;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.DS_INFO_SVC_ID_SUFFIX;
 
@@ -24,22 +26,24 @@ import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.DS_INFO_SVC_ID_SUFF
 @Path("/")
 public class DataSpaceApiController {
 
-    private final Monitor monitor;
+    private final NexyoLogger logger;
 
-    private final WebDidResolver webDidResolver;
+    private final DidResolver webDidResolver;
 
 
     private final NexyoHubInfoClient nexyoHubInfoClient;
 
     private final DataSpaceService dataSpaceService;
 
-    public DataSpaceApiController(Monitor monitor, DecentralizedIdentityService identityService, ObjectMapper mapper, EdcHttpClient httpClient, WebDidResolver webDidResolver, DataSpaceService dataSpaceService) {
-        this.monitor = monitor;
-        this.monitor.info("##### DataSpaceApiController constructor called");
+    private final ExecutorService ioExecutor;
+
+    public DataSpaceApiController(NexyoLogger logger, DecentralizedIdentityService identityService, ObjectMapper mapper, EdcHttpClient httpClient, DidResolver webDidResolver, DataSpaceService dataSpaceService, ExecutorService ioExecutor) {
+        this.logger = logger;
         this.webDidResolver = webDidResolver;
         this.dataSpaceService = dataSpaceService;
+        this.ioExecutor = ioExecutor;
 
-        this.nexyoHubInfoClient = new NexyoHubInfoClient(httpClient, identityService, mapper, monitor);
+        this.nexyoHubInfoClient = new NexyoHubInfoClient(httpClient, identityService, mapper, logger);
     }
 
     @GET
@@ -66,33 +70,13 @@ public class DataSpaceApiController {
         }
         var dataSpaceInfo = dataSpaceInfoResult.getContent();
 
+        // resolve all participants concurrently, keeping the order of the participant list
+        var participantFutures = Arrays.stream(dataSpaceInfo.getParticipantDIDs())
+                .map(participantDID -> CompletableFuture.supplyAsync(() -> resolveParticipantConnectorDIDs(participantDID), ioExecutor))
+                .toList();
+
         var participantConnectorDIDs = new ArrayList<String>();
-        for (String participantDID : dataSpaceInfo.getParticipantDIDs()) {
-            var participantDIDResult = webDidResolver.resolve(participantDID);
-            if (participantDIDResult.failed()) {
-                continue;
-            }
-            var participantDocument = participantDIDResult.getContent();
-
-            var potentiallyConnectorService = participantDocument.getService().stream().filter(service -> service.getId().equals(participantDID + "#ConnectorsEndpoint")).findFirst();
-            var isHub = potentiallyConnectorService.isPresent();
-
-            if (isHub) {
-                var connectorEndpoint = potentiallyConnectorService.get().getServiceEndpoint();
-                monitor.debug("CONNECTOR SERVICE ENDPOINT: " + connectorEndpoint);
-
-                var getConnectorsRes = nexyoHubInfoClient.getHubConnectors(connectorEndpoint, participantDID);
-                if (getConnectorsRes.failed()) {
-                    monitor.debug("GET CONNECTOR FAILED for : "  + participantDID + " : " + getConnectorsRes.getFailureDetail());
-                    continue;
-                }
-                var hubConnectors = getConnectorsRes.getContent();
-                monitor.debug("HUB CONNECTORs of Hub " + participantDID + " : " + hubConnectors.toString());
-                participantConnectorDIDs.addAll(Arrays.asList(hubConnectors.getConnectors()));
-            } else {
-                participantConnectorDIDs.add(participantDID);
-            }
-        }
+        participantFutures.forEach(future -> participantConnectorDIDs.addAll(future.join()));
 
         var response = new DataSpaceInfoResponse(dataSpaceInfo.getTitle(), dataSpaceInfo.getDescription(), dataSpaceInfo.isRestricted(), participantConnectorDIDs);
 
@@ -104,7 +88,7 @@ public class DataSpaceApiController {
     @Produces({MediaType.APPLICATION_JSON})
     public Response addDataSpaceMembership(DataSpaceMembershipRequest dataSpaceMembershipRequest) {
         var did = dataSpaceMembershipRequest.dataSpaceDID;
-        monitor.debug("##### did to add: " + did);
+        logger.debug("membership.add", "dataSpace", did);
 
         URI location;
         try {
@@ -146,6 +130,55 @@ public class DataSpaceApiController {
         return Response.ok(jsonResult).build();
     }
 
+    /*
+     * Drops all cached membership verdicts, e.g. after a hub changed its connectors or a data space its participants.
+     */
+    @DELETE
+    @Path("membershipVerdicts")
+    public Response invalidateMembershipVerdicts() {
+        this.dataSpaceService.invalidateMembershipVerdicts(null);
+        return Response.noContent().build();
+    }
+
+    /*
+     * Drops the cached membership verdicts about a connector or data space DID.
+     */
+    @DELETE
+    @Path("membershipVerdicts/{didBase64}")
+    public Response invalidateMembershipVerdicts(@PathParam("didBase64") String didBase64) {
+        this.dataSpaceService.invalidateMembershipVerdicts(this.decodeDID(didBase64));
+        return Response.noContent().build();
+    }
+
+    /*
+     * Returns the connector DIDs of a participant: the connectors of a hub, or the participant DID itself.
+     */
+    private List<String> resolveParticipantConnectorDIDs(String participantDID) {
+        var participantDIDResult = webDidResolver.resolve(participantDID);
+        if (participantDIDResult.failed()) {
+            return List.of();
+        }
+        var participantDocument = participantDIDResult.getContent();
+
+        var potentiallyConnectorService = participantDocument.getService().stream().filter(service -> service.getId().equals(participantDID + "#ConnectorsEndpoint")).findFirst();
+        var isHub = potentiallyConnectorService.isPresent();
+
+        if (!isHub) {
+            return List.of(participantDID);
+        }
+
+        var connectorEndpoint = potentiallyConnectorService.get().getServiceEndpoint();
+
+        var getConnectorsRes = nexyoHubInfoClient.getHubConnectors(connectorEndpoint, participantDID);
+        if (getConnectorsRes.failed()) {
+            logger.debug("hub.connectors.failed", "hub", participantDID, "endpoint", connectorEndpoint, "reason", getConnectorsRes.getFailure());
+            return List.of();
+        }
+        var hubConnectors = getConnectorsRes.getContent();
+        logger.debug("hub.connectors", "hub", participantDID, "connectors", hubConnectors.getConnectors());
+        return Arrays.asList(hubConnectors.getConnectors());
+    }
+
     private Response buildErrorResponse(int statusCode, String errorMessage) {
         if (statusCode <= 0) {
             statusCode = 500;
@@ -159,22 +192,18 @@ public class DataSpaceApiController {
     }
 
     private String decodeDID(String didBase64) {
-        monitor.info("##### decodeDID called");
-        monitor.info("##### didBase64: " + didBase64);
         var decodedDIDBytes = Base64.getDecoder().decode(didBase64);
         var did = new String(decodedDIDBytes);
 
-        monitor.info("##### decodedDID: " + did);
+        logger.debug("did.decoded", "didBase64", didBase64, "did", did);
         return did;
     }
 
     private String encodeDID(String did) {
-        monitor.info("##### encodeDID called");
-        monitor.info("##### did: " + did);
         var encodedDIDBytes = Base64.getEncoder().encode(did.getBytes());
         var encodedDID = new String(encodedDIDBytes);
 
-        monitor.info("##### encodedDID: " + encodedDID);
+        logger.debug("did.encoded", "did", did, "didBase64", encodedDID);
         return encodedDID;
     }
 
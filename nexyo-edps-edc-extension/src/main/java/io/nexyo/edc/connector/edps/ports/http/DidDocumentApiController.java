@@ -2,99 +2,168 @@ package io.nexyo.edc.connector.edps.ports.http;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
 import io.nexyo.edc.connector.edps.services.config.ConfigService;
 import io.nexyo.edc.connector.edps.services.iam.did.OrganizationInfo;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.spi.EdcException;
-import org.eclipse.edc.spi.monitor.Monitor;
 
-import java.util.HashMap;
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.DID_DOCUMENT_MAX_AGE;
 
 @Consumes({ MediaType.APPLICATION_JSON })
 @Produces({ MediaType.APPLICATION_JSON })
 @Path("/")
 public class DidDocumentApiController {
 
-    private final Monitor monitor;
+    private static final String DEFAULT_MAX_AGE_SECONDS = "300";
 
-    private DidDocument connectorDidDocument;
+    private final NexyoLogger logger;
 
-    private ConfigService configService;
+    private volatile SerializedDidDocument serializedDidDocument;
+
+    private final int maxAgeSeconds;
 
-    public DidDocumentApiController(Monitor monitor, DidDocument connectorDidDocument, ConfigService configService) {
-        this.monitor = monitor;
-        this.monitor.info("##### DidDocumentApiController constructor called");
-        this.connectorDidDocument = connectorDidDocument;
+    private ConfigService configService;
 
+    public DidDocumentApiController(NexyoLogger logger, DidDocument connectorDidDocument, ConfigService configService) {
+        this.logger = logger;
         this.configService = configService;
+        this.maxAgeSeconds = Integer.parseInt(configService.getConfigValue(DID_DOCUMENT_MAX_AGE, DEFAULT_MAX_AGE_SECONDS));
+
+        // the document is immutable, serialize it once instead of on every request
+        this.updateDidDocument(connectorDidDocument);
     }
 
     @Path("/did.json")
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
-    public Response getDidDocument() {
-        return this.handleGetDidDocument();
+    public Response getDidDocument(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch, @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        return this.handleGetDidDocument(ifNoneMatch, acceptEncoding);
     }
 
     @Path("/.well-known/did.json")
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
-    public Response getWellKnownDidDocument() {
-        return this.handleGetDidDocument();
+    public Response getWellKnownDidDocument(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch, @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        return this.handleGetDidDocument(ifNoneMatch, acceptEncoding);
     }
 
     @GET
     @Path("/organization")
     @Produces({ MediaType.APPLICATION_JSON })
     public Response getOrganizationInfo() {
-        monitor.info("##### getOrganizationInfo endpoint called");
+        logger.debug("organization.requested");
         var organizationInfo = new OrganizationInfo(configService);
 
         return Response.ok(organizationInfo).build();
     }
 
-    private Response buildErrorResponse(int statusCode, String errorMessage) {
-        if (statusCode <= 0) {
-            statusCode = 500;
-        }
-
-        var errMessageHelper = new HashMap<String,String>();
-        errMessageHelper.put("error", errorMessage);
-        var errMessageJson = new Gson().toJson(errMessageHelper);
-
-        return Response.status(statusCode).entity(errMessageJson).build();
-    }
-
-    private String generateDidDocumentRes() throws EdcException {
+    /*
+     * Serializes the DID document once, with a gzip variant and a strong ETag derived from its content. Call it again when the document changes (e.g. on key rotation).
+     */
+    public void updateDidDocument(DidDocument didDocument) throws EdcException {
         var objectMapper = new ObjectMapper();
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
 
-        String didDocument;
         try {
-            didDocument = objectMapper.writeValueAsString(connectorDidDocument);
+            var json = objectMapper.writeValueAsBytes(didDocument);
+            var gzipped = new ByteArrayOutputStream(json.length);
+            try (var gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+            var hash = Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+            this.serializedDidDocument = new SerializedDidDocument(json, gzipped.toByteArray(), hash);
         } catch (Exception e) {
             throw new EdcException("Error while serializing DID document", e);
         }
-        return didDocument;
+        logger.info("did.document.serialized", "etag", serializedDidDocument.etag.getValue());
     }
 
-    private Response handleGetDidDocument() {
-        monitor.info("##### getDidDocument endpoint called");
+    private Response handleGetDidDocument(String ifNoneMatch, String acceptEncoding) {
+        logger.debug("did.document.requested");
 
-        String didDocument;
-        try {
-            didDocument = this.generateDidDocumentRes();
-        } catch (EdcException e) {
-            return this.buildErrorResponse(500, e.getMessage());
+        var document = this.serializedDidDocument;
+        var gzip = acceptsGzip(acceptEncoding);
+        var etag = gzip ? document.gzipEtag : document.etag;
+        var cacheControl = new CacheControl();
+        cacheControl.setMaxAge(this.maxAgeSeconds);
+
+        if (matches(ifNoneMatch, document)) {
+            return Response.notModified(etag).cacheControl(cacheControl).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
         }
 
-        return Response.ok(didDocument).build();
+        var response = Response.ok(gzip ? document.gzipped : document.json)
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Weak comparison as required for If-None-Match, accepting the ETags of both variants.
+     */
+    private static boolean matches(String ifNoneMatch, SerializedDidDocument document) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var tag : ifNoneMatch.split(",")) {
+            var value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            value = value.replace("\"", "");
+            if (value.equals(document.etag.getValue()) || value.equals(document.gzipEtag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class SerializedDidDocument {
+        private final byte[] json;
+        private final byte[] gzipped;
+        private final EntityTag etag;
+        private final EntityTag gzipEtag;
+
+        private SerializedDidDocument(byte[] json, byte[] gzipped, String hash) {
+            this.json = json;
+            this.gzipped = gzipped;
+            this.etag = new EntityTag(hash);
+            this.gzipEtag = new EntityTag(hash + "-gzip");
+        }
     }
 }
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2020 - 2023 nexyo
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       nexyo - initial API and implementation
+ *
+ */
+
+package io.nexyo.edc.connector.edps.services.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/*
+ * Thread safe map of at most maxEntries entries that evicts the least recently used entry when a new one is added, the in-memory store of the nexyo caches.
+ * Lookups and updates hold a short lock, so values must be computed outside of the cache.
+ */
+public class BoundedLruCache<K, V> {
+    private final Map<K, V> entries;
+
+    public BoundedLruCache(int maxEntries) {
+        var capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /*
+     * Removes the entry only if it still holds the given value, so a concurrent update is not lost.
+     */
+    public synchronized void remove(K key, V value) {
+        entries.remove(key, value);
+    }
+
+    public synchronized void removeIf(Predicate<V> filter) {
+        entries.values().removeIf(filter);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
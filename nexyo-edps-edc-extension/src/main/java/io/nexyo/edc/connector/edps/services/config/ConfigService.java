@@ -19,4 +19,12 @@ public class ConfigService {
         }
         return configValue;
     }
+
+    public String getConfigValue(String configVariableName, String defaultValue) {
+        var configValue = context.getSetting(configVariableName, null);
+        if (configValue == null || configValue.isBlank()) {
+            return defaultValue;
+        }
+        return configValue;
+    }
 }
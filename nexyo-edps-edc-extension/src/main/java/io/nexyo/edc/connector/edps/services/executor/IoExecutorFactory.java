@@ -0,0 +1,145 @@
+package io.nexyo.edc.connector.edps.services.executor;
+
+import io.nexyo.edc.connector.edps.services.config.ConfigService;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.EXECUTOR_MAX_CONCURRENCY;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.EXECUTOR_TYPE;
+
+/*
+ * Creates the executor for blocking remote calls (DID resolution, nexyo hub requests).
+ * Runs every task on its own virtual thread if configured and supported by the runtime (Java 21+),
+ * otherwise on a fixed pool of platform threads. Without configuration, virtual threads are used whenever the runtime supports them. Both run at most max.concurrency tasks at a time.
+ *
+ * The virtual thread lookup and BoundedExecutor mirror io.nexyo.edp.extensions.utils.BoundedExecutor on purpose:
+ * this extension is built outside the EDP extension's Gradle build and deployed into other connectors on its own,
+ * so it cannot depend on the EDP extension. Keep both in sync.
+ */
+public class IoExecutorFactory {
+    public static final String TYPE_VIRTUAL = "virtual";
+    public static final String TYPE_PLATFORM = "platform";
+    private static final String DEFAULT_MAX_CONCURRENCY = "64";
+
+    private final Monitor monitor;
+    private final ConfigService configService;
+
+    public IoExecutorFactory(Monitor monitor, ConfigService configService) {
+        this.monitor = monitor;
+        this.configService = configService;
+    }
+
+    public ExecutorService create(String name) {
+        return create(name, Integer.parseInt(configService.getConfigValue(EXECUTOR_MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY)));
+    }
+
+    /*
+     * Creates an executor with its own concurrency limit. Tasks that wait for tasks of another executor need their own executor,
+     * otherwise they can take all permits and wait forever for the tasks they submitted.
+     */
+    public ExecutorService create(String name, int maxConcurrencyLimit) {
+        var type = configService.getConfigValue(EXECUTOR_TYPE, lookupVirtualExecutor() != null ? TYPE_VIRTUAL : TYPE_PLATFORM);
+        var maxConcurrency = Math.max(1, maxConcurrencyLimit);
+
+        if (TYPE_VIRTUAL.equalsIgnoreCase(type)) {
+            var newVirtualExecutor = lookupVirtualExecutor();
+            if (newVirtualExecutor != null) {
+                monitor.info("nexyo " + name + " tasks run on virtual threads, max concurrency " + maxConcurrency);
+                return new BoundedExecutor(invoke(newVirtualExecutor), maxConcurrency);
+            }
+            monitor.warning("Virtual threads are not supported by Java " + Runtime.version().feature() + ", falling back to platform threads");
+        } else if (!TYPE_PLATFORM.equalsIgnoreCase(type)) {
+            monitor.warning("Unknown " + EXECUTOR_TYPE + " '" + type + "', using platform threads");
+        }
+
+        monitor.info("nexyo " + name + " tasks run on " + maxConcurrency + " platform threads");
+        return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * Executors.newVirtualThreadPerTaskExecutor() only exists from Java 21 on, while the extension is built for Java 17.
+     */
+    private static MethodHandle lookupVirtualExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService invoke(MethodHandle newVirtualExecutor) {
+        try {
+            return (ExecutorService) newVirtualExecutor.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    /*
+     * Lets at most the given number of tasks of the delegate run at a time. Waiting tasks park their own virtual thread.
+     */
+    private static class BoundedExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(ExecutorService delegate, int permits) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -3,121 +3,155 @@ package io.nexyo.edc.connector.edps.services.iam.dataspace;
 import io.nexyo.edc.connector.edps.adapters.http.nexyo.info.NexyoHubInfoClient;
 import io.nexyo.edc.connector.edps.adapters.repository.file.NexyoDataSpaceMembershipRepository;
 import io.nexyo.edc.connector.edps.services.config.ConfigService;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.ParticipantSetCache.ParticipantSet;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
-import org.eclipse.edc.iam.did.web.resolution.WebDidResolver;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
 import org.eclipse.edc.spi.EdcException;
-import org.eclipse.edc.spi.monitor.Monitor;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.*;
 import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.DID_URL;
 
 public class DataSpaceService {
-    private final Monitor monitor;
+    private final NexyoLogger logger;
 
     private final ConfigService configService;
 
-    private final WebDidResolver webDidResolver;
+    private final DidResolver webDidResolver;
 
     private final NexyoHubInfoClient infoClient;
 
     private final NexyoDataSpaceMembershipRepository membershipRepo;
 
-    public DataSpaceService(Monitor monitor, ConfigService configService, WebDidResolver webDidResolver, NexyoHubInfoClient infoClient) {
-        this.monitor = monitor;
+    private final ExecutorService ioExecutor;
+
+    private final MembershipVerdictCache verdictCache;
+
+    private final ParticipantSetCache participantSets;
+
+    public DataSpaceService(NexyoLogger logger, ConfigService configService, DidResolver webDidResolver, NexyoHubInfoClient infoClient, ExecutorService ioExecutor, MembershipVerdictCache verdictCache, ParticipantSetCache participantSets) {
+        this(logger, configService, webDidResolver, infoClient, ioExecutor, verdictCache, participantSets, new NexyoDataSpaceMembershipRepository(DATA_SPACE_MEMBERSHIP_FILE_PATH));
+    }
+
+    public DataSpaceService(NexyoLogger logger, ConfigService configService, DidResolver webDidResolver, NexyoHubInfoClient infoClient, ExecutorService ioExecutor, MembershipVerdictCache verdictCache, ParticipantSetCache participantSets,
+                            NexyoDataSpaceMembershipRepository membershipRepo) {
+        this.logger = logger;
+        this.verdictCache = verdictCache;
+        this.participantSets = participantSets;
         this.webDidResolver = webDidResolver;
         this.infoClient = infoClient;
         this.configService = configService;
-
-        this.membershipRepo = new NexyoDataSpaceMembershipRepository(DATA_SPACE_MEMBERSHIP_FILE_PATH);
+        this.ioExecutor = ioExecutor;
+        this.membershipRepo = membershipRepo;
     }
 
     public boolean isOwnConnectorDataSpaceMember(String dataSpaceDid) {
-        String[] participantDIDs;
+        ParticipantSet participantDIDs;
         try {
-            participantDIDs = getDataSpaceParticipantList(dataSpaceDid);
+            participantDIDs = getDataSpaceParticipants(dataSpaceDid);
         } catch (EdcException e) {
-            monitor.debug("Failed to get participant list for dataSpaceDid: " + dataSpaceDid);
-            monitor.debug("Reason: " + e.getMessage());
+            logger.debug("membership.participants.failed", "dataSpace", dataSpaceDid, "reason", e.getMessage());
             return false;
         }
 
-        return Arrays.asList(participantDIDs).contains(configService.getRequiredConfigValue(DID_URL));
+        return participantDIDs.contains(configService.getRequiredConfigValue(DID_URL));
     }
 
     public boolean isConnectorDataSpaceMember(String connectorDid, String dataSpaceDid) {
-        String[] participantDIDs;
+        return verdictCache.isMember(connectorDid, dataSpaceDid, () -> verifyConnectorDataSpaceMember(connectorDid, dataSpaceDid));
+    }
+
+    /*
+     * Drops the cached membership verdicts about a connector or data space DID, or all verdicts if did is null.
+     */
+    public void invalidateMembershipVerdicts(String did) {
+        logger.debug("membership.verdicts.invalidated", "did", did);
+        if (did == null) {
+            participantSets.invalidateAll();
+            verdictCache.invalidateAll();
+        } else {
+            participantSets.invalidate(did);
+            verdictCache.invalidate(did);
+        }
+    }
+
+    private boolean verifyConnectorDataSpaceMember(String connectorDid, String dataSpaceDid) {
+        // the participant list and the connector DID document are independent, fetch them concurrently
+        var cachedParticipantDIDs = participantSets.getIfFresh(dataSpaceDid);
+        var participantDIDsFuture = cachedParticipantDIDs != null ? CompletableFuture.completedFuture(cachedParticipantDIDs)
+                : CompletableFuture.supplyAsync(() -> getDataSpaceParticipants(dataSpaceDid), ioExecutor);
+        var connectorDidDocumentResult = webDidResolver.resolve(connectorDid);
+
+        ParticipantSet participantDIDs;
         try {
-            participantDIDs = getDataSpaceParticipantList(dataSpaceDid);
-        } catch (EdcException e) {
-            monitor.debug("Failed to get participant list for dataSpaceDid: " + dataSpaceDid);
-            monitor.debug("Reason: " + e.getMessage());
+            participantDIDs = participantDIDsFuture.join();
+        } catch (CompletionException e) {
+            logger.debug("membership.participants.failed", "dataSpace", dataSpaceDid, "reason", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
             return false;
         }
 
-        monitor.debug("participantDIDs: " + Arrays.toString(participantDIDs));
+        if (logger.isDebugEnabled()) {
+            // version and size are primitives, box them only if the event is logged
+            logger.debug("membership.participants", "dataSpace", dataSpaceDid, "version", participantDIDs.version(), "participants", participantDIDs.size());
+        }
 
-        var connectorDidDocumentResult = webDidResolver.resolve(connectorDid);
         if (connectorDidDocumentResult.failed()) {
-            monitor.debug("Failed to resolve DID document for connector DID: " + connectorDid);
-            monitor.debug("Reason: " + connectorDidDocumentResult.getFailure().toString());
+            logger.debug("membership.did.unresolved", "did", connectorDid, "reason", connectorDidDocumentResult.getFailure());
             return false;
         }
         var connectorDidDocument = connectorDidDocumentResult.getContent();
 
         if (!hasController(connectorDidDocument)) {
-            monitor.debug("### connector DID document has no controller, not supported with nexyo data space extension");
+            logger.debug("membership.connector.unsupported", "connector", connectorDid, "reason", "DID document has no controller");
             return false;
         }
 
-        monitor.debug("### connector DID has a controller, further checks are required");
         var connectorController = getFirstController(connectorDidDocument);
+        logger.debug("membership.connector.controller", "connector", connectorDid, "controller", connectorController);
 
         if (connectorController.equals(connectorDid)) {
             // check wether the data space participants list contains the connector DID
-            monitor.debug("### connector is its own controller. Checking whether the data space participants list: " + participantDIDs + " contains the connector DID " + connectorDid);
-            return Arrays.asList(participantDIDs).contains(connectorDid);
+            return participantDIDs.contains(connectorDid);
         }
 
         var connectorControllerDidDocumentResult = webDidResolver.resolve(connectorController);
         if (connectorControllerDidDocumentResult.failed()) {
-            monitor.debug("Failed to resolve DID document for connector controller hub DID: " + connectorController);
-            monitor.debug("Reason: " + connectorControllerDidDocumentResult.getFailure().toString());
+            logger.debug("membership.did.unresolved", "did", connectorController, "reason", connectorControllerDidDocumentResult.getFailure());
             return false;
         }
         var connectorControllerDidDocument = connectorControllerDidDocumentResult.getContent();
 
         var potentiallyConnectorDidsService = connectorControllerDidDocument.getService().stream().filter(service -> service.getId().equals(connectorControllerDidDocument.getId() + CONNECTORS_SVC_ID_SUFFIX)).findFirst();
         if (!potentiallyConnectorDidsService.isPresent()) {
-            monitor.debug("No ConnectorDIDs service found in DID document for DID: " + connectorControllerDidDocument.getId());
+            logger.debug("membership.hub.unsupported", "hub", connectorControllerDidDocument.getId(), "reason", "no ConnectorDIDs service");
             return false;
         }
 
         var connectorDIDsServiceEndpoint = potentiallyConnectorDidsService.get().getServiceEndpoint();
-        monitor.debug("### found connectors service endpoint " + connectorDIDsServiceEndpoint);
 
         var connectorsResult = infoClient.getHubConnectors(connectorDIDsServiceEndpoint, connectorControllerDidDocument.getId());
 
         if (connectorsResult.failed()) {
-            monitor.debug("Failed to access the hubs endpoint of its connector dids " + connectorControllerDidDocument.getId() + " at " + connectorDIDsServiceEndpoint);
-            monitor.debug("Reason: " + connectorsResult.getFailure().toString());
+            logger.debug("membership.hub.failed", "hub", connectorControllerDidDocument.getId(), "endpoint", connectorDIDsServiceEndpoint, "reason", connectorsResult.getFailure());
             return false;
         }
         var hubConnectorDIDs = connectorsResult.getContent().getConnectors();
-        monitor.debug("### found hub connectors: " + Arrays.toString(hubConnectorDIDs));
+        logger.debug("membership.hub.connectors", "hub", connectorControllerDidDocument.getId(), "connectors", hubConnectorDIDs);
 
         // verify that hubConnectorDIDs contains connectorDid
-        monitor.debug("### checking whether the hub connectors list: " + hubConnectorDIDs.toString() + " contains the connector DID " + connectorDid);
         if (!Arrays.asList(hubConnectorDIDs).contains(connectorDid)) {
-            monitor.debug("Hub DID " + connectorControllerDidDocument.getId() + " does not contain connector DID " + connectorDid);
+            logger.debug("membership.hub.mismatch", "hub", connectorControllerDidDocument.getId(), "connector", connectorDid);
             return false;
         }
 
         // finally check wether the data space participants list contains the controller hub DID
-        monitor.debug("### checking whether the data space participants list: " + participantDIDs.toString() + " contains the controller hub DID " + connectorControllerDidDocument.getId());
-        return Arrays.asList(participantDIDs).contains(connectorControllerDidDocument.getId());
+        return participantDIDs.contains(connectorControllerDidDocument.getId());
     }
 
     private boolean hasController(DidDocument connectorDidDocument) {
@@ -128,6 +162,16 @@ public class DataSpaceService {
         return connectorDidDocument.getVerificationMethod().stream().filter(verificationMethod -> !verificationMethod.getController().isEmpty()).findFirst().get().getController();
     }
 
+    /*
+     * Returns the cached participants of the data space, fetching them if they are outdated. A changed list drops the membership verdicts of the data space.
+     */
+    public ParticipantSet getDataSpaceParticipants(String dataSpaceDid) throws EdcException {
+        return participantSets.get(dataSpaceDid, () -> getDataSpaceParticipantList(dataSpaceDid), () -> {
+            logger.debug("membership.participants.changed", "dataSpace", dataSpaceDid);
+            verdictCache.invalidate(dataSpaceDid);
+        });
+    }
+
     public String[] getDataSpaceParticipantList(String dataSpaceDid) throws EdcException {
         var didDocumentResult = webDidResolver.resolve(dataSpaceDid);
         if (didDocumentResult.failed()) {
@@ -154,8 +198,7 @@ public class DataSpaceService {
         try {
             return membershipRepo.getAllMemberships();
         } catch (Exception e) {
-            monitor.debug("Failed to get memberships from file: " + DATA_SPACE_MEMBERSHIP_FILE_PATH);
-            monitor.debug("Reason: " + e.getMessage());
+            logger.debug("membership.repository.failed", "file", DATA_SPACE_MEMBERSHIP_FILE_PATH, "reason", e.getMessage());
             throw new EdcException("Failed to get memberships: " + e.getMessage());
         }
     }
@@ -163,9 +206,9 @@ public class DataSpaceService {
     public void addMembership(String did) throws EdcException {
         try {
             membershipRepo.addMembership(did);
+            verdictCache.invalidate(did);
         } catch (Exception e) {
-            monitor.debug("Failed to get memberships from file: " + DATA_SPACE_MEMBERSHIP_FILE_PATH);
-            monitor.debug("Reason: " + e.getMessage());
+            logger.debug("membership.repository.failed", "file", DATA_SPACE_MEMBERSHIP_FILE_PATH, "reason", e.getMessage());
             throw new EdcException("Failed to get memberships: " + e.getMessage());
         }
     }
@@ -173,9 +216,9 @@ public class DataSpaceService {
     public void removeMembership(String did) throws EdcException {
         try {
             membershipRepo.deleteDID(did);
+            verdictCache.invalidate(did);
         } catch (Exception e) {
-            monitor.debug("Failed to remove membership from file: " + DATA_SPACE_MEMBERSHIP_FILE_PATH);
-            monitor.debug("Reason: " + e.getMessage());
+            logger.debug("membership.repository.failed", "file", DATA_SPACE_MEMBERSHIP_FILE_PATH, "reason", e.getMessage());
             throw new EdcException("Failed to remove membership: " + e.getMessage());
         }
     }
@@ -183,9 +226,9 @@ public class DataSpaceService {
     public void removeAllMemberships() throws EdcException {
         try {
             membershipRepo.clear();
+            verdictCache.invalidateAll();
         } catch (Exception e) {
-            monitor.debug("Failed to remove all memberships from file: " + DATA_SPACE_MEMBERSHIP_FILE_PATH);
-            monitor.debug("Reason: " + e.getMessage());
+            logger.debug("membership.repository.failed", "file", DATA_SPACE_MEMBERSHIP_FILE_PATH, "reason", e.getMessage());
             throw new EdcException("Failed to remove all memberships: " + e.getMessage());
         }
     }
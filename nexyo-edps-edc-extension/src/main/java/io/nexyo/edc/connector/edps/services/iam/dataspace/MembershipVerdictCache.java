@@ -0,0 +1,135 @@
+package io.nexyo.edc.connector.edps.services.iam.dataspace;
+
+import io.nexyo.edc.connector.edps.services.cache.BoundedLruCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/*
+ * Remembers whether a connector is a member of a data space, so membership checks on the DSP request path do not repeat the DID resolutions and hub calls.
+ * Positive verdicts are kept for positiveTtl, negative ones (which include failed remote calls) for the usually shorter negativeTtl; a ttl of 0 disables caching of that verdict.
+ * Concurrent checks of the same connector and data space share one verification. Positive verdicts used in the last 20% of their lifetime are verified again in the background,
+ * so connectors that keep talking to us are not verified on the request path. At most maxEntries verdicts are kept, the least recently used ones are evicted.
+ * Verdicts can be dropped per DID or altogether, e.g. when a hub changes its connectors; verifications running at that time do not store their verdict.
+ */
+public class MembershipVerdictCache {
+    private static final double REFRESH_AHEAD_RATIO = 0.2;
+
+    private final Clock clock;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final ExecutorService refreshExecutor;
+    private final BoundedLruCache<String, Verdict> verdicts;
+    private final Map<String, CompletableFuture<Boolean>> pendingChecks = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public MembershipVerdictCache(Clock clock, Duration positiveTtl, Duration negativeTtl, int maxEntries, ExecutorService refreshExecutor) {
+        this.clock = clock;
+        this.positiveTtl = positiveTtl;
+        this.negativeTtl = negativeTtl;
+        this.refreshExecutor = refreshExecutor;
+        this.verdicts = new BoundedLruCache<>(maxEntries);
+    }
+
+    public boolean isMember(String connectorDid, String dataSpaceDid, BooleanSupplier check) {
+        var key = key(connectorDid, dataSpaceDid);
+        var cached = verdicts.get(key);
+        var now = clock.instant();
+        if (cached != null && now.isBefore(cached.expiresAt)) {
+            if (!now.isBefore(cached.refreshAt)) {
+                refreshInBackground(key, connectorDid, dataSpaceDid, check);
+            }
+            return cached.isMember;
+        }
+        return checkOnce(key, connectorDid, dataSpaceDid, check).join();
+    }
+
+    /*
+     * Drops the verdicts about a connector or a data space.
+     */
+    public void invalidate(String did) {
+        generation.incrementAndGet();
+        verdicts.removeIf(verdict -> verdict.connectorDid.equals(did) || verdict.dataSpaceDid.equals(did));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        verdicts.clear();
+    }
+
+    /*
+     * Concurrent checks of the same connector and data space share one verification.
+     */
+    private CompletableFuture<Boolean> checkOnce(String key, String connectorDid, String dataSpaceDid, BooleanSupplier check) {
+        var future = new CompletableFuture<Boolean>();
+        var pending = pendingChecks.putIfAbsent(key, future);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            var startedIn = generation.get();
+            var isMember = check.getAsBoolean();
+            store(key, connectorDid, dataSpaceDid, isMember, startedIn);
+            future.complete(isMember);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingChecks.remove(key, future);
+        }
+        return future;
+    }
+
+    private void refreshInBackground(String key, String connectorDid, String dataSpaceDid, BooleanSupplier check) {
+        if (pendingChecks.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> checkOnce(key, connectorDid, dataSpaceDid, check));
+        } catch (RejectedExecutionException e) {
+            /* the verdict is verified again on the request path once it has expired */
+        }
+    }
+
+    private void store(String key, String connectorDid, String dataSpaceDid, boolean isMember, long startedIn) {
+        var ttl = isMember ? positiveTtl : negativeTtl;
+        if (ttl.isZero() || ttl.isNegative()) {
+            verdicts.remove(key);
+            return;
+        }
+        if (generation.get() != startedIn) {
+            return;
+        }
+        var now = clock.instant();
+        var refreshAt = isMember ? now.plus(Duration.ofMillis((long) (ttl.toMillis() * (1 - REFRESH_AHEAD_RATIO)))) : now.plus(ttl);
+        verdicts.put(key, new Verdict(connectorDid, dataSpaceDid, isMember, now.plus(ttl), refreshAt));
+    }
+
+    private static String key(String connectorDid, String dataSpaceDid) {
+        return connectorDid + " " + dataSpaceDid;
+    }
+
+    private static final class Verdict {
+        private final String connectorDid;
+        private final String dataSpaceDid;
+        private final boolean isMember;
+        private final Instant expiresAt;
+        private final Instant refreshAt;
+
+        private Verdict(String connectorDid, String dataSpaceDid, boolean isMember, Instant expiresAt, Instant refreshAt) {
+            this.connectorDid = connectorDid;
+            this.dataSpaceDid = dataSpaceDid;
+            this.isMember = isMember;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.nexyo.edc.connector.edps.services.iam.dataspace;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/*
+ * Keeps the participant list of each data space as an immutable hash set for ttl, so participant lookups are constant-time and do not refetch or copy the list.
+ * Every refresh that changes a list increments its version and runs the caller's change callback, e.g. to drop membership verdicts based on the old list.
+ */
+public class ParticipantSetCache {
+    private final Clock clock;
+    private final Duration ttl;
+    private final Map<String, ParticipantSet> participantSets = new ConcurrentHashMap<>();
+
+    public ParticipantSetCache(Clock clock, Duration ttl) {
+        this.clock = clock;
+        this.ttl = ttl;
+    }
+
+    /*
+     * Returns the cached participants of the data space, or null if they are not cached or outdated.
+     */
+    public ParticipantSet getIfFresh(String dataSpaceDid) {
+        var participantSet = participantSets.get(dataSpaceDid);
+        return participantSet != null && clock.instant().isBefore(participantSet.expiresAt) ? participantSet : null;
+    }
+
+    public ParticipantSet get(String dataSpaceDid, Supplier<String[]> fetch, Runnable onChange) {
+        var fresh = getIfFresh(dataSpaceDid);
+        if (fresh != null) {
+            return fresh;
+        }
+
+        var participants = Arrays.stream(fetch.get()).filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        var expiresAt = clock.instant().plus(ttl);
+        var previous = participantSets.get(dataSpaceDid);
+        if (previous != null && previous.participants.equals(participants)) {
+            var refreshed = new ParticipantSet(previous.participants, previous.version, expiresAt);
+            participantSets.put(dataSpaceDid, refreshed);
+            return refreshed;
+        }
+
+        var participantSet = new ParticipantSet(participants, previous == null ? 1 : previous.version + 1, expiresAt);
+        participantSets.put(dataSpaceDid, participantSet);
+        if (previous != null) {
+            onChange.run();
+        }
+        return participantSet;
+    }
+
+    public void invalidate(String dataSpaceDid) {
+        participantSets.remove(dataSpaceDid);
+    }
+
+    public void invalidateAll() {
+        participantSets.clear();
+    }
+
+    public static final class ParticipantSet {
+        private final Set<String> participants;
+        private final long version;
+        private final Instant expiresAt;
+
+        private ParticipantSet(Set<String> participants, long version, Instant expiresAt) {
+            this.participants = participants;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean contains(String did) {
+            return participants.contains(did);
+        }
+
+        public int size() {
+            return participants.size();
+        }
+
+        public long version() {
+            return version;
+        }
+    }
+}
@@ -20,16 +20,16 @@ import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jwt.SignedJWT;
 import io.nexyo.edc.connector.edps.services.config.ConfigService;
 import io.nexyo.edc.connector.edps.services.iam.did.web.WebDidUrlResolver;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.iam.did.crypto.JwtUtils;
 import org.eclipse.edc.iam.did.crypto.key.EcPrivateKeyWrapper;
-import org.eclipse.edc.iam.did.crypto.key.KeyConverter;
 import org.eclipse.edc.iam.did.spi.document.DidConstants;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.iam.did.spi.document.Service;
 import org.eclipse.edc.iam.did.spi.document.VerificationMethod;
 import org.eclipse.edc.iam.did.spi.key.PrivateKeyWrapper;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
 import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
-import org.eclipse.edc.iam.did.web.resolution.WebDidResolver;
 import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.iam.ClaimToken;
 import org.eclipse.edc.spi.iam.IdentityService;
@@ -43,6 +43,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.text.ParseException;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Optional;
@@ -56,11 +57,17 @@ import static org.eclipse.edc.spi.agent.ParticipantAgentService.DEFAULT_IDENTITY
 public class DecentralizedIdentityService implements IdentityService {
     public static final String NAME = "Decentralized Identity Service";
     public static final Curve CURVE = Curve.P_256;
+    private static final String DEFAULT_TOKEN_CACHE_REFRESH_SKEW_SECONDS = "30";
+    private static final String DEFAULT_TOKEN_CACHE_MAX_AUDIENCES = "1000";
+    private static final String DEFAULT_VERIFIED_TOKEN_CACHE_MAX_ENTRIES = "10000";
+    private static final String DEFAULT_VERIFIER_CACHE_MAX_ENTRIES = "1000";
     private ECKey keyPair;
+    private PrivateKeyWrapper privateKey;
 
     private final String keyPairIdentifier;
     private final DidResolverRegistry resolverRegistry;
     private final Monitor monitor;
+    private final NexyoLogger logger;
     private final Vault vault;
     private final Clock clock;
 
@@ -70,12 +77,19 @@ public class DecentralizedIdentityService implements IdentityService {
 
     private final ConfigService configService;
 
-    private WebDidResolver webDidResolver;
+    private DidResolver webDidResolver;
 
-    public DecentralizedIdentityService(ServiceExtensionContext context, Vault vault, Monitor monitor, Clock clock, String keyPairIdentifier, WebDidResolver webDidResolver, DidResolverRegistry resolverRegistry) {
+    private final TokenCache tokenCache;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final VerifierCache verifierCache;
+
+    public DecentralizedIdentityService(ServiceExtensionContext context, Vault vault, Monitor monitor, NexyoLogger logger, Clock clock, String keyPairIdentifier, DidResolver webDidResolver, DidResolverRegistry resolverRegistry) {
         monitor.info("Initializing nexyo DecentralizedIdentityService");
 
         this.monitor = monitor;
+        this.logger = logger;
         this.clock = clock;
         this.vault = vault;
         this.context = context;
@@ -108,6 +122,14 @@ public class DecentralizedIdentityService implements IdentityService {
         }
 
         this.keyPair = this.retrieveKeysFromVault();
+        this.privateKey = new EcPrivateKeyWrapper(this.keyPair);
+
+        var refreshSkew = Duration.ofSeconds(Long.parseLong(configService.getConfigValue(TOKEN_CACHE_REFRESH_SKEW, DEFAULT_TOKEN_CACHE_REFRESH_SKEW_SECONDS)));
+        var maxAudiences = Integer.parseInt(configService.getConfigValue(TOKEN_CACHE_MAX_AUDIENCES, DEFAULT_TOKEN_CACHE_MAX_AUDIENCES));
+        this.tokenCache = new TokenCache(clock, refreshSkew, maxAudiences);
+        var maxVerifiedTokens = Integer.parseInt(configService.getConfigValue(VERIFIED_TOKEN_CACHE_MAX_ENTRIES, DEFAULT_VERIFIED_TOKEN_CACHE_MAX_ENTRIES));
+        this.verifiedTokenCache = new VerifiedTokenCache(clock, maxVerifiedTokens);
+        this.verifierCache = new VerifierCache(Integer.parseInt(configService.getConfigValue(VERIFIER_CACHE_MAX_ENTRIES, DEFAULT_VERIFIER_CACHE_MAX_ENTRIES)));
 
         monitor.info("Identity " + identity + " loaded");
     }
@@ -169,7 +191,7 @@ public class DecentralizedIdentityService implements IdentityService {
     private String generateConnectorDidWebHttpUrl() {
         String useHTTPsString = this.configService.getRequiredConfigValue(DID_WEB_USE_HTTPS);
         boolean useHTTPS = Boolean.parseBoolean(useHTTPsString);
-        var httpUrl = new WebDidUrlResolver(useHTTPS, monitor).apply(this.identity).toString();
+        var httpUrl = new WebDidUrlResolver(useHTTPS, logger).apply(this.identity).toString();
         return httpUrl;
     }
 
@@ -206,27 +228,35 @@ public class DecentralizedIdentityService implements IdentityService {
 
     @Override
     public Result<TokenRepresentation> obtainClientCredentials(TokenParameters parameters) throws EdcException{
-        String jwtSubject = this.identity;
-        String jwtIssuer = this.identity;
-        PrivateKeyWrapper privateKey = new EcPrivateKeyWrapper(this.keyPair);
-
-        var jwt = JwtUtils.create(privateKey, jwtIssuer, jwtSubject, parameters.getAudience(), this.clock);
-        var token = jwt.serialize();
+        var audience = parameters.getAudience();
+        // tokens are signed once per audience and reused until shortly before they expire
+        var token = audience == null ? signToken(null).serialize() : tokenCache.get(audience, () -> signToken(audience));
         return Result.success(TokenRepresentation.Builder.newInstance().token(token).build());
     }
 
+    private SignedJWT signToken(String audience) {
+        logger.debug("token.signed", "audience", audience);
+        return JwtUtils.create(this.privateKey, this.identity, this.identity, audience, this.clock);
+    }
+
     @Override
     public Result<ClaimToken> verifyJwtToken(TokenRepresentation tokenRepresentation, String audience){
+        var token = tokenRepresentation.getToken();
+        var cachedClaimToken = verifiedTokenCache.get(token, audience);
+        if (cachedClaimToken != null) {
+            logger.debug("token.verification.cached", "audience", audience);
+            return Result.success(cachedClaimToken);
+        }
+
         try {
-            var jwt = SignedJWT.parse(tokenRepresentation.getToken());
-            monitor.debug("Starting verification...");
+            var jwt = SignedJWT.parse(token);
+            logger.debug("token.verification.started", "audience", audience);
 
-            monitor.debug("Resolving other party's DID Document");
-            var didResult = resolverRegistry.resolve(jwt.getJWTClaimsSet().getIssuer());
+            var issuer = jwt.getJWTClaimsSet().getIssuer();
+            var didResult = resolverRegistry.resolve(issuer);
             if (didResult.failed()) {
                 return Result.failure("Unable to resolve DID: " + String.join(", ", didResult.getFailureMessages()));
             }
-            monitor.debug("Extracting public key");
 
             // this will return the _first_ public key entry
             var publicKey = firstVerificationMethod(didResult.getContent());
@@ -234,29 +264,27 @@ public class DecentralizedIdentityService implements IdentityService {
                 return Result.failure("Public Key not found in DID Document!");
             }
 
-            //convert the POJO into a usable PK-wrapper:
-            var publicKeyJwk = publicKey.get().getPublicKeyJwk();
-            var publicKeyWrapperResult = KeyConverter.toPublicKeyWrapper(publicKeyJwk, publicKey.get().getId());
+            //convert the POJO into a usable PK-wrapper, once per key of the issuer:
+            var publicKeyWrapperResult = verifierCache.get(issuer, publicKey.get());
             if (publicKeyWrapperResult.failed()) {
-                monitor.debug("Failed to convert JWK into public key wrapper");
+                logger.debug("token.verification.failed", "reason", "JWK cannot be converted into a public key");
                 return publicKeyWrapperResult.mapTo();
             }
 
-            monitor.debug("Verifying JWT with public key...");
             var verified = JwtUtils.verify(jwt, publicKeyWrapperResult.getContent(), audience);
             if (verified.failed()) {
-                monitor.debug(() -> "Failure in token verification: " + verified.getFailureDetail());
+                logger.debug("token.verification.failed", "reason", verified.getFailure());
                 return Result.failure("Token could not be verified!");
             }
 
-            monitor.debug("Building ClaimToken");
             var claimToken = ClaimToken.Builder.newInstance()
                     .claim(DEFAULT_IDENTITY_CLAIM_KEY, jwt.getJWTClaimsSet().getIssuer())
                     .build();
+            verifiedTokenCache.put(token, audience, claimToken, jwt.getJWTClaimsSet().getExpirationTime());
 
             return Result.success(claimToken);
         } catch (ParseException e) {
-            monitor.severe("Error parsing JWT", e);
+            logger.severe("Error parsing JWT", e);
             return Result.failure("Error parsing JWT");
         }
     }
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2020 - 2023 nexyo
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       nexyo - initial API and implementation
+ *
+ */
+
+package io.nexyo.edc.connector.edps.services.iam.did;
+
+import com.nimbusds.jwt.SignedJWT;
+import io.nexyo.edc.connector.edps.services.cache.BoundedLruCache;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+ * Caches signed client credential tokens per audience, so repeated requests to the same hub, data space or connector skip the EC signature.
+ * A token is handed out until refreshSkew before it expires. Then the first caller signs a new one, while concurrent callers for the same audience wait for it instead of signing too.
+ * At most maxAudiences tokens are kept, the least recently used ones are evicted.
+ */
+public class TokenCache {
+    private final Clock clock;
+    private final Duration refreshSkew;
+    private final BoundedLruCache<String, CachedToken> tokens;
+    private final Map<String, CompletableFuture<CachedToken>> pendingSignatures = new ConcurrentHashMap<>();
+
+    public TokenCache(Clock clock, Duration refreshSkew, int maxAudiences) {
+        this.clock = clock;
+        this.refreshSkew = refreshSkew;
+        this.tokens = new BoundedLruCache<>(maxAudiences);
+    }
+
+    public String get(String audience, Supplier<SignedJWT> signer) {
+        var cached = tokens.get(audience);
+        if (cached != null && cached.isUsable(clock.instant())) {
+            return cached.token;
+        }
+        return signOnce(audience, signer).join().token;
+    }
+
+    /*
+     * Concurrent callers for the same audience share one signature.
+     */
+    private CompletableFuture<CachedToken> signOnce(String audience, Supplier<SignedJWT> signer) {
+        var future = new CompletableFuture<CachedToken>();
+        var pending = pendingSignatures.putIfAbsent(audience, future);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            var cached = tokens.get(audience);
+            var token = cached != null && cached.isUsable(clock.instant()) ? cached : sign(signer);
+            tokens.put(audience, token);
+            future.complete(token);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingSignatures.remove(audience, future);
+        }
+        return future;
+    }
+
+    private CachedToken sign(Supplier<SignedJWT> signer) {
+        var jwt = signer.get();
+        return new CachedToken(jwt.serialize(), refreshAt(jwt));
+    }
+
+    /*
+     * Tokens without a readable expiry are never reused.
+     */
+    private Instant refreshAt(SignedJWT jwt) {
+        try {
+            var expiration = jwt.getJWTClaimsSet().getExpirationTime();
+            return expiration == null ? Instant.MIN : expiration.toInstant().minus(refreshSkew);
+        } catch (ParseException e) {
+            return Instant.MIN;
+        }
+    }
+
+    private static final class CachedToken {
+        private final String token;
+        private final Instant refreshAt;
+
+        private CachedToken(String token, Instant refreshAt) {
+            this.token = token;
+            this.refreshAt = refreshAt;
+        }
+
+        private boolean isUsable(Instant now) {
+            return now.isBefore(refreshAt);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2020 - 2023 nexyo
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       nexyo - initial API and implementation
+ *
+ */
+
+package io.nexyo.edc.connector.edps.services.iam.did;
+
+import io.nexyo.edc.connector.edps.services.cache.BoundedLruCache;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.iam.ClaimToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+
+/*
+ * Remembers successfully verified tokens per audience until they expire, so a counterparty repeating a token skips DID resolution and signature verification.
+ * Entries are keyed by the SHA-256 hash of the token, the token itself is not kept. At most maxEntries tokens are remembered, the least recently used ones are evicted; 0 disables the cache.
+ */
+public class VerifiedTokenCache {
+    private final Clock clock;
+    private final int maxEntries;
+    private final BoundedLruCache<String, VerifiedToken> verifiedTokens;
+
+    public VerifiedTokenCache(Clock clock, int maxEntries) {
+        this.clock = clock;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.verifiedTokens = new BoundedLruCache<>(this.maxEntries);
+    }
+
+    /*
+     * Returns the claims of the verified token, or null if the token was not verified for the audience or has expired since.
+     */
+    public ClaimToken get(String token, String audience) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        var key = key(token, audience);
+        var verified = verifiedTokens.get(key);
+        if (verified == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(verified.expiresAt)) {
+            verifiedTokens.remove(key, verified);
+            return null;
+        }
+        return verified.claimToken;
+    }
+
+    /*
+     * Remembers a verified token. Tokens without expiry are not remembered.
+     */
+    public void put(String token, String audience, ClaimToken claimToken, Date expirationTime) {
+        if (maxEntries == 0 || expirationTime == null) {
+            return;
+        }
+        verifiedTokens.put(key(token, audience), new VerifiedToken(claimToken, expirationTime.toInstant()));
+    }
+
+    private static String key(String token, String audience) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash) + "|" + audience;
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final ClaimToken claimToken;
+        private final Instant expiresAt;
+
+        private VerifiedToken(ClaimToken claimToken, Instant expiresAt) {
+            this.claimToken = claimToken;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2020 - 2023 nexyo
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       nexyo - initial API and implementation
+ *
+ */
+
+package io.nexyo.edc.connector.edps.services.iam.did;
+
+import com.nimbusds.jose.JWEEncrypter;
+import com.nimbusds.jose.JWSVerifier;
+import io.nexyo.edc.connector.edps.services.cache.BoundedLruCache;
+import org.eclipse.edc.iam.did.crypto.key.KeyConverter;
+import org.eclipse.edc.iam.did.spi.document.VerificationMethod;
+import org.eclipse.edc.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Keeps the converted public key and its signature verifier per DID verification method, so the key is decoded and the verifier built once per counterparty key instead of once per token.
+ * An entry is only used while the verification method still has the same JWK; a changed DID document replaces it. At most maxEntries keys are kept, the least recently used ones are evicted.
+ */
+public class VerifierCache {
+    private final BoundedLruCache<String, CachedVerifier> verifiers;
+
+    public VerifierCache(int maxEntries) {
+        this.verifiers = new BoundedLruCache<>(maxEntries);
+    }
+
+    public Result<PublicKeyWrapper> get(String did, VerificationMethod verificationMethod) {
+        var key = did + " " + verificationMethod.getId();
+        var publicKeyJwk = verificationMethod.getPublicKeyJwk();
+
+        var cached = verifiers.get(key);
+        if (cached != null && cached.publicKeyJwk.equals(publicKeyJwk)) {
+            return Result.success(cached.publicKey);
+        }
+
+        var publicKeyResult = KeyConverter.toPublicKeyWrapper(publicKeyJwk, verificationMethod.getId());
+        if (publicKeyResult.failed()) {
+            return publicKeyResult;
+        }
+
+        PreparedPublicKey publicKey;
+        try {
+            publicKey = new PreparedPublicKey(publicKeyResult.getContent());
+        } catch (EdcException e) {
+            return Result.failure("Cannot create verifier for " + verificationMethod.getId() + ": " + e.getMessage());
+        }
+        verifiers.put(key, new CachedVerifier(new HashMap<>(publicKeyJwk), publicKey));
+        return Result.success(publicKey);
+    }
+
+    private static final class CachedVerifier {
+        private final Map<String, Object> publicKeyJwk;
+        private final PublicKeyWrapper publicKey;
+
+        private CachedVerifier(Map<String, Object> publicKeyJwk, PublicKeyWrapper publicKey) {
+            this.publicKeyJwk = publicKeyJwk;
+            this.publicKey = publicKey;
+        }
+    }
+
+    /*
+     * Builds the verifier once; the nimbus verifiers are immutable and can be shared between threads.
+     */
+    private static final class PreparedPublicKey implements PublicKeyWrapper {
+        private final PublicKeyWrapper delegate;
+        private final JWSVerifier verifier;
+
+        private PreparedPublicKey(PublicKeyWrapper delegate) {
+            this.delegate = delegate;
+            this.verifier = delegate.verifier();
+        }
+
+        @Override
+        public JWEEncrypter encrypter() {
+            return delegate.encrypter();
+        }
+
+        @Override
+        public JWSVerifier verifier() {
+            return verifier;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *  Copyright (c) 2020 - 2023 nexyo
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       nexyo - initial API and implementation
+ *
+ */
+
+package io.nexyo.edc.connector.edps.services.iam.did.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nexyo.edc.connector.edps.services.cache.BoundedLruCache;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.spi.http.EdcHttpClient;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/*
+ * Resolves did:web DIDs like the EDC WebDidResolver, but keeps the documents in memory.
+ * A document is cached for the max-age of its Cache-Control header, or defaultTtl without one; no-store documents are not cached, no-cache documents are revalidated on every use.
+ * Expired documents are revalidated with If-None-Match if the server sent an ETag. Documents used in the last 20% of their lifetime are refreshed in the background,
+ * so frequently used DIDs are not resolved on the request path. At most maxEntries documents are kept, the least recently used ones are evicted.
+ */
+public class CachingDidResolver implements DidResolver {
+    private static final String DID_METHOD = "web";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age\\s*=\\s*\"?(\\d+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final double REFRESH_AHEAD_RATIO = 0.2;
+
+    private final EdcHttpClient httpClient;
+    private final WebDidUrlResolver urlResolver;
+    private final ObjectMapper mapper;
+    private final NexyoLogger logger;
+    private final Clock clock;
+    private final ExecutorService refreshExecutor;
+    private final Duration defaultTtl;
+    private final BoundedLruCache<String, CachedDocument> documents;
+    private final Map<String, CompletableFuture<Result<DidDocument>>> pendingResolutions = new ConcurrentHashMap<>();
+
+    public CachingDidResolver(EdcHttpClient httpClient, WebDidUrlResolver urlResolver, ObjectMapper mapper, NexyoLogger logger, Clock clock, ExecutorService refreshExecutor, Duration defaultTtl, int maxEntries) {
+        this.httpClient = httpClient;
+        this.urlResolver = urlResolver;
+        this.mapper = mapper;
+        this.logger = logger;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+        this.defaultTtl = defaultTtl;
+        this.documents = new BoundedLruCache<>(maxEntries);
+    }
+
+    @Override
+    public String getMethod() {
+        return DID_METHOD;
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String did) {
+        var cached = documents.get(did);
+        var now = clock.instant();
+        if (cached != null && now.isBefore(cached.expiresAt)) {
+            if (!now.isBefore(cached.refreshAt)) {
+                refreshInBackground(did);
+            }
+            logger.debug("did.cache.hit", "did", did);
+            return Result.success(cached.document);
+        }
+        return resolveOnce(did).join();
+    }
+
+    /*
+     * Concurrent resolutions of the same DID share one request.
+     */
+    private CompletableFuture<Result<DidDocument>> resolveOnce(String did) {
+        var future = new CompletableFuture<Result<DidDocument>>();
+        var pending = pendingResolutions.putIfAbsent(did, future);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            future.complete(fetch(did));
+        } catch (RuntimeException e) {
+            future.complete(Result.failure("Failed to resolve DID " + did + ": " + e.getMessage()));
+        } finally {
+            pendingResolutions.remove(did, future);
+        }
+        return future;
+    }
+
+    private void refreshInBackground(String did) {
+        if (pendingResolutions.containsKey(did)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                var result = resolveOnce(did).join();
+                if (result.failed()) {
+                    logger.debug("did.cache.refresh.failed", "did", did, "reason", result.getFailureDetail());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("did.cache.refresh.rejected", "did", did);
+        }
+    }
+
+    private Result<DidDocument> fetch(String did) {
+        String url;
+        try {
+            url = urlResolver.apply(did);
+        } catch (RuntimeException e) {
+            return Result.failure("Invalid DID " + did + ": " + e.getMessage());
+        }
+
+        var cached = documents.get(did);
+        var request = new Request.Builder().url(url).get();
+        if (cached != null && cached.etag != null) {
+            request.header("If-None-Match", cached.etag);
+        }
+
+        logger.debug("did.resolve", "did", did, "url", url);
+        try (var response = httpClient.execute(request.build())) {
+            if (response.code() == 304 && cached != null) {
+                var ttl = ttl(response);
+                if (ttl == null) {
+                    documents.remove(did);
+                } else {
+                    documents.put(did, new CachedDocument(cached.document, cached.etag, ttl));
+                }
+                return Result.success(cached.document);
+            }
+            if (!response.isSuccessful()) {
+                documents.remove(did);
+                return Result.failure("Failed to resolve DID " + did + ", " + url + " returned status code " + response.code());
+            }
+
+            var document = mapper.readValue(response.body().string(), DidDocument.class);
+            var ttl = ttl(response);
+            if (ttl == null) {
+                documents.remove(did);
+            } else {
+                documents.put(did, new CachedDocument(document, response.header("ETag"), ttl));
+            }
+            return Result.success(document);
+        } catch (IOException e) {
+            return Result.failure("Failed to resolve DID " + did + ": " + e.getMessage());
+        }
+    }
+
+    /*
+     * The lifetime of a response from its Cache-Control header, null if it must not be stored.
+     */
+    private Duration ttl(Response response) {
+        var cacheControl = response.header("Cache-Control");
+        if (cacheControl == null) {
+            return defaultTtl;
+        }
+        var directives = cacheControl.toLowerCase();
+        if (directives.contains("no-store")) {
+            return null;
+        }
+        if (directives.contains("no-cache")) {
+            return Duration.ZERO;
+        }
+        var maxAge = MAX_AGE.matcher(directives);
+        return maxAge.find() ? Duration.ofSeconds(Long.parseLong(maxAge.group(1))) : defaultTtl;
+    }
+
+    private final class CachedDocument {
+        private final DidDocument document;
+        private final String etag;
+        private final Instant expiresAt;
+        private final Instant refreshAt;
+
+        private CachedDocument(DidDocument document, String etag, Duration ttl) {
+            var now = clock.instant();
+            this.document = document;
+            this.etag = etag;
+            this.expiresAt = now.plus(ttl);
+            this.refreshAt = now.plus(Duration.ofMillis((long) (ttl.toMillis() * (1 - REFRESH_AHEAD_RATIO))));
+        }
+    }
+}
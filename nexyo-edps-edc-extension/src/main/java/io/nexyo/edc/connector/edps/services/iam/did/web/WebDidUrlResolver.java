@@ -1,7 +1,7 @@
 package io.nexyo.edc.connector.edps.services.iam.did.web;
 
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
 import org.eclipse.edc.spi.EdcException;
-import org.eclipse.edc.spi.monitor.Monitor;
 
 import java.net.*;
 import java.nio.charset.StandardCharsets;
@@ -17,11 +17,11 @@ public class WebDidUrlResolver implements UnaryOperator<String> {
     private static final String WELL_KNOWN = "/.well-known";
     private final String scheme;
 
-    private final Monitor monitor;
+    private final NexyoLogger logger;
 
-    public WebDidUrlResolver(boolean useHttpsSchema, Monitor monitor) {
+    public WebDidUrlResolver(boolean useHttpsSchema, NexyoLogger logger) {
         this.scheme = useHttpsSchema ? "https" : "http";
-        this.monitor = monitor;
+        this.logger = logger;
     }
 
     public String apply(String did) {
@@ -56,9 +56,9 @@ public class WebDidUrlResolver implements UnaryOperator<String> {
                 String decodedHost = null;
                 try {
                     decodedHost = URLDecoder.decode(host, "UTF-8");
-                    monitor.debug("##### decodedHost: " + decodedHost);
+                    logger.debug("did.url.host", "did", did, "host", decodedHost);
                 } catch (Exception e) {
-                    monitor.debug("##### UnsupportedEncodingException when trying to decode did url host: " + e.getMessage());
+                    logger.debug("did.url.invalid", "did", did, "reason", e.getMessage());
                     throw new EdcException("UnsupportedEncodingException when trying to decode did url host: " + e.getMessage());
                 }
 
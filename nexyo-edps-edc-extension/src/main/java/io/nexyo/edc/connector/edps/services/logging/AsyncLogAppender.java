@@ -0,0 +1,104 @@
+package io.nexyo.edc.connector.edps.services.logging;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Formats and writes log events to the EDC monitor on a background thread, so request threads neither build the message
+ * nor wait for the monitor's output. The queue is bounded: events offered while it is full are dropped and counted,
+ * the count is reported with the next written event.
+ */
+public class AsyncLogAppender implements AutoCloseable {
+    private static final Object[] NO_FIELDS = new Object[0];
+
+    private final Monitor monitor;
+    private final BlockingQueue<LogEvent> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AsyncLogAppender(Monitor monitor, int queueSize) {
+        this.monitor = monitor;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.worker = new Thread(this::drain, "nexyo-log");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void append(LogLevel level, String event, Object... fields) {
+        if (!queue.offer(new LogEvent(level, event, fields == null ? NO_FIELDS : fields))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /*
+     * Writes the queued events and stops the background thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LogEvent event;
+        while ((event = queue.poll()) != null) {
+            write(event);
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                monitor.warning("Failed to write log event", e);
+            }
+        }
+    }
+
+    private void write(LogEvent event) {
+        var message = format(event);
+        var droppedEvents = dropped.getAndSet(0);
+        if (droppedEvents > 0) {
+            message = message + " (" + droppedEvents + " log events dropped, queue full)";
+        }
+        switch (event.level()) {
+            case DEBUG -> monitor.debug(message);
+            case INFO -> monitor.info(message);
+            case WARNING -> monitor.warning(message);
+            case SEVERE -> monitor.severe(message);
+        }
+    }
+
+    /*
+     * Formats the event as "event key1=value1 key2=value2".
+     */
+    static String format(LogEvent event) {
+        var message = new StringBuilder(event.event());
+        var fields = event.fields();
+        for (var i = 0; i + 1 < fields.length; i += 2) {
+            message.append(' ').append(fields[i]).append('=').append(valueOf(fields[i + 1]));
+        }
+        return message.toString();
+    }
+
+    private static String valueOf(Object value) {
+        if (value instanceof Object[] array) {
+            return Arrays.toString(array);
+        }
+        return String.valueOf(value);
+    }
+
+    record LogEvent(LogLevel level, String event, Object[] fields) {
+    }
+}
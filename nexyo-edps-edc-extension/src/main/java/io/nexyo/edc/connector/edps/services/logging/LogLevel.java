@@ -0,0 +1,21 @@
+package io.nexyo.edc.connector.edps.services.logging;
+
+import java.util.Locale;
+
+/*
+ * Levels of the nexyo logger, from the most to the least verbose.
+ */
+public enum LogLevel {
+    DEBUG, INFO, WARNING, SEVERE;
+
+    public static LogLevel parse(String value, LogLevel defaultLevel) {
+        if (value == null || value.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.nexyo.edc.connector.edps.services.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Lets through one of every rate occurrences of a high-frequency log event. Create one sampler per event and keep it in a field.
+ */
+public class LogSampler {
+    private final long rate;
+    private final AtomicLong occurrences = new AtomicLong();
+
+    public LogSampler(long rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    public boolean sample() {
+        return rate == 1 || occurrences.getAndIncrement() % rate == 0;
+    }
+}
@@ -0,0 +1,122 @@
+package io.nexyo.edc.connector.edps.services.logging;
+
+import io.nexyo.edc.connector.edps.services.config.ConfigService;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.function.Supplier;
+
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.LOG_LEVEL;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.LOG_QUEUE_SIZE;
+import static io.nexyo.edc.connector.edps.NexyoEdpsSettings.LOG_SAMPLE_RATE;
+
+/*
+ * Structured logging facade for the nexyo extension. Events are logged as a constant event name followed by key/value
+ * fields; the message is only built, on the appender thread, if the level is enabled. The fixed-arity methods neither
+ * concatenate strings nor allocate varargs arrays before the level check, so disabled debug logging costs a field read
+ * on the hot path. Debug and info events are written asynchronously, warnings and errors directly.
+ */
+public class NexyoLogger implements AutoCloseable {
+    private static final String DEFAULT_QUEUE_SIZE = "8192";
+    private static final String DEFAULT_SAMPLE_RATE = "1";
+
+    private final Monitor monitor;
+    private final LogLevel level;
+    private final long sampleRate;
+    private final AsyncLogAppender appender;
+
+    public NexyoLogger(Monitor monitor, ConfigService configService) {
+        this(monitor, LogLevel.parse(configService.getConfigValue(LOG_LEVEL, null), LogLevel.INFO),
+                Long.parseLong(configService.getConfigValue(LOG_SAMPLE_RATE, DEFAULT_SAMPLE_RATE)),
+                new AsyncLogAppender(monitor, Integer.parseInt(configService.getConfigValue(LOG_QUEUE_SIZE, DEFAULT_QUEUE_SIZE))));
+    }
+
+    public NexyoLogger(Monitor monitor, LogLevel level, long sampleRate, AsyncLogAppender appender) {
+        this.monitor = monitor;
+        this.level = level;
+        this.sampleRate = sampleRate;
+        this.appender = appender;
+    }
+
+    /*
+     * Creates a sampler for a high-frequency event, letting through one of every edc.nexyodataspace.log.sample.rate events.
+     */
+    public LogSampler sampler() {
+        return new LogSampler(sampleRate);
+    }
+
+    public boolean isDebugEnabled() {
+        return level == LogLevel.DEBUG;
+    }
+
+    public boolean isInfoEnabled() {
+        return level.compareTo(LogLevel.INFO) <= 0;
+    }
+
+    public void debug(String event) {
+        if (isDebugEnabled()) {
+            appender.append(LogLevel.DEBUG, event);
+        }
+    }
+
+    public void debug(String event, String key, Object value) {
+        if (isDebugEnabled()) {
+            appender.append(LogLevel.DEBUG, event, key, value);
+        }
+    }
+
+    public void debug(String event, String key1, Object value1, String key2, Object value2) {
+        if (isDebugEnabled()) {
+            appender.append(LogLevel.DEBUG, event, key1, value1, key2, value2);
+        }
+    }
+
+    public void debug(String event, String key1, Object value1, String key2, Object value2, String key3, Object value3) {
+        if (isDebugEnabled()) {
+            appender.append(LogLevel.DEBUG, event, key1, value1, key2, value2, key3, value3);
+        }
+    }
+
+    public void debug(LogSampler sampler, String event, String key1, Object value1, String key2, Object value2, String key3, Object value3) {
+        if (isDebugEnabled() && sampler.sample()) {
+            appender.append(LogLevel.DEBUG, event, key1, value1, key2, value2, key3, value3);
+        }
+    }
+
+    /*
+     * For messages that cannot be expressed as fields; the supplier is only called if debug logging is enabled.
+     */
+    public void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            appender.append(LogLevel.DEBUG, message.get());
+        }
+    }
+
+    public void info(String event) {
+        if (isInfoEnabled()) {
+            appender.append(LogLevel.INFO, event);
+        }
+    }
+
+    public void info(String event, String key, Object value) {
+        if (isInfoEnabled()) {
+            appender.append(LogLevel.INFO, event, key, value);
+        }
+    }
+
+    public void warning(String message) {
+        monitor.warning(message);
+    }
+
+    public void warning(String message, Throwable error) {
+        monitor.warning(message, error);
+    }
+
+    public void severe(String message, Throwable error) {
+        monitor.severe(message, error);
+    }
+
+    @Override
+    public void close() {
+        appender.close();
+    }
+}
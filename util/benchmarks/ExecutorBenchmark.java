@@ -0,0 +1,110 @@
+import com.sun.net.httpserver.HttpServer;
+import io.nexyo.edp.extensions.utils.BoundedExecutor;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/*
+ * Measures bursts of blocking calls to a slow HTTP endpoint run through the EDP extension's BoundedExecutor, once on
+ * a fixed pool of platform threads and once on virtual threads, with the defaults of the request executor
+ * (16 platform threads, 1024 virtual threads). Every task makes one blocking call, like an EDPS job status request.
+ *
+ * Run with the compiled BoundedExecutor on the classpath on a Java 21+ runtime, see README.md.
+ */
+public class ExecutorBenchmark {
+    private static final int PLATFORM_THREADS = 16;
+    private static final int VIRTUAL_THREADS = 1024;
+    private static final int[] BURSTS = {16, 64, 256, 1024};
+
+    public static void main(String[] args) throws Exception {
+        var delayMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        if (!BoundedExecutor.supportsVirtualThreads()) {
+            System.err.println("Virtual threads need a Java 21+ runtime");
+            System.exit(1);
+        }
+
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 2048);
+        server.setExecutor(BoundedExecutor.newVirtualThreadExecutor().orElseThrow());
+        server.createContext("/status", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            var body = "{\"state\":\"PROCESSING\"}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        var uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/status");
+        var client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+
+        System.out.printf("Endpoint delay %d ms%n", delayMillis);
+        System.out.printf("%-9s %6s %9s %11s %11s %11s%n", "executor", "burst", "ok", "median ms", "p99 ms", "wall ms");
+        for (var burst : BURSTS) {
+            var platform = new BoundedExecutor(Executors.newFixedThreadPool(PLATFORM_THREADS), PLATFORM_THREADS,
+                    UnaryOperator.identity());
+            run("platform", platform, client, uri, burst);
+            platform.shutdownNow();
+
+            var virtual = new BoundedExecutor(BoundedExecutor.newVirtualThreadExecutor().orElseThrow(), VIRTUAL_THREADS,
+                    UnaryOperator.identity());
+            run("virtual", virtual, client, uri, burst);
+            virtual.shutdownNow();
+        }
+        server.stop(0);
+        System.exit(0);
+    }
+
+    private static void run(String name, ExecutorService executor, HttpClient client, URI uri, int burst) {
+        var request = HttpRequest.newBuilder(uri).GET().build();
+        var ok = new AtomicInteger();
+        var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        var start = System.nanoTime();
+        for (var i = 0; i < burst; i++) {
+            var submitted = System.nanoTime();
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        ok.incrementAndGet();
+                        latencies.add(System.nanoTime() - submitted);
+                    }
+                } catch (Exception e) {
+                    // counted as failed
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        var wall = System.nanoTime() - start;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%-9s %6d %9d %11d %11d %11d%n", name, burst, ok.get(), millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 99)), millis(wall));
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,211 @@
+import io.nexyo.edc.connector.edps.adapters.http.nexyo.info.NexyoHubConnectorsResponse;
+import io.nexyo.edc.connector.edps.adapters.http.nexyo.info.NexyoHubDataSpaceInfoResponse;
+import io.nexyo.edc.connector.edps.adapters.http.nexyo.info.NexyoHubInfoClient;
+import io.nexyo.edc.connector.edps.adapters.repository.file.NexyoDataSpaceMembershipRepository;
+import io.nexyo.edc.connector.edps.extensions.SpaceMembershipParticipantAgentServiceExtension;
+import io.nexyo.edc.connector.edps.services.config.ConfigService;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.DataSpaceService;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.MembershipVerdictCache;
+import io.nexyo.edc.connector.edps.services.iam.dataspace.ParticipantSetCache;
+import io.nexyo.edc.connector.edps.services.logging.AsyncLogAppender;
+import io.nexyo.edc.connector.edps.services.logging.LogLevel;
+import io.nexyo.edc.connector.edps.services.logging.NexyoLogger;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.iam.did.spi.document.VerificationMethod;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.spi.iam.ClaimToken;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.CONNECTORS_SVC_ID_SUFFIX;
+import static io.nexyo.edc.connector.edps.NexyoEdpsConstants.DS_INFO_SVC_ID_SUFFIX;
+
+/*
+ * Measures the bytes allocated per call of the real membership check paths of the nexyo extension while debug logging
+ * is disabled: DataSpaceService.isConnectorDataSpaceMember running the full verification chain (connector DID, hub DID,
+ * hub connectors, participant list) and SpaceMembershipParticipantAgentServiceExtension.attributesFor on top of it.
+ * DID resolution and hub calls are answered by in-memory stubs with preallocated results, tasks run on the calling
+ * thread and verdicts are not cached, so the figures cover the extension's own code including its logging calls.
+ * A log argument evaluated before the level check, e.g. a boxed participant count, shows up as added bytes per call.
+ *
+ * Run with the nexyo extension's classes and the EDC SPI on the classpath, see README.md. An optional argument sets
+ * the budget in bytes per membership check; the benchmark fails if isConnectorDataSpaceMember exceeds it.
+ */
+public class LoggingAllocationBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int PARTICIPANTS = 500;
+    private static final String CONNECTOR = "did:web:connector.example.com";
+    private static final String HUB = "did:web:hub.example.com";
+    private static final String DATA_SPACE = "did:web:hub.example.com:dataspaces:example";
+
+    public static void main(String[] args) throws Exception {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            System.err.println("The JVM does not support measuring allocated memory per thread");
+            System.exit(1);
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        var monitor = new InfoLevelMonitor();
+        var logger = new NexyoLogger(monitor, LogLevel.INFO, 1, new AsyncLogAppender(monitor, 1024));
+        var executor = new CallerRunsExecutor();
+        var clock = Clock.systemUTC();
+        var configService = new ConfigService(defaultSettingsContext());
+
+        var membershipFile = Files.createTempFile("space-memberships", ".txt");
+        membershipFile.toFile().deleteOnExit();
+        Files.write(membershipFile, List.of(DATA_SPACE));
+
+        var dataSpaceService = new DataSpaceService(logger, configService, new StubDidResolver(), new StubHubInfoClient(logger), executor,
+                new MembershipVerdictCache(clock, Duration.ZERO, Duration.ZERO, 1, executor),
+                new ParticipantSetCache(clock, Duration.ofDays(1)),
+                new NexyoDataSpaceMembershipRepository(membershipFile.toString()));
+        var extension = new SpaceMembershipParticipantAgentServiceExtension(logger, dataSpaceService, configService, executor);
+        var claimToken = ClaimToken.Builder.newInstance().claim("client_id", CONNECTOR).build();
+
+        if (!dataSpaceService.isConnectorDataSpaceMember(CONNECTOR, DATA_SPACE)) {
+            System.err.println("The stubbed connector is not recognised as a member, check the stubs");
+            System.exit(1);
+        }
+
+        var memberBytes = measure(threadBean, () -> dataSpaceService.isConnectorDataSpaceMember(CONNECTOR, DATA_SPACE) ? 1 : 0);
+        var attributesBytes = measure(threadBean, () -> extension.attributesFor(claimToken).size());
+        logger.close();
+
+        System.out.printf("DataSpaceService.isConnectorDataSpaceMember:                 %8.1f bytes per call%n", memberBytes);
+        System.out.printf("SpaceMembershipParticipantAgentServiceExtension.attributesFor: %8.1f bytes per call%n", attributesBytes);
+        if (args.length > 0 && memberBytes > Double.parseDouble(args[0])) {
+            System.err.printf("FAIL: isConnectorDataSpaceMember allocates more than the budget of %s bytes per call%n", args[0]);
+            System.exit(1);
+        }
+    }
+
+    private static double measure(com.sun.management.ThreadMXBean threadBean, IntSupplier call) {
+        var blackhole = 0;
+        for (var i = 0; i < WARMUP_ITERATIONS; i++) {
+            blackhole += call.getAsInt();
+        }
+        var threadId = Thread.currentThread().getId();
+        var before = threadBean.getThreadAllocatedBytes(threadId);
+        for (var i = 0; i < ITERATIONS; i++) {
+            blackhole += call.getAsInt();
+        }
+        var allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        if (blackhole == 42) {
+            System.out.println(blackhole);
+        }
+        return (double) allocated / ITERATIONS;
+    }
+
+    /*
+     * Answers every setting with its default.
+     */
+    private static ServiceExtensionContext defaultSettingsContext() {
+        return (ServiceExtensionContext) Proxy.newProxyInstance(LoggingAllocationBenchmark.class.getClassLoader(), new Class<?>[]{ ServiceExtensionContext.class },
+                (proxy, method, methodArgs) -> method.getName().equals("getSetting") ? methodArgs[1] : null);
+    }
+
+    /*
+     * The connector is controlled by the hub, the hub lists the connector, and the data space lists the hub among its participants.
+     */
+    private static class StubDidResolver implements DidResolver {
+        private final Map<String, Result<DidDocument>> documents = Map.of(
+                CONNECTOR, Result.success(document(CONNECTOR, HUB, List.of())),
+                HUB, Result.success(document(HUB, HUB, List.of(new Service(HUB + CONNECTORS_SVC_ID_SUFFIX, "ConnectorsEndpoint", "https://hub.example.com/connectors")))),
+                DATA_SPACE, Result.success(document(DATA_SPACE, HUB, List.of(new Service(DATA_SPACE + DS_INFO_SVC_ID_SUFFIX, "DataSpaceInfo", "https://hub.example.com/info")))));
+        private final Result<DidDocument> unknown = Result.failure("unknown DID");
+
+        @Override
+        public String getMethod() {
+            return "web";
+        }
+
+        @Override
+        public Result<DidDocument> resolve(String did) {
+            return documents.getOrDefault(did, unknown);
+        }
+
+        private static DidDocument document(String did, String controller, List<Service> services) {
+            var verificationMethod = VerificationMethod.Builder.create().controller(controller).id(did + "#key-1").type("JsonWebKey2020").publicKeyJwk(Map.of()).build();
+            return DidDocument.Builder.newInstance().id(did).verificationMethod(List.of(verificationMethod)).service(services).build();
+        }
+    }
+
+    private static class StubHubInfoClient extends NexyoHubInfoClient {
+        private final Result<NexyoHubConnectorsResponse> connectors = Result.success(new NexyoHubConnectorsResponse(new String[]{ CONNECTOR }));
+        private final Result<NexyoHubDataSpaceInfoResponse> dataSpaceInfo = Result.success(new NexyoHubDataSpaceInfoResponse("example", "", PARTICIPANTS, false,
+                IntStream.range(0, PARTICIPANTS).mapToObj(i -> i == 0 ? HUB : "did:web:participant" + i + ".example.com").toArray(String[]::new)));
+
+        StubHubInfoClient(NexyoLogger logger) {
+            super(null, null, null, logger);
+        }
+
+        @Override
+        public Result<NexyoHubConnectorsResponse> getHubConnectors(String connectorsServiceEndpoint, String hubDid) {
+            return connectors;
+        }
+
+        @Override
+        public Result<NexyoHubDataSpaceInfoResponse> getDataSpaceInfo(String dataSpaceInfoServiceEndpoint, String dataSpaceControllerDid) {
+            return dataSpaceInfo;
+        }
+    }
+
+    private static class CallerRunsExecutor extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    /*
+     * Behaves like the EDC console monitor at INFO level.
+     */
+    private static class InfoLevelMonitor implements Monitor {
+        private volatile String lastMessage;
+
+        @Override
+        public void info(String message, Throwable... errors) {
+            lastMessage = message;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import argparse
+import json
+import logging
+import threading
+import time
+import urllib.error
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+logging.basicConfig(level=logging.INFO, format='%(asctime)s - %(levelname)s - %(message)s')
+
+
+class SlowEdpsHandler(BaseHTTPRequestHandler):
+    """Answers EDPS job status requests after a fixed delay."""
+    delay = 2.0
+
+    def do_GET(self):
+        time.sleep(self.delay)
+        job_id = self.path.split("/")[4] if self.path.count("/") >= 5 else "unknown"
+        body = json.dumps({"job_id": job_id, "state": "PROCESSING", "state_detail": "slow stub"}).encode("utf-8")
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, format, *args):
+        pass
+
+
+def run_stub(args):
+    SlowEdpsHandler.delay = args.delay
+    server = ThreadingHTTPServer(("", args.port), SlowEdpsHandler)
+    server.daemon_threads = True
+    server.request_queue_size = 1024
+    logging.info(f"Slow EDPS stub listening on port {args.port} with {args.delay}s delay")
+    server.serve_forever()
+
+
+def call(url, timeout):
+    started = time.monotonic()
+    try:
+        with urllib.request.urlopen(url, timeout=timeout) as response:
+            response.read()
+            status = response.status
+    except urllib.error.HTTPError as e:
+        status = e.code
+    except Exception:
+        status = "error"
+    return status, time.monotonic() - started
+
+
+def run_load(args):
+    print(f"{'concurrency':>11} {'ok':>6} {'503':>6} {'504':>6} {'other':>6} {'p50 s':>7} {'p99 s':>7} {'wall s':>7}")
+    for concurrency in [int(level) for level in args.concurrency.split(",")]:
+        barrier = threading.Barrier(concurrency)
+
+        def task(_):
+            barrier.wait()
+            return call(args.url, args.timeout)
+
+        started = time.monotonic()
+        with ThreadPoolExecutor(max_workers=concurrency) as pool:
+            results = list(pool.map(task, range(concurrency)))
+        wall = time.monotonic() - started
+
+        statuses = [status for status, _ in results]
+        latencies = sorted(latency for status, latency in results if status == 200) or [0.0]
+        ok = statuses.count(200)
+        unavailable = statuses.count(503)
+        timed_out = statuses.count(504)
+        other = len(statuses) - ok - unavailable - timed_out
+        p50 = latencies[len(latencies) // 2]
+        p99 = latencies[min(len(latencies) - 1, int(len(latencies) * 0.99))]
+        print(f"{concurrency:>11} {ok:>6} {unavailable:>6} {timed_out:>6} {other:>6} {p50:>7.2f} {p99:>7.2f} {wall:>7.2f}")
+        time.sleep(args.pause)
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description="Measures how many concurrent slow EDPS calls the connector sustains.")
+    commands = parser.add_subparsers(dest="command", required=True)
+
+    stub = commands.add_parser("stub", help="start a slow EDPS stub")
+    stub.add_argument("--port", type=int, default=8081)
+    stub.add_argument("--delay", type=float, default=2.0, help="seconds before each EDPS response")
+    stub.set_defaults(run=run_stub)
+
+    load = commands.add_parser("load", help="fire concurrent job status requests at the connector")
+    load.add_argument("--url", required=True, help="EDP job status URL of the connector")
+    load.add_argument("--concurrency", default="16,64,256,512,1024", help="comma separated concurrency levels")
+    load.add_argument("--timeout", type=float, default=120.0, help="client timeout in seconds")
+    load.add_argument("--pause", type=float, default=2.0, help="seconds between levels")
+    load.set_defaults(run=run_load)
+
+    args = parser.parse_args()
+    args.run(args)
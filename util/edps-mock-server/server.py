@@ -4,7 +4,7 @@ import json
 import uuid
 import socket
 from http.server import SimpleHTTPRequestHandler, HTTPServer
-from urllib.parse import urlparse
+from urllib.parse import urlparse, parse_qs
 import zipfile
 import time
 
@@ -13,6 +13,7 @@ TIMEOUT = 120  # Increased timeout from 30 to 120 seconds
 BASE_DIR = os.path.dirname(os.path.abspath(__file__))  # Base directory is /server
 DATA_DIR = os.path.join(BASE_DIR, "data")  # Directory for GET request files
 os.makedirs(DATA_DIR, exist_ok=True)
+DASEEN_RESOURCES = {}  # Daseen resources created on this mock, by ID
 
 logging.basicConfig(
     level=logging.INFO,
@@ -42,6 +43,8 @@ class CustomHandler(SimpleHTTPRequestHandler):
             self.serve_analysisjob_result(parsed_path)
         elif parsed_path.startswith("/v1/dataspace/analysisjob/") and "/status" in parsed_path:
             self.serve_analysisjob_status(parsed_path)
+        elif parsed_path == "/connector/edp/":
+            self.serve_daseen_list()
         else:
             self.send_response(404)
             self.end_headers()
@@ -377,10 +380,23 @@ class CustomHandler(SimpleHTTPRequestHandler):
         except Exception as e:
             logging.error(f"Error creating zip file: {str(e)}")
 
+    def serve_daseen_list(self):
+        """List the daseen connectors created on this mock, paged by offset and limit."""
+        query = parse_qs(urlparse(self.path).query)
+        offset = int(query.get("offset", ["0"])[0])
+        limit = int(query.get("limit", ["100"])[0])
+        resources = list(DASEEN_RESOURCES.values())[offset:offset + limit]
+
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.end_headers()
+        self.wfile.write(json.dumps(resources).encode())
+
     def handle_daseen_create(self):
         """Handle creation of new daseen connector."""
         try:
             resource_id = str(uuid.uuid4())  # Generate a unique ID
+            DASEEN_RESOURCES[resource_id] = {"id": resource_id, "state": "SUCCESS"}
             
             self.send_response(201)
             self.send_header("Content-Type", "application/json")
@@ -650,6 +666,10 @@ class CustomHandler(SimpleHTTPRequestHandler):
     def handle_daseen_delete(self, parsed_path):
         """Handle daseen connector deletion."""
         try:
+            path_parts = [p for p in parsed_path.split('/') if p]
+            if len(path_parts) >= 3:
+                DASEEN_RESOURCES.pop(path_parts[2], None)
+
             # For 204 No Content, we only send the status code and end headers
             self.send_response(204)
             self.end_headers()